@@ -0,0 +1,81 @@
+package com.quantcrux.benchmarks;
+
+import com.quantcrux.backtest.BacktestOptimizer;
+import com.quantcrux.backtest.CompiledStrategyCache;
+import com.quantcrux.dto.BacktestRequest;
+import com.quantcrux.dto.BacktestResult;
+import com.quantcrux.model.StrategyV2;
+import com.quantcrux.service.BacktestService;
+import com.quantcrux.service.MarketDataService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BacktestService.runBacktest over series from one year to twenty years of daily bars, with
+ * the default StrategyV2 code (two SMAs and an RSI, stop loss and take profit).
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BacktestBenchmark {
+
+    @Param({"252", "1260", "5040"})
+    public int days;
+
+    private AnnotationConfigApplicationContext context;
+    private BacktestService backtestService;
+    private BacktestRequest request;
+    private StrategyV2 strategy;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.create(Map.of(), BacktestService.class, MarketDataService.class,
+                                          CompiledStrategyCache.class, BacktestOptimizer.class);
+        backtestService = context.getBean(BacktestService.class);
+
+        LocalDate endDate = LocalDate.now();
+        request = new BacktestRequest();
+        request.setStrategyId(1L);
+        request.setSymbol("SPY");
+        request.setStartDate(endDate.minusDays(days).toString());
+        request.setEndDate(endDate.toString());
+        request.setInitialCapital(100000.0);
+
+        strategy = new StrategyV2("Benchmark", null, Map.of(
+            "indicators", Map.of("sma_short", 20, "sma_long", 50, "rsi_period", 14),
+            "entry_conditions", Map.of("price_above_sma", true, "rsi_above", 50),
+            "exit_conditions", Map.of("stop_loss_percent", 5, "take_profit_percent", 10),
+            "risk_management", Map.of("max_position_size", 0.1, "max_drawdown", 0.15)), null);
+        strategy.setId(1L);
+        strategy.setUpdatedAt(LocalDateTime.now());
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public BacktestResult runBacktest() {
+        return backtestService.runBacktest(request, strategy);
+    }
+}
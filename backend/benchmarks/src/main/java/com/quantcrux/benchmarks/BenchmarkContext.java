@@ -0,0 +1,25 @@
+package com.quantcrux.benchmarks;
+
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+
+import java.util.Map;
+
+/**
+ * Minimal Spring context holding only the beans a benchmark needs, so services are wired
+ * exactly as in the application (field injection, @Value defaults, @PostConstruct) without
+ * a database or web server.
+ */
+final class BenchmarkContext {
+
+    private BenchmarkContext() {
+    }
+
+    static AnnotationConfigApplicationContext create(Map<String, Object> properties, Class<?>... beans) {
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("benchmark", properties));
+        context.register(beans);
+        context.refresh();
+        return context;
+    }
+}
@@ -0,0 +1,83 @@
+package com.quantcrux.benchmarks;
+
+import com.quantcrux.backtest.AverageTrueRange;
+import com.quantcrux.backtest.BollingerBands;
+import com.quantcrux.backtest.ExponentialMovingAverage;
+import com.quantcrux.backtest.Indicator;
+import com.quantcrux.backtest.RelativeStrengthIndex;
+import com.quantcrux.backtest.RollingStandardDeviation;
+import com.quantcrux.backtest.SimpleMovingAverage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-bar update cost of the rolling indicators; flat in the window length.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class IndicatorBenchmark {
+
+    private static final int BARS = 1 << 16;
+
+    @Param({"sma", "ema", "rsi", "bollinger", "atr", "std"})
+    public String indicatorType;
+
+    @Param({"20", "200"})
+    public int period;
+
+    private Indicator indicator;
+    private double[] high;
+    private double[] low;
+    private double[] close;
+
+    @Setup
+    public void setUp() {
+        indicator = switch (indicatorType) {
+            case "sma" -> new SimpleMovingAverage(period);
+            case "ema" -> new ExponentialMovingAverage(period);
+            case "rsi" -> new RelativeStrengthIndex(period);
+            case "bollinger" -> new BollingerBands(period, 2.0);
+            case "atr" -> new AverageTrueRange(period);
+            default -> new RollingStandardDeviation(period);
+        };
+        SplittableRandom rng = new SplittableRandom(42);
+        high = new double[BARS];
+        low = new double[BARS];
+        close = new double[BARS];
+        double price = 100;
+        for (int i = 0; i < BARS; i++) {
+            price *= 1 + 0.01 * (rng.nextDouble() - 0.5);
+            close[i] = price;
+            high[i] = price * (1 + 0.005 * rng.nextDouble());
+            low[i] = price * (1 - 0.005 * rng.nextDouble());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BARS)
+    public double update() {
+        double sum = 0;
+        for (int i = 0; i < BARS; i++) {
+            indicator.update(high[i], low[i], close[i]);
+            sum += indicator.value();
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,88 @@
+package com.quantcrux.benchmarks;
+
+import com.quantcrux.dto.PricingRequest;
+import com.quantcrux.dto.PricingResult;
+import com.quantcrux.pricing.AnalyticPricingModel;
+import com.quantcrux.pricing.CorrelationCache;
+import com.quantcrux.pricing.MarketEnvironment;
+import com.quantcrux.pricing.MonteCarloEngine;
+import com.quantcrux.pricing.MonteCarloPricingModel;
+import com.quantcrux.pricing.MultiAssetPricingModel;
+import com.quantcrux.pricing.PayoffKernelCache;
+import com.quantcrux.pricing.PdePricingModel;
+import com.quantcrux.pricing.PricingCache;
+import com.quantcrux.pricing.PricingModelRegistry;
+import com.quantcrux.pricing.ScenarioGridPricer;
+import com.quantcrux.service.PricingService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PricingService.monteCarloPrice end to end, with the result cache disabled so every call
+ * simulates. barrier_option is monitored daily, so its paths have one step per trading day.
+ * simd=true generates single-step paths with the Vector API kernel.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+@State(Scope.Benchmark)
+public class MonteCarloPricingBenchmark {
+
+    @Param({"vanilla", "digital_option", "barrier_option"})
+    public String productType;
+
+    @Param({"10000", "100000", "1000000"})
+    public int numSimulations;
+
+    @Param({"false", "true"})
+    public boolean simd;
+
+    private AnnotationConfigApplicationContext context;
+    private PricingService pricingService;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.create(
+            Map.of("pricing.cache.enabled", "false", "pricing.monte-carlo.simd", String.valueOf(simd)),
+            PricingService.class, PricingModelRegistry.class, AnalyticPricingModel.class, PdePricingModel.class,
+            MonteCarloPricingModel.class, MultiAssetPricingModel.class, ScenarioGridPricer.class, MonteCarloEngine.class,
+            PayoffKernelCache.class, CorrelationCache.class, PricingCache.class, MarketEnvironment.class);
+        pricingService = context.getBean(PricingService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public PricingResult monteCarloPrice() {
+        PricingRequest request = new PricingRequest();
+        request.setProductType(productType);
+        request.setSpotPrice(100.0);
+        request.setStrike(100.0);
+        request.setBarrier(productType.equals("barrier_option") ? 90.0 : null);
+        request.setCoupon(0.05);
+        request.setVolatility(0.2);
+        request.setRiskFreeRate(0.05);
+        request.setTimeToMaturity(1.0);
+        request.setNumSimulations(numSimulations);
+        return pricingService.monteCarloPrice(request);
+    }
+}
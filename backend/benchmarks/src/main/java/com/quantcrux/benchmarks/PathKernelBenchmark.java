@@ -0,0 +1,75 @@
+package com.quantcrux.benchmarks;
+
+import com.quantcrux.pricing.PathKernel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-path cost of shock generation and terminal prices, scalar against the Vector API
+ * kernel. The lane count of the vector kernel follows the CPU (4 with AVX2, 8 with AVX-512).
+ * The vector kernel is first checked against the scalar one with {@link PathKernelEquivalence},
+ * so a fast but wrong kernel fails the run instead of reporting a speedup.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+@State(Scope.Thread)
+public class PathKernelBenchmark {
+
+    private static final int PATHS = 4096;
+
+    @Param({"scalar", "vector"})
+    public String kernelType;
+
+    private PathKernel kernel;
+    private SplittableRandom rng;
+    private double[] uniforms;
+    private double[] shocks;
+    private double[] prices;
+
+    @Setup
+    public void setUp() {
+        kernel = PathKernel.select(kernelType.equals("vector"));
+        if (!kernel.getName().startsWith(kernelType)) {
+            throw new IllegalStateException("Vector kernel unavailable; build the backend with -Psimd and run with "
+                                            + "--add-modules jdk.incubator.vector");
+        }
+        if (kernelType.equals("vector")) {
+            PathKernelEquivalence.check(kernel);
+        }
+        rng = new SplittableRandom(42);
+        uniforms = new double[PATHS + 1];
+        shocks = new double[PATHS];
+        prices = new double[PATHS];
+        kernel.gaussians(rng, shocks, PATHS, uniforms);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PATHS)
+    public double[] gaussians() {
+        kernel.gaussians(rng, shocks, PATHS, uniforms);
+        return shocks;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PATHS)
+    public double[] terminalPrices() {
+        kernel.terminalPrices(shocks, PATHS, 100.0, 0.03, 0.2, prices);
+        return prices;
+    }
+}
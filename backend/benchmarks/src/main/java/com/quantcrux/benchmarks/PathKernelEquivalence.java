@@ -0,0 +1,110 @@
+package com.quantcrux.benchmarks;
+
+import com.quantcrux.pricing.PathKernel;
+
+import java.util.SplittableRandom;
+
+/**
+ * Checks that the vector {@link PathKernel} reproduces the scalar one: both kernels draw from
+ * the same seed, and their shocks, terminal prices and the price of an at-the-money call
+ * must agree within a relative {@link #TOLERANCE}. Block sizes include ones that are not a
+ * multiple of the lane count, so the scalar tails of the vector loops are covered too.
+ *
+ * <pre>
+ * java --add-modules jdk.incubator.vector -cp target/benchmarks.jar com.quantcrux.benchmarks.PathKernelEquivalence
+ * </pre>
+ */
+public final class PathKernelEquivalence {
+
+    static final double TOLERANCE = 1e-12;
+
+    private static final int[] COUNTS = {1, 2, 7, 4096, 4099, 65537};
+    private static final long[] SEEDS = {42, 7, 20240601};
+
+    private static final double SPOT = 100.0;
+    private static final double STRIKE = 100.0;
+    private static final double RATE = 0.03;
+    private static final double VOLATILITY = 0.2;
+    private static final double MATURITY = 1.0;
+
+    private PathKernelEquivalence() {
+    }
+
+    public static void main(String[] args) {
+        PathKernel vector = PathKernel.select(true);
+        if (!vector.getName().startsWith("vector")) {
+            System.err.println("Vector kernel unavailable; build the backend with -Psimd and run with "
+                               + "--add-modules jdk.incubator.vector");
+            System.exit(2);
+        }
+        try {
+            check(vector);
+        } catch (IllegalStateException e) {
+            System.err.println(e.getMessage());
+            System.exit(1);
+        }
+        System.out.println(vector.getName() + " matches scalar within " + TOLERANCE + " on " + SEEDS.length
+                           + " seeds x " + COUNTS.length + " block sizes");
+    }
+
+    /**
+     * Compare candidate with the scalar kernel on every seed and block size; throws
+     * IllegalStateException naming the first value that differs by more than the tolerance.
+     */
+    public static void check(PathKernel candidate) {
+        PathKernel reference = PathKernel.select(false);
+        double drift = (RATE - 0.5 * VOLATILITY * VOLATILITY) * MATURITY;
+        double diffusion = VOLATILITY * Math.sqrt(MATURITY);
+        double discount = Math.exp(-RATE * MATURITY);
+        for (long seed : SEEDS) {
+            for (int count : COUNTS) {
+                double[] uniforms = new double[count + 1];
+                double[] expectedShocks = new double[count];
+                double[] actualShocks = new double[count];
+                reference.gaussians(new SplittableRandom(seed), expectedShocks, count, uniforms);
+                candidate.gaussians(new SplittableRandom(seed), actualShocks, count, uniforms);
+                compare("shock", seed, count, expectedShocks, actualShocks);
+
+                double[] expectedPrices = new double[count];
+                double[] actualPrices = new double[count];
+                // Same shocks into both, so price differences come from exp alone
+                reference.terminalPrices(expectedShocks, count, SPOT, drift, diffusion, expectedPrices);
+                candidate.terminalPrices(expectedShocks, count, SPOT, drift, diffusion, actualPrices);
+                compare("terminal price", seed, count, expectedPrices, actualPrices);
+
+                // End to end: each kernel on its own shocks
+                candidate.terminalPrices(actualShocks, count, SPOT, drift, diffusion, actualPrices);
+                double expectedCall = callPrice(expectedPrices, count, discount);
+                double actualCall = callPrice(actualPrices, count, discount);
+                if (!close(expectedCall, actualCall)) {
+                    throw new IllegalStateException(String.format(
+                        "%s call price differs from scalar (seed %d, %d paths): %.17g vs %.17g",
+                        candidate.getName(), seed, count, actualCall, expectedCall));
+                }
+            }
+        }
+    }
+
+    private static void compare(String what, long seed, int count, double[] expected, double[] actual) {
+        for (int i = 0; i < count; i++) {
+            if (!close(expected[i], actual[i])) {
+                throw new IllegalStateException(String.format(
+                    "%s %d differs from scalar (seed %d, %d paths): %.17g vs %.17g",
+                    what, i, seed, count, actual[i], expected[i]));
+            }
+        }
+    }
+
+    private static double callPrice(double[] terminal, int count, double discount) {
+        double sum = 0;
+        for (int i = 0; i < count; i++) {
+            sum += Math.max(terminal[i] - STRIKE, 0);
+        }
+        return discount * sum / count;
+    }
+
+    // Relative to the larger magnitude, absolute below 1 so that shocks near zero still compare
+    private static boolean close(double expected, double actual) {
+        return Math.abs(expected - actual) <= TOLERANCE * Math.max(1.0, Math.max(Math.abs(expected), Math.abs(actual)));
+    }
+}
@@ -0,0 +1,95 @@
+package com.quantcrux.benchmarks;
+
+import com.quantcrux.dto.PricingRequest;
+import com.quantcrux.pricing.PayoffKernel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-path payoff cost: the compiled {@link PayoffKernel} against the per-path string
+ * switch over the request's boxed getters that the Monte Carlo loop used before.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PayoffKernelBenchmark {
+
+    private static final int PATHS = 4096;
+
+    @Param({"vanilla", "digital_option", "barrier_option"})
+    public String productType;
+
+    private PricingRequest request;
+    private PayoffKernel kernel;
+    private double[] finalPrices;
+
+    @Setup
+    public void setUp() {
+        request = new PricingRequest();
+        request.setProductType(productType);
+        request.setSpotPrice(100.0);
+        request.setStrike(100.0);
+        request.setBarrier(productType.equals("barrier_option") ? 105.0 : null);
+        request.setCoupon(0.05);
+        kernel = PayoffKernel.compile(request);
+
+        SplittableRandom rng = new SplittableRandom(42);
+        finalPrices = new double[PATHS];
+        for (int i = 0; i < PATHS; i++) {
+            finalPrices[i] = 100 * Math.exp(0.2 * rng.nextGaussian());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PATHS)
+    public double requestSwitch() {
+        double sum = 0;
+        for (double finalPrice : finalPrices) {
+            sum += switchPayoff(finalPrice, request);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PATHS)
+    public double compiledKernel() {
+        PayoffKernel payoff = kernel;
+        double sum = 0;
+        for (double finalPrice : finalPrices) {
+            sum += payoff.payoff(finalPrice);
+        }
+        return sum;
+    }
+
+    // The payoff evaluation the path loop used before kernels were compiled
+    private static double switchPayoff(double finalPrice, PricingRequest request) {
+        return switch (request.getProductType().toLowerCase()) {
+            case "digital_option" -> finalPrice > request.getStrike() ? request.getCoupon() * 100 : 0;
+            case "barrier_option" -> {
+                if (request.getBarrier() != null) {
+                    yield finalPrice > request.getBarrier() && finalPrice > request.getStrike() ?
+                        request.getCoupon() * 100 : 0;
+                } else {
+                    yield finalPrice > request.getStrike() ? request.getCoupon() * 100 : 0;
+                }
+            }
+            default -> Math.max(finalPrice - request.getStrike(), 0);
+        };
+    }
+}
@@ -0,0 +1,77 @@
+package com.quantcrux.benchmarks;
+
+import com.quantcrux.dto.PricingRequest;
+import com.quantcrux.dto.PricingResult;
+import com.quantcrux.pricing.PdePricingModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One Crank-Nicolson price with Greeks (three grid solves: base and vega either side).
+ * Time steps equal space steps; barrier_option is monitored daily.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PdePricingBenchmark {
+
+    @Param({"vanilla", "barrier_option"})
+    public String productType;
+
+    @Param({"european", "american"})
+    public String exerciseStyle;
+
+    @Param({"200", "400", "800"})
+    public int steps;
+
+    private AnnotationConfigApplicationContext context;
+    private PdePricingModel model;
+    private PricingRequest request;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.create(
+            Map.of("pricing.pde.space-steps", String.valueOf(steps), "pricing.pde.time-steps", String.valueOf(steps)),
+            PdePricingModel.class);
+        model = context.getBean(PdePricingModel.class);
+
+        request = new PricingRequest();
+        request.setProductType(productType);
+        request.setSpotPrice(100.0);
+        request.setStrike(100.0);
+        request.setBarrier(productType.equals("barrier_option") ? 90.0 : null);
+        request.setCoupon(0.05);
+        request.setVolatility(0.2);
+        request.setRiskFreeRate(0.05);
+        request.setTimeToMaturity(1.0);
+        request.setExerciseStyle(exerciseStyle);
+        request.setBridgeCorrection(false);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public PricingResult price() {
+        return model.price(request);
+    }
+}
@@ -0,0 +1,64 @@
+package com.quantcrux.benchmarks;
+
+import com.quantcrux.model.Portfolio;
+import com.quantcrux.model.Trade;
+import com.quantcrux.service.PortfolioManagementService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PortfolioManagementService.recalculatePortfolioMetrics on in-memory portfolios. Trades
+ * cycle through every status so the active-trade filter is exercised; a tenth have no
+ * current price yet.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PortfolioMetricsBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int trades;
+
+    // Metrics recalculation touches only the portfolio passed in, none of the injected repositories
+    private final PortfolioManagementService portfolioService = new PortfolioManagementService();
+    private Portfolio portfolio;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom rng = new SplittableRandom(42);
+        Trade.TradeStatus[] statuses = Trade.TradeStatus.values();
+        portfolio = new Portfolio();
+        for (int i = 0; i < trades; i++) {
+            Trade trade = new Trade();
+            trade.setId((long) i);
+            trade.setStatus(statuses[i % statuses.length]);
+            trade.setNotional(1000.0 * (1 + rng.nextInt(1000)));
+            trade.setEntryPrice(90 + 20 * rng.nextDouble());
+            if (i % 10 != 0) {
+                trade.setCurrentPrice(80 + 40 * rng.nextDouble());
+            }
+            portfolio.getTrades().add(trade);
+        }
+    }
+
+    @Benchmark
+    public Portfolio recalculatePortfolioMetrics() {
+        portfolioService.recalculatePortfolioMetrics(portfolio);
+        return portfolio;
+    }
+}
@@ -0,0 +1,53 @@
+package com.quantcrux.backtest;
+
+/**
+ * Wilder's average true range: the true range of a bar is its high-low range widened to
+ * include the previous close. Seeded with the simple mean of the first period ranges, then
+ * smoothed by 1 / period.
+ */
+public final class AverageTrueRange implements Indicator {
+
+    private final int period;
+    private int count;
+    private double previousClose = Double.NaN;
+    private double value;
+
+    public AverageTrueRange(int period) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("Period must be positive");
+        }
+        this.period = period;
+    }
+
+    @Override
+    public void update(double high, double low, double close) {
+        double trueRange = high - low;
+        if (!Double.isNaN(previousClose)) {
+            trueRange = Math.max(trueRange, Math.max(high - previousClose, previousClose - low));
+        }
+        previousClose = close;
+        if (count < period) {
+            count++;
+            value += (trueRange - value) / count;
+        } else {
+            value += (trueRange - value) / period;
+        }
+    }
+
+    @Override
+    public double value() {
+        return value;
+    }
+
+    @Override
+    public boolean isReady() {
+        return count >= period;
+    }
+
+    @Override
+    public void reset() {
+        count = 0;
+        previousClose = Double.NaN;
+        value = 0;
+    }
+}
@@ -0,0 +1,307 @@
+package com.quantcrux.backtest;
+
+import com.quantcrux.dto.BacktestOptimizationRequest;
+import com.quantcrux.dto.BacktestOptimizationResult;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * Grid search over StrategyV2 parameters. Every combination of the requested values is
+ * substituted into a copy of the codeJson, compiled and run over one series; the runs share
+ * the series and its {@link IndicatorColumns}, so an indicator used by many combinations is
+ * computed once. Runs are spread over a work-stealing pool of their own and keep only their
+ * metrics; equity curves are rebuilt for the returned rows, and only when asked for.
+ */
+@Component
+public class BacktestOptimizer {
+
+    public static final String RANK_SHARPE = "sharpe";
+    public static final String RANK_DRAWDOWN = "drawdown";
+    public static final String RANK_RETURN = "return";
+
+    private static final String[] SECTIONS = {"indicators", "entry_conditions", "exit_conditions", "risk_management"};
+    private static final int MAX_VALUES_PER_PARAMETER = 10000;
+
+    private final ForkJoinPool pool;
+
+    @Value("${backtest.optimizer.max-runs:100000}")
+    private int maxRuns;
+
+    public BacktestOptimizer(@Value("${backtest.optimizer.parallelism:0}") int parallelism) {
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.pool = new ForkJoinPool(threads);
+    }
+
+    public BacktestOptimizationResult optimize(OhlcvSeries series, Map<String, Object> codeJson, double capital,
+                                               BacktestOptimizationRequest request) {
+        long start = System.nanoTime();
+        if (codeJson == null) {
+            throw new IllegalArgumentException("Strategy has no code to backtest");
+        }
+        if (series.isEmpty()) {
+            throw new IllegalArgumentException("No bars to backtest");
+        }
+        String rankBy = request.getRankBy() != null ? request.getRankBy().toLowerCase() : RANK_SHARPE;
+        if (!rankBy.equals(RANK_SHARPE) && !rankBy.equals(RANK_DRAWDOWN) && !rankBy.equals(RANK_RETURN)) {
+            throw new IllegalArgumentException("rankBy must be sharpe, drawdown or return");
+        }
+        int top = request.getTop() != null ? request.getTop() : 20;
+        if (top < 1) {
+            throw new IllegalArgumentException("top must be positive");
+        }
+
+        Parameter[] parameters = parameters(codeJson, request.getParameters());
+        long combinations = 1;
+        for (Parameter parameter : parameters) {
+            combinations *= parameter.values.length;
+            if (combinations > maxRuns) {
+                throw new IllegalArgumentException("Parameter grid exceeds " + maxRuns + " runs");
+            }
+        }
+        int runs = (int) combinations;
+
+        IndicatorColumns columns = new IndicatorColumns(series);
+        double[] totalReturn = new double[runs];
+        double[] finalValue = new double[runs];
+        double[] sharpe = new double[runs];
+        double[] drawdown = new double[runs];
+        int[] trades = new int[runs];
+        double[] winRate = new double[runs];
+        boolean[] halted = new boolean[runs];
+        boolean[] failed = new boolean[runs];
+        AtomicInteger failures = new AtomicInteger();
+        String[] firstError = new String[1];
+
+        forEach(runs, run -> {
+            try {
+                BacktestRun result = compile(codeJson, parameters, run).run(columns, capital, false);
+                totalReturn[run] = result.getTotalReturn();
+                finalValue[run] = result.getFinalValue();
+                sharpe[run] = result.getSharpeRatio();
+                drawdown[run] = result.getMaxDrawdown();
+                trades[run] = result.getTotalTrades();
+                winRate[run] = result.getWinRate();
+                halted[run] = result.isHalted();
+            } catch (IllegalArgumentException e) {
+                failed[run] = true;
+                if (failures.getAndIncrement() == 0) {
+                    firstError[0] = e.getMessage();
+                }
+            }
+        });
+
+        // Best first, with runs that never traded last (their drawdown of 0 would otherwise top
+        // the drawdown ranking); equal keys keep grid order so the table is stable between calls
+        double[] key = rankBy.equals(RANK_SHARPE) ? sharpe : rankBy.equals(RANK_RETURN) ? totalReturn : drawdown;
+        boolean ascending = rankBy.equals(RANK_DRAWDOWN);
+        Integer[] ranked = IntStream.range(0, runs).filter(run -> !failed[run]).boxed().toArray(Integer[]::new);
+        Arrays.sort(ranked, (a, b) -> {
+            int order = Boolean.compare(trades[a] == 0, trades[b] == 0);
+            if (order == 0) {
+                order = ascending ? Double.compare(key[a], key[b]) : Double.compare(key[b], key[a]);
+            }
+            return order != 0 ? order : Integer.compare(a, b);
+        });
+
+        boolean withEquity = Boolean.TRUE.equals(request.getIncludeEquityCurves());
+        int rows = Math.min(top, ranked.length);
+        List<BacktestOptimizationResult.Row> table = new ArrayList<>(rows);
+        for (int r = 0; r < rows; r++) {
+            int run = ranked[r];
+            BacktestOptimizationResult.Row row = new BacktestOptimizationResult.Row();
+            row.setRank(r + 1);
+            Map<String, Double> values = new LinkedHashMap<>();
+            int[] digits = digits(parameters, run);
+            for (int p = 0; p < parameters.length; p++) {
+                values.put(parameters[p].name, parameters[p].values[digits[p]]);
+            }
+            row.setParameters(values);
+            row.setTotalReturn(totalReturn[run]);
+            row.setFinalValue(finalValue[run]);
+            row.setSharpeRatio(Math.round(sharpe[run] * 100.0) / 100.0);
+            row.setMaxDrawdown(drawdown[run]);
+            row.setTotalTrades(trades[run]);
+            row.setWinRate(winRate[run]);
+            row.setHalted(halted[run]);
+            if (withEquity) {
+                BacktestRun replay = compile(codeJson, parameters, run).run(columns, capital, true);
+                row.setEquityCurve(new EquityCurve(series.epochDays(), 0, replay.getEquity(), series.size()));
+            }
+            table.add(row);
+        }
+
+        BacktestOptimizationResult result = new BacktestOptimizationResult();
+        result.setSymbol(series.getSymbol());
+        result.setRankBy(rankBy);
+        result.setBars(series.size());
+        result.setRuns(runs);
+        result.setFailedRuns(failures.get());
+        result.setError(firstError[0]);
+        result.setIndicatorColumns(columns.size());
+        result.setElapsedMillis((System.nanoTime() - start) / 1_000_000);
+        result.setRows(table);
+        return result;
+    }
+
+    /**
+     * Run task for every index in [0, count) in parallel on the backtest pool, for work whose
+     * items are independent of each other.
+     */
+    public void forEach(int count, IntConsumer task) {
+        pool.submit(() -> IntStream.range(0, count).parallel().forEach(task)).join();
+    }
+
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    /**
+     * The strategy of grid point run: codeJson with each parameter set to its value there.
+     * Only the sections that change are copied.
+     */
+    @SuppressWarnings("unchecked")
+    private static CompiledStrategy compile(Map<String, Object> codeJson, Parameter[] parameters, int run) {
+        Map<String, Object> code = new HashMap<>(codeJson);
+        int[] digits = digits(parameters, run);
+        for (int p = 0; p < parameters.length; p++) {
+            Parameter parameter = parameters[p];
+            Object section = code.get(parameter.section);
+            Map<String, Object> copy = section == codeJson.get(parameter.section)
+                ? (section instanceof Map ? new HashMap<>((Map<String, Object>) section) : new HashMap<>())
+                : (Map<String, Object>) section;
+            copy.put(parameter.key, parameter.values[digits[p]]);
+            code.put(parameter.section, copy);
+        }
+        return StrategyCompiler.compile(code);
+    }
+
+    /**
+     * Value index of each parameter at grid point run, the last parameter varying fastest.
+     */
+    private static int[] digits(Parameter[] parameters, int run) {
+        int[] digits = new int[parameters.length];
+        for (int p = parameters.length - 1; p >= 0; p--) {
+            int radix = parameters[p].values.length;
+            digits[p] = run % radix;
+            run /= radix;
+        }
+        return digits;
+    }
+
+    private static Parameter[] parameters(Map<String, Object> codeJson,
+                                          List<BacktestOptimizationRequest.ParameterRange> ranges) {
+        if (ranges == null || ranges.isEmpty()) {
+            throw new IllegalArgumentException("At least one parameter range is required");
+        }
+        Parameter[] parameters = new Parameter[ranges.size()];
+        for (int p = 0; p < parameters.length; p++) {
+            BacktestOptimizationRequest.ParameterRange range = ranges.get(p);
+            String name = range.getName().trim();
+            String[] location = locate(codeJson, name);
+            for (int q = 0; q < p; q++) {
+                if (parameters[q].section.equals(location[0]) && parameters[q].key.equals(location[1])) {
+                    throw new IllegalArgumentException("Parameter " + name + " is given twice");
+                }
+            }
+            parameters[p] = new Parameter(name, location[0], location[1], values(range, name));
+        }
+        return parameters;
+    }
+
+    /**
+     * Section and key of a parameter: "section.key", or a bare key found in exactly one
+     * section of the strategy.
+     */
+    private static String[] locate(Map<String, Object> codeJson, String name) {
+        int dot = name.indexOf('.');
+        if (dot > 0) {
+            String section = name.substring(0, dot);
+            if (!List.of(SECTIONS).contains(section)) {
+                throw new IllegalArgumentException("Unknown strategy section in parameter " + name);
+            }
+            return new String[] {section, name.substring(dot + 1)};
+        }
+        String found = null;
+        for (String section : SECTIONS) {
+            if (codeJson.get(section) instanceof Map<?, ?> entries && entries.containsKey(name)) {
+                if (found != null) {
+                    throw new IllegalArgumentException("Parameter " + name + " is in both " + found + " and "
+                                                       + section + "; name it as section." + name);
+                }
+                found = section;
+            }
+        }
+        if (found == null) {
+            throw new IllegalArgumentException("Strategy has no parameter " + name + "; name a new one as section."
+                                               + name);
+        }
+        return new String[] {found, name};
+    }
+
+    private static double[] values(BacktestOptimizationRequest.ParameterRange range, String name) {
+        if (range.getValues() != null && !range.getValues().isEmpty()) {
+            if (range.getValues().size() > MAX_VALUES_PER_PARAMETER) {
+                throw new IllegalArgumentException("Too many values for " + name);
+            }
+            double[] values = new double[range.getValues().size()];
+            for (int i = 0; i < values.length; i++) {
+                Double value = range.getValues().get(i);
+                if (value == null || !Double.isFinite(value)) {
+                    throw new IllegalArgumentException("Values of " + name + " must be numbers");
+                }
+                values[i] = value;
+            }
+            return values;
+        }
+        Double from = range.getFrom();
+        Double to = range.getTo();
+        double step = range.getStep() != null ? range.getStep() : 1.0;
+        if (from == null || to == null || !Double.isFinite(from) || !Double.isFinite(to)) {
+            throw new IllegalArgumentException("Parameter " + name + " needs values or from and to");
+        }
+        if (!(step > 0) || to < from) {
+            throw new IllegalArgumentException("Parameter " + name + " needs from <= to and a positive step");
+        }
+        // Tolerance so that 0.1 steps reach their end point
+        double count = Math.floor((to - from) / step + 1e-9) + 1;
+        if (count > MAX_VALUES_PER_PARAMETER) {
+            throw new IllegalArgumentException("Too many values for " + name);
+        }
+        double[] values = new double[(int) count];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = Math.round((from + i * step) * 1e10) / 1e10;
+        }
+        return values;
+    }
+
+    private static final class Parameter {
+        final String name;
+        final String section;
+        final String key;
+        final double[] values;
+
+        Parameter(String name, String section, String key, double[] values) {
+            this.name = name;
+            this.section = section;
+            this.key = key;
+            this.values = values;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.quantcrux.backtest;
+
+/**
+ * Outcome of running a {@link CompiledStrategy} over one series. The equity array is only
+ * kept when asked for.
+ */
+public final class BacktestRun {
+
+    private final double finalValue;
+    private final double totalReturn;
+    private final int totalTrades;
+    private final int profitableTrades;
+    private final double maxDrawdown;
+    private final double sharpeRatio;
+    private final boolean halted;
+    private final double[] equity;
+
+    BacktestRun(double finalValue, double totalReturn, int totalTrades, int profitableTrades, double maxDrawdown,
+                double sharpeRatio, boolean halted, double[] equity) {
+        this.finalValue = finalValue;
+        this.totalReturn = totalReturn;
+        this.totalTrades = totalTrades;
+        this.profitableTrades = profitableTrades;
+        this.maxDrawdown = maxDrawdown;
+        this.sharpeRatio = sharpeRatio;
+        this.halted = halted;
+        this.equity = equity;
+    }
+
+    public double getFinalValue() { return finalValue; }
+
+    public double getTotalReturn() { return totalReturn; }
+
+    public int getTotalTrades() { return totalTrades; }
+
+    public int getProfitableTrades() { return profitableTrades; }
+
+    public double getWinRate() { return totalTrades > 0 ? (double) profitableTrades / totalTrades : 0; }
+
+    public double getMaxDrawdown() { return maxDrawdown; }
+
+    /**
+     * Annualised over 252 bars from the per-bar portfolio returns.
+     */
+    public double getSharpeRatio() { return sharpeRatio; }
+
+    /**
+     * Whether the strategy's max_drawdown stopped it out before the end of the series.
+     */
+    public boolean isHalted() { return halted; }
+
+    /**
+     * Portfolio value on every bar, or null if it was not kept.
+     */
+    public double[] getEquity() { return equity; }
+}
@@ -0,0 +1,56 @@
+package com.quantcrux.backtest;
+
+/**
+ * Moving average of the close with bands width standard deviations either side, both over
+ * the last period bars. value() is the middle band.
+ */
+public final class BollingerBands implements Indicator {
+
+    private final RollingWindow window;
+    private final double width;
+
+    public BollingerBands(int period, double width) {
+        window = new RollingWindow(period);
+        this.width = width;
+    }
+
+    public void update(double close) {
+        window.add(close);
+    }
+
+    @Override
+    public void update(double high, double low, double close) {
+        window.add(close);
+    }
+
+    @Override
+    public double value() {
+        return window.mean();
+    }
+
+    public double upper() {
+        return window.mean() + width * Math.sqrt(window.variance());
+    }
+
+    public double lower() {
+        return window.mean() - width * Math.sqrt(window.variance());
+    }
+
+    /**
+     * Where close sits between the bands: 0 at the lower band, 1 at the upper one.
+     */
+    public double percentB(double close) {
+        double band = 2 * width * Math.sqrt(window.variance());
+        return band > 0 ? (close - lower()) / band : 0.5;
+    }
+
+    @Override
+    public boolean isReady() {
+        return window.isFull();
+    }
+
+    @Override
+    public void reset() {
+        window.clear();
+    }
+}
@@ -0,0 +1,364 @@
+package com.quantcrux.backtest;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A StrategyV2 rule graph compiled by {@link StrategyCompiler}: the distinct indicator
+ * columns it reads, entry rules that must all hold, and exit rules of which any one closes
+ * the position, next to stop-loss, take-profit and risk limits as plain fractions.
+ *
+ * Immutable, so one instance is shared by every backtest of the strategy. A run binds the
+ * rules to the columns of its series once and then steps through the bars on primitives.
+ */
+public final class CompiledStrategy {
+
+    private static final double TRADING_DAYS = 252.0;
+    private static final byte ENTRY_SIGNAL = 1;
+    private static final byte EXIT_SIGNAL = 2;
+
+    private final Condition[] entry;
+    private final Condition[] exit;
+    private final double stopLoss;
+    private final double takeProfit;
+    private final double positionSize;
+    private final double maxDrawdown;
+    private final List<IndicatorSpec> indicators;
+
+    CompiledStrategy(List<Condition> entry, List<Condition> exit, double stopLoss, double takeProfit,
+                     double positionSize, double maxDrawdown) {
+        this.entry = entry.toArray(new Condition[0]);
+        this.exit = exit.toArray(new Condition[0]);
+        this.stopLoss = stopLoss;
+        this.takeProfit = takeProfit;
+        this.positionSize = positionSize;
+        this.maxDrawdown = maxDrawdown;
+        Set<IndicatorSpec> specs = new LinkedHashSet<>();
+        for (Condition condition : this.entry) {
+            addSpecs(specs, condition);
+        }
+        for (Condition condition : this.exit) {
+            addSpecs(specs, condition);
+        }
+        this.indicators = List.copyOf(specs);
+    }
+
+    /**
+     * Every indicator column the rules read, each once.
+     */
+    public List<IndicatorSpec> getIndicators() { return indicators; }
+
+    /**
+     * Fraction of equity put into a new position.
+     */
+    public double getPositionSize() { return positionSize; }
+
+    /**
+     * Drawdown from the peak at which the strategy closes out and stops trading; NaN if none.
+     */
+    public double getMaxDrawdown() { return maxDrawdown; }
+
+    /**
+     * The rules bound to the columns of one series, for callers that step through the bars
+     * and size positions themselves.
+     */
+    public Signals bind(IndicatorColumns columns) {
+        return new Signals(bindAll(entry, columns), bindAll(exit, columns));
+    }
+
+    /**
+     * Trade the series long-only at bar closes: enter when every entry rule holds, leave on
+     * any exit rule, stop loss or take profit, and stop trading for good once the drawdown
+     * from the peak reaches max_drawdown.
+     */
+    public BacktestRun run(IndicatorColumns columns, double capital, boolean keepEquity) {
+        OhlcvSeries series = columns.getSeries();
+        int bars = series.size();
+        double[] close = series.close();
+        Signals signals = bind(columns);
+        double[] equity = keepEquity ? new double[bars] : null;
+
+        double cash = capital;
+        double units = 0;
+        double entryPrice = 0;
+        double peak = capital;
+        double drawdown = 0;
+        double previousValue = capital;
+        int trades = 0;
+        int profitable = 0;
+        boolean halted = false;
+        // Running mean and sum of squared deviations of per-bar returns
+        double meanReturn = 0;
+        double m2 = 0;
+        int returns = 0;
+
+        for (int i = 0; i < bars; i++) {
+            double price = close[i];
+            if (units > 0) {
+                if (signals.exit(i) || isStopped(price, entryPrice)) {
+                    cash += units * price;
+                    units = 0;
+                    if (price > entryPrice) {
+                        profitable++;
+                    }
+                }
+            } else if (!halted && signals.entry(i)) {
+                units = cash * positionSize / price;
+                cash -= units * price;
+                entryPrice = price;
+                trades++;
+            }
+
+            double value = cash + units * price;
+            if (value > peak) {
+                peak = value;
+            } else if (peak > 0) {
+                drawdown = Math.max(drawdown, (peak - value) / peak);
+                if (!halted && drawdown >= maxDrawdown) {
+                    halted = true;
+                    if (units > 0) {
+                        cash += units * price;
+                        units = 0;
+                        if (price > entryPrice) {
+                            profitable++;
+                        }
+                    }
+                }
+            }
+            if (i > 0 && previousValue > 0) {
+                double r = value / previousValue - 1;
+                returns++;
+                double delta = r - meanReturn;
+                meanReturn += delta / returns;
+                m2 += delta * (r - meanReturn);
+            }
+            previousValue = value;
+            if (equity != null) {
+                equity[i] = value;
+            }
+        }
+
+        double finalValue = cash + (units > 0 ? units * close[bars - 1] : 0);
+        double stdDev = returns > 0 ? Math.sqrt(m2 / returns) : 0;
+        double sharpe = stdDev > 0 ? meanReturn * TRADING_DAYS / (stdDev * Math.sqrt(TRADING_DAYS)) : 0;
+        return new BacktestRun(finalValue, (finalValue - capital) / capital, trades, profitable, drawdown, sharpe,
+                               halted, equity);
+    }
+
+    /**
+     * Entry and exit signals of one symbol of the panel on every row, evaluated over the
+     * symbol's own bars; rows where it has no bar have neither. Symbols are independent of
+     * each other, so a panel's symbols can be evaluated in parallel.
+     */
+    public byte[] signals(PricePanel panel, int symbol) {
+        Signals signals = bind(new IndicatorColumns(panel.series(symbol)));
+        byte[] flags = new byte[panel.size()];
+        for (int row = 0; row < flags.length; row++) {
+            int bar = panel.bar(symbol, row);
+            if (bar >= 0) {
+                flags[row] = (byte) ((signals.entry(bar) ? ENTRY_SIGNAL : 0) | (signals.exit(bar) ? EXIT_SIGNAL : 0));
+            }
+        }
+        return flags;
+    }
+
+    /**
+     * Trade every symbol of the panel from one cash account at the closes, with the rules of
+     * {@link #run} applied per symbol on the rows where it has a bar. A new position is
+     * max_position_size of portfolio equity, or whatever cash is left, taken in panel order
+     * when cash runs short. Every rebalanceBars rows (never if 0) the open positions are
+     * brought back to that size, trims before top-ups. Equity, drawdown and Sharpe ratio are
+     * accumulated over the rows in the same pass, and the max_drawdown kill switch closes out
+     * the whole portfolio.
+     *
+     * signals[s] is {@link #signals}(panel, s).
+     */
+    public PortfolioRun runPortfolio(PricePanel panel, byte[][] signals, double capital, int rebalanceBars,
+                                     boolean keepEquity) {
+        int rows = panel.size();
+        int width = panel.width();
+        double[][] closes = new double[width][];
+        for (int s = 0; s < width; s++) {
+            closes[s] = panel.closes(s);
+        }
+        double[] units = new double[width];
+        double[] entryPrice = new double[width];
+        // Cash paid into each symbol less cash taken out; plus the open value, its profit
+        double[] flows = new double[width];
+        int[] symbolTrades = new int[width];
+        int[] symbolProfitable = new int[width];
+        // Row of each symbol's last exit, so that it does not re-enter on the same close
+        int[] exitRow = new int[width];
+        Arrays.fill(exitRow, -1);
+        double[] equity = keepEquity ? new double[rows] : null;
+
+        double cash = capital;
+        double peak = capital;
+        double drawdown = 0;
+        double previousValue = capital;
+        boolean halted = false;
+        double meanReturn = 0;
+        double m2 = 0;
+        int returns = 0;
+
+        for (int row = 0; row < rows; row++) {
+            for (int s = 0; s < width; s++) {
+                if (units[s] > 0 && panel.bar(s, row) >= 0) {
+                    double price = closes[s][row];
+                    if ((signals[s][row] & EXIT_SIGNAL) != 0 || isStopped(price, entryPrice[s])) {
+                        cash += close(s, price, units, entryPrice, flows, symbolProfitable);
+                        exitRow[s] = row;
+                    }
+                }
+            }
+
+            double value = cash;
+            for (int s = 0; s < width; s++) {
+                if (units[s] > 0) {
+                    value += units[s] * closes[s][row];
+                }
+            }
+
+            if (!halted) {
+                double target = value * positionSize;
+                if (rebalanceBars > 0 && row > 0 && row % rebalanceBars == 0) {
+                    for (int s = 0; s < width; s++) {
+                        if (units[s] > 0 && panel.bar(s, row) >= 0 && units[s] * closes[s][row] > target) {
+                            double sold = units[s] * closes[s][row] - target;
+                            units[s] = target / closes[s][row];
+                            cash += sold;
+                            flows[s] -= sold;
+                        }
+                    }
+                    for (int s = 0; s < width; s++) {
+                        if (units[s] > 0 && panel.bar(s, row) >= 0 && units[s] * closes[s][row] < target) {
+                            double bought = Math.min(target - units[s] * closes[s][row], cash);
+                            units[s] += bought / closes[s][row];
+                            cash -= bought;
+                            flows[s] += bought;
+                        }
+                    }
+                }
+                for (int s = 0; s < width && cash > 0; s++) {
+                    if (units[s] == 0 && exitRow[s] != row && (signals[s][row] & ENTRY_SIGNAL) != 0) {
+                        double price = closes[s][row];
+                        double spent = Math.min(target, cash);
+                        units[s] = spent / price;
+                        cash -= spent;
+                        flows[s] += spent;
+                        entryPrice[s] = price;
+                        symbolTrades[s]++;
+                    }
+                }
+            }
+
+            if (value > peak) {
+                peak = value;
+            } else if (peak > 0) {
+                drawdown = Math.max(drawdown, (peak - value) / peak);
+                if (!halted && drawdown >= maxDrawdown) {
+                    halted = true;
+                    for (int s = 0; s < width; s++) {
+                        if (units[s] > 0) {
+                            cash += close(s, closes[s][row], units, entryPrice, flows, symbolProfitable);
+                        }
+                    }
+                }
+            }
+            if (row > 0 && previousValue > 0) {
+                double r = value / previousValue - 1;
+                returns++;
+                double delta = r - meanReturn;
+                meanReturn += delta / returns;
+                m2 += delta * (r - meanReturn);
+            }
+            previousValue = value;
+            if (equity != null) {
+                equity[row] = value;
+            }
+        }
+
+        double finalValue = cash;
+        double[] openValue = new double[width];
+        double[] profit = new double[width];
+        int trades = 0;
+        int profitable = 0;
+        for (int s = 0; s < width; s++) {
+            openValue[s] = units[s] > 0 ? units[s] * closes[s][rows - 1] : 0;
+            finalValue += openValue[s];
+            profit[s] = openValue[s] - flows[s];
+            trades += symbolTrades[s];
+            profitable += symbolProfitable[s];
+        }
+        double stdDev = returns > 0 ? Math.sqrt(m2 / returns) : 0;
+        double sharpe = stdDev > 0 ? meanReturn * TRADING_DAYS / (stdDev * Math.sqrt(TRADING_DAYS)) : 0;
+        return new PortfolioRun(finalValue, (finalValue - capital) / capital, trades, profitable, drawdown, sharpe,
+                                halted, equity, symbolTrades, symbolProfitable, profit, openValue);
+    }
+
+    /**
+     * Sell the whole position in symbol s at price and return the proceeds.
+     */
+    private static double close(int s, double price, double[] units, double[] entryPrice, double[] flows,
+                                int[] profitable) {
+        double proceeds = units[s] * price;
+        flows[s] -= proceeds;
+        if (price > entryPrice[s]) {
+            profitable[s]++;
+        }
+        units[s] = 0;
+        return proceeds;
+    }
+
+    private boolean isStopped(double price, double entryPrice) {
+        return price <= entryPrice * (1 - stopLoss) || price >= entryPrice * (1 + takeProfit);
+    }
+
+    private static Condition.Bound[] bindAll(Condition[] conditions, IndicatorColumns columns) {
+        Condition.Bound[] bound = new Condition.Bound[conditions.length];
+        for (int k = 0; k < conditions.length; k++) {
+            bound[k] = conditions[k].bind(columns);
+        }
+        return bound;
+    }
+
+    private static void addSpecs(Set<IndicatorSpec> specs, Condition condition) {
+        specs.add(condition.left);
+        if (condition.right != null) {
+            specs.add(condition.right);
+        }
+    }
+
+    /**
+     * Entry and exit rules bound to the columns of one series.
+     */
+    public static final class Signals {
+        private final Condition.Bound[] entry;
+        private final Condition.Bound[] exit;
+
+        Signals(Condition.Bound[] entry, Condition.Bound[] exit) {
+            this.entry = entry;
+            this.exit = exit;
+        }
+
+        public boolean entry(int bar) {
+            for (Condition.Bound condition : entry) {
+                if (!condition.test(bar)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        public boolean exit(int bar) {
+            for (Condition.Bound condition : exit) {
+                if (condition.test(bar)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.quantcrux.backtest;
+
+import com.quantcrux.model.StrategyV2;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compiled strategies by strategy id. The version is the strategy's last update time, so a
+ * cached graph is recompiled once the strategy has been saved since; unsaved strategies are
+ * compiled on every call.
+ */
+@Component
+public class CompiledStrategyCache {
+
+    private final Map<Long, Entry> strategies = new ConcurrentHashMap<>();
+
+    public CompiledStrategy get(StrategyV2 strategy) {
+        Long strategyId = strategy.getId();
+        if (strategyId == null) {
+            return StrategyCompiler.compile(strategy.getCodeJson());
+        }
+        Object version = version(strategy);
+        Entry entry = strategies.get(strategyId);
+        if (entry == null || !entry.version.equals(version)) {
+            entry = new Entry(version, StrategyCompiler.compile(strategy.getCodeJson()));
+            strategies.put(strategyId, entry);
+        }
+        return entry.compiled;
+    }
+
+    public void evict(Long strategyId) {
+        strategies.remove(strategyId);
+    }
+
+    public int size() {
+        return strategies.size();
+    }
+
+    private static Object version(StrategyV2 strategy) {
+        return Objects.toString(strategy.getUpdatedAt() != null ? strategy.getUpdatedAt() : strategy.getCreatedAt());
+    }
+
+    private static final class Entry {
+        final Object version;
+        final CompiledStrategy compiled;
+
+        Entry(Object version, CompiledStrategy compiled) {
+            this.version = version;
+            this.compiled = compiled;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.quantcrux.backtest;
+
+/**
+ * One compiled rule: an indicator column compared with another column (optionally scaled)
+ * or with a constant, on the current bar or as a cross from the previous one.
+ */
+final class Condition {
+
+    static final int ABOVE = 0;
+    static final int BELOW = 1;
+    static final int CROSSES_ABOVE = 2;
+    static final int CROSSES_BELOW = 3;
+
+    final String name;
+    final IndicatorSpec left;
+    final int relation;
+    // Null when comparing with the constant
+    final IndicatorSpec right;
+    final double rightScale;
+    final double constant;
+
+    Condition(String name, IndicatorSpec left, int relation, IndicatorSpec right, double rightScale, double constant) {
+        this.name = name;
+        this.left = left;
+        this.relation = relation;
+        this.right = right;
+        this.rightScale = rightScale;
+        this.constant = constant;
+    }
+
+    Bound bind(IndicatorColumns columns) {
+        return new Bound(columns.get(left), right != null ? columns.get(right) : null, rightScale, constant, relation);
+    }
+
+    /**
+     * The rule over concrete columns. Comparisons with NaN are false, so a rule holds only
+     * once its indicators are warmed up.
+     */
+    static final class Bound {
+        private final double[] left;
+        private final double[] right;
+        private final double rightScale;
+        private final double constant;
+        private final int relation;
+
+        Bound(double[] left, double[] right, double rightScale, double constant, int relation) {
+            this.left = left;
+            this.right = right;
+            this.rightScale = rightScale;
+            this.constant = constant;
+            this.relation = relation;
+        }
+
+        boolean test(int bar) {
+            double a = left[bar];
+            double b = right != null ? rightScale * right[bar] : constant;
+            switch (relation) {
+                case ABOVE:
+                    return a > b;
+                case BELOW:
+                    return a < b;
+                default:
+                    if (bar == 0) {
+                        return false;
+                    }
+                    double previousA = left[bar - 1];
+                    double previousB = right != null ? rightScale * right[bar - 1] : constant;
+                    return relation == CROSSES_ABOVE
+                        ? previousA <= previousB && a > b
+                        : previousA >= previousB && a < b;
+            }
+        }
+    }
+}
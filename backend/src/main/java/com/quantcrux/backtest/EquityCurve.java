@@ -0,0 +1,53 @@
+package com.quantcrux.backtest;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.io.IOException;
+import java.time.LocalDate;
+
+/**
+ * Portfolio value per bar. values[k] is the value on epochDays[from + k], so the curve
+ * shares the date column of the series it was run on instead of copying it.
+ *
+ * Serialised straight from the arrays as [{"date": "yyyy-MM-dd", "value": v}, ...], the
+ * shape the equity curve has always had on the wire.
+ */
+@JsonSerialize(using = EquityCurve.Serializer.class)
+public final class EquityCurve {
+
+    private final int[] epochDays;
+    private final int from;
+    private final double[] values;
+    private final int size;
+
+    public EquityCurve(int[] epochDays, int from, double[] values, int size) {
+        this.epochDays = epochDays;
+        this.from = from;
+        this.values = values;
+        this.size = size;
+    }
+
+    public int size() { return size; }
+
+    public int epochDay(int index) { return epochDays[from + index]; }
+
+    public double value(int index) { return values[index]; }
+
+    public static final class Serializer extends JsonSerializer<EquityCurve> {
+        @Override
+        public void serialize(EquityCurve curve, JsonGenerator generator, SerializerProvider provider)
+            throws IOException {
+            generator.writeStartArray();
+            for (int k = 0; k < curve.size; k++) {
+                generator.writeStartObject();
+                generator.writeStringField("date", LocalDate.ofEpochDay(curve.epochDay(k)).toString());
+                generator.writeNumberField("value", curve.values[k]);
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+        }
+    }
+}
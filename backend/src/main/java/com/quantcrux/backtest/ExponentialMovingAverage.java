@@ -0,0 +1,51 @@
+package com.quantcrux.backtest;
+
+/**
+ * Exponential moving average of the close with smoothing 2 / (period + 1), seeded with the
+ * simple average of the first period closes.
+ */
+public final class ExponentialMovingAverage implements Indicator {
+
+    private final int period;
+    private final double alpha;
+    private int count;
+    private double value;
+
+    public ExponentialMovingAverage(int period) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("Period must be positive");
+        }
+        this.period = period;
+        this.alpha = 2.0 / (period + 1);
+    }
+
+    public void update(double close) {
+        if (count < period) {
+            count++;
+            value += (close - value) / count;
+        } else {
+            value += alpha * (close - value);
+        }
+    }
+
+    @Override
+    public void update(double high, double low, double close) {
+        update(close);
+    }
+
+    @Override
+    public double value() {
+        return value;
+    }
+
+    @Override
+    public boolean isReady() {
+        return count >= period;
+    }
+
+    @Override
+    public void reset() {
+        count = 0;
+        value = 0;
+    }
+}
@@ -0,0 +1,22 @@
+package com.quantcrux.backtest;
+
+/**
+ * A technical indicator updated one bar at a time. Every update is O(1) and allocation-free;
+ * windowed indicators keep their history in a {@link RollingWindow}.
+ *
+ * Indicators that only read the close ignore high and low. value() is only meaningful once
+ * isReady() returns true, i.e. after the indicator has seen its warm-up bars.
+ */
+public interface Indicator {
+
+    void update(double high, double low, double close);
+
+    double value();
+
+    boolean isReady();
+
+    /**
+     * Back to the state before the first update, keeping the buffers.
+     */
+    void reset();
+}
@@ -0,0 +1,28 @@
+package com.quantcrux.backtest;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Indicator columns of one series, each computed once on first use. Safe to share between
+ * threads, so that many strategy runs over the same series compute every indicator once.
+ */
+public final class IndicatorColumns {
+
+    private final OhlcvSeries series;
+    private final Map<IndicatorSpec, double[]> columns = new ConcurrentHashMap<>();
+
+    public IndicatorColumns(OhlcvSeries series) {
+        this.series = series;
+    }
+
+    public OhlcvSeries getSeries() { return series; }
+
+    public double[] get(IndicatorSpec spec) {
+        return columns.computeIfAbsent(spec, s -> s.compute(series));
+    }
+
+    public int size() {
+        return columns.size();
+    }
+}
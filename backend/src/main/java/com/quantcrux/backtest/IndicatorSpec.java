@@ -0,0 +1,122 @@
+package com.quantcrux.backtest;
+
+import java.util.Objects;
+
+/**
+ * One indicator column of a series: what to compute and its parameters. Specs are values,
+ * so rules that use the same indicator share one column in {@link IndicatorColumns}.
+ *
+ * The close and volume columns are specs too, which lets every rule operand be a column.
+ */
+public final class IndicatorSpec {
+
+    public static final String CLOSE = "close";
+    public static final String VOLUME = "volume";
+    public static final String SMA = "sma";
+    public static final String EMA = "ema";
+    public static final String RSI = "rsi";
+    public static final String ATR = "atr";
+    public static final String STD = "std";
+    public static final String BOLLINGER = "bollinger";
+    public static final String BOLLINGER_UPPER = "bollinger_upper";
+    public static final String BOLLINGER_LOWER = "bollinger_lower";
+    public static final String VOLUME_SMA = "volume_sma";
+
+    public static final IndicatorSpec CLOSE_PRICE = new IndicatorSpec(CLOSE, 0, 0);
+    public static final IndicatorSpec VOLUME_COLUMN = new IndicatorSpec(VOLUME, 0, 0);
+
+    private final String type;
+    private final int period;
+    private final double width;
+
+    /**
+     * width is the band width in standard deviations for the Bollinger bands, else unused.
+     */
+    public IndicatorSpec(String type, int period, double width) {
+        this.type = type;
+        this.period = period;
+        this.width = type.startsWith(BOLLINGER) ? width : 0;
+    }
+
+    public String getType() { return type; }
+
+    public int getPeriod() { return period; }
+
+    public double getWidth() { return width; }
+
+    /**
+     * The indicator's value on every bar of series, NaN until it is ready.
+     */
+    double[] compute(OhlcvSeries series) {
+        int size = series.size();
+        double[] high = series.high();
+        double[] low = series.low();
+        double[] close = series.close();
+        double[] values = new double[size];
+        switch (type) {
+            case CLOSE -> System.arraycopy(close, 0, values, 0, size);
+            case VOLUME -> {
+                long[] volume = series.volume();
+                for (int i = 0; i < size; i++) {
+                    values[i] = volume[i];
+                }
+            }
+            case VOLUME_SMA -> {
+                long[] volume = series.volume();
+                SimpleMovingAverage average = new SimpleMovingAverage(period);
+                for (int i = 0; i < size; i++) {
+                    average.update(volume[i]);
+                    values[i] = average.isReady() ? average.value() : Double.NaN;
+                }
+            }
+            case BOLLINGER, BOLLINGER_UPPER, BOLLINGER_LOWER -> {
+                BollingerBands bands = new BollingerBands(period, width);
+                for (int i = 0; i < size; i++) {
+                    bands.update(close[i]);
+                    if (!bands.isReady()) {
+                        values[i] = Double.NaN;
+                    } else {
+                        values[i] = type.equals(BOLLINGER_UPPER) ? bands.upper()
+                            : type.equals(BOLLINGER_LOWER) ? bands.lower() : bands.value();
+                    }
+                }
+            }
+            default -> {
+                Indicator indicator = create();
+                for (int i = 0; i < size; i++) {
+                    indicator.update(high[i], low[i], close[i]);
+                    values[i] = indicator.isReady() ? indicator.value() : Double.NaN;
+                }
+            }
+        }
+        return values;
+    }
+
+    private Indicator create() {
+        return switch (type) {
+            case SMA -> new SimpleMovingAverage(period);
+            case EMA -> new ExponentialMovingAverage(period);
+            case RSI -> new RelativeStrengthIndex(period);
+            case ATR -> new AverageTrueRange(period);
+            case STD -> new RollingStandardDeviation(period);
+            default -> throw new IllegalArgumentException("Unsupported indicator: " + type);
+        };
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof IndicatorSpec other)) return false;
+        return period == other.period && Double.compare(width, other.width) == 0 && type.equals(other.type);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(type, period, width);
+    }
+
+    @Override
+    public String toString() {
+        return period > 0 ? type + "(" + period + ")" : type;
+    }
+}
@@ -0,0 +1,74 @@
+package com.quantcrux.backtest;
+
+import java.time.LocalDate;
+
+/**
+ * Daily bars of one symbol held column by column: parallel primitive arrays of open, high,
+ * low, close and volume, keyed by an ascending epoch-day column. A bar costs 44 bytes here,
+ * against well over a hundred for a boxed MarketDataPoint with its LocalDate.
+ *
+ * The column accessors return the backing arrays, valid on [0, size()), so that loops over
+ * the series read primitives without copying.
+ */
+public final class OhlcvSeries {
+
+    private final String symbol;
+    private final int[] epochDays;
+    private final double[] open;
+    private final double[] high;
+    private final double[] low;
+    private final double[] close;
+    private final long[] volume;
+    private int size;
+
+    public OhlcvSeries(String symbol, int capacity) {
+        this.symbol = symbol;
+        epochDays = new int[capacity];
+        open = new double[capacity];
+        high = new double[capacity];
+        low = new double[capacity];
+        close = new double[capacity];
+        volume = new long[capacity];
+    }
+
+    /**
+     * Add the next bar; dates must be strictly increasing.
+     */
+    public void append(int epochDay, double open, double high, double low, double close, long volume) {
+        if (size == epochDays.length) {
+            throw new IllegalStateException("Series for " + symbol + " is full at " + size + " bars");
+        }
+        if (size > 0 && epochDay <= epochDays[size - 1]) {
+            throw new IllegalArgumentException("Bars must be in increasing date order");
+        }
+        epochDays[size] = epochDay;
+        this.open[size] = open;
+        this.high[size] = high;
+        this.low[size] = low;
+        this.close[size] = close;
+        this.volume[size] = volume;
+        size++;
+    }
+
+    public String getSymbol() { return symbol; }
+
+    public int size() { return size; }
+
+    public boolean isEmpty() { return size == 0; }
+
+    public LocalDate date(int index) {
+        return LocalDate.ofEpochDay(epochDays[index]);
+    }
+
+    public int[] epochDays() { return epochDays; }
+
+    public double[] open() { return open; }
+
+    public double[] high() { return high; }
+
+    public double[] low() { return low; }
+
+    public double[] close() { return close; }
+
+    public long[] volume() { return volume; }
+}
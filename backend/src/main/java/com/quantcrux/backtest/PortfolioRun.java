@@ -0,0 +1,80 @@
+package com.quantcrux.backtest;
+
+/**
+ * Outcome of running a {@link CompiledStrategy} over a {@link PricePanel}: portfolio metrics
+ * as for a single-symbol {@link BacktestRun}, plus trades and profit and loss per symbol in
+ * panel order. The equity array is only kept when asked for.
+ */
+public final class PortfolioRun {
+
+    private final double finalValue;
+    private final double totalReturn;
+    private final int totalTrades;
+    private final int profitableTrades;
+    private final double maxDrawdown;
+    private final double sharpeRatio;
+    private final boolean halted;
+    private final double[] equity;
+    private final int[] symbolTrades;
+    private final int[] symbolProfitableTrades;
+    private final double[] symbolProfit;
+    private final double[] symbolOpenValue;
+
+    PortfolioRun(double finalValue, double totalReturn, int totalTrades, int profitableTrades, double maxDrawdown,
+                 double sharpeRatio, boolean halted, double[] equity, int[] symbolTrades,
+                 int[] symbolProfitableTrades, double[] symbolProfit, double[] symbolOpenValue) {
+        this.finalValue = finalValue;
+        this.totalReturn = totalReturn;
+        this.totalTrades = totalTrades;
+        this.profitableTrades = profitableTrades;
+        this.maxDrawdown = maxDrawdown;
+        this.sharpeRatio = sharpeRatio;
+        this.halted = halted;
+        this.equity = equity;
+        this.symbolTrades = symbolTrades;
+        this.symbolProfitableTrades = symbolProfitableTrades;
+        this.symbolProfit = symbolProfit;
+        this.symbolOpenValue = symbolOpenValue;
+    }
+
+    public double getFinalValue() { return finalValue; }
+
+    public double getTotalReturn() { return totalReturn; }
+
+    public int getTotalTrades() { return totalTrades; }
+
+    public int getProfitableTrades() { return profitableTrades; }
+
+    public double getWinRate() { return totalTrades > 0 ? (double) profitableTrades / totalTrades : 0; }
+
+    public double getMaxDrawdown() { return maxDrawdown; }
+
+    /**
+     * Annualised over 252 rows from the per-row portfolio returns.
+     */
+    public double getSharpeRatio() { return sharpeRatio; }
+
+    /**
+     * Whether the strategy's max_drawdown stopped it out before the end of the panel.
+     */
+    public boolean isHalted() { return halted; }
+
+    /**
+     * Portfolio value on every panel row, or null if it was not kept.
+     */
+    public double[] getEquity() { return equity; }
+
+    public int getTrades(int symbol) { return symbolTrades[symbol]; }
+
+    public int getProfitableTrades(int symbol) { return symbolProfitableTrades[symbol]; }
+
+    /**
+     * Realised and unrealised profit on the symbol over the run.
+     */
+    public double getProfit(int symbol) { return symbolProfit[symbol]; }
+
+    /**
+     * Value of the position still open in the symbol at the last row, 0 if flat.
+     */
+    public double getOpenValue(int symbol) { return symbolOpenValue[symbol]; }
+}
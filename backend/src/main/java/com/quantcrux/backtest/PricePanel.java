@@ -0,0 +1,123 @@
+package com.quantcrux.backtest;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Daily series of several symbols on one time axis: the union of their dates, with every
+ * symbol's bars mapped onto it. A symbol has no bar on a row before its first bar, after its
+ * last, or where its own series skips the date (a holiday, a halt); such rows carry its last
+ * close forward so positions can still be valued, but nothing trades on them.
+ *
+ * Each symbol keeps its own {@link OhlcvSeries}, so indicators run over the bars the symbol
+ * actually has and a missing bar never enters a moving average as a zero or a repeated close.
+ */
+public final class PricePanel {
+
+    private final OhlcvSeries[] series;
+    private final int[] epochDays;
+    // bars[s][row]: index of symbol s's bar on row, or -1 if it has none there
+    private final int[][] bars;
+    // Last close on or before row, NaN before the first bar
+    private final double[][] closes;
+
+    private PricePanel(OhlcvSeries[] series, int[] epochDays, int[][] bars, double[][] closes) {
+        this.series = series;
+        this.epochDays = epochDays;
+        this.bars = bars;
+        this.closes = closes;
+    }
+
+    /**
+     * Align series on the union of their dates.
+     */
+    public static PricePanel align(List<OhlcvSeries> symbols) {
+        if (symbols.isEmpty()) {
+            throw new IllegalArgumentException("At least one symbol is required");
+        }
+        OhlcvSeries[] series = symbols.toArray(new OhlcvSeries[0]);
+        int total = 0;
+        for (OhlcvSeries s : series) {
+            total += s.size();
+        }
+        // Every date of every series, sorted and deduplicated in place
+        int[] dates = new int[total];
+        int filled = 0;
+        for (OhlcvSeries s : series) {
+            System.arraycopy(s.epochDays(), 0, dates, filled, s.size());
+            filled += s.size();
+        }
+        Arrays.sort(dates);
+        int rows = 0;
+        for (int i = 0; i < total; i++) {
+            if (rows == 0 || dates[i] != dates[rows - 1]) {
+                dates[rows++] = dates[i];
+            }
+        }
+        if (rows == 0) {
+            throw new IllegalArgumentException("No bars to backtest");
+        }
+        int[] epochDays = Arrays.copyOf(dates, rows);
+
+        int[][] bars = new int[series.length][rows];
+        double[][] closes = new double[series.length][rows];
+        for (int s = 0; s < series.length; s++) {
+            int[] days = series[s].epochDays();
+            double[] close = series[s].close();
+            int size = series[s].size();
+            int next = 0;
+            double last = Double.NaN;
+            for (int row = 0; row < rows; row++) {
+                if (next < size && days[next] == epochDays[row]) {
+                    bars[s][row] = next;
+                    last = close[next];
+                    next++;
+                } else {
+                    bars[s][row] = -1;
+                }
+                closes[s][row] = last;
+            }
+        }
+        return new PricePanel(series, epochDays, bars, closes);
+    }
+
+    /**
+     * Number of rows, i.e. distinct dates.
+     */
+    public int size() { return epochDays.length; }
+
+    /**
+     * Number of symbols.
+     */
+    public int width() { return series.length; }
+
+    public int[] epochDays() { return epochDays; }
+
+    public OhlcvSeries series(int symbol) { return series[symbol]; }
+
+    public String symbol(int symbol) { return series[symbol].getSymbol(); }
+
+    /**
+     * Index of the symbol's own bar on row, or -1 if it has none there.
+     */
+    public int bar(int symbol, int row) { return bars[symbol][row]; }
+
+    /**
+     * The symbol's close on every row, carried forward over missing bars; NaN before its
+     * first bar. The backing array, not a copy.
+     */
+    public double[] closes(int symbol) { return closes[symbol]; }
+
+    /**
+     * Rows between the symbol's first and last bar on which it has no bar.
+     */
+    public int missingBars(int symbol) {
+        int size = series[symbol].size();
+        if (size == 0) {
+            return 0;
+        }
+        int first = Arrays.binarySearch(epochDays, series[symbol].epochDays()[0]);
+        int last = Arrays.binarySearch(epochDays, series[symbol].epochDays()[size - 1]);
+        return last - first + 1 - size;
+    }
+}
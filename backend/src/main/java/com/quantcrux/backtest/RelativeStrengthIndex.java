@@ -0,0 +1,71 @@
+package com.quantcrux.backtest;
+
+/**
+ * Wilder's RSI of the close: average gain and loss over period changes, seeded with their
+ * simple means and then smoothed by 1 / period. Ready once period changes have been seen,
+ * i.e. after period + 1 closes.
+ */
+public final class RelativeStrengthIndex implements Indicator {
+
+    private final int period;
+    private int changes;
+    private boolean started;
+    private double previousClose;
+    private double averageGain;
+    private double averageLoss;
+
+    public RelativeStrengthIndex(int period) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("Period must be positive");
+        }
+        this.period = period;
+    }
+
+    public void update(double close) {
+        if (!started) {
+            started = true;
+            previousClose = close;
+            return;
+        }
+        double change = close - previousClose;
+        previousClose = close;
+        double gain = Math.max(change, 0);
+        double loss = Math.max(-change, 0);
+        if (changes < period) {
+            changes++;
+            averageGain += (gain - averageGain) / changes;
+            averageLoss += (loss - averageLoss) / changes;
+        } else {
+            averageGain += (gain - averageGain) / period;
+            averageLoss += (loss - averageLoss) / period;
+        }
+    }
+
+    @Override
+    public void update(double high, double low, double close) {
+        update(close);
+    }
+
+    /**
+     * 0 to 100; 50 when the price has not moved over the window.
+     */
+    @Override
+    public double value() {
+        double total = averageGain + averageLoss;
+        return total > 0 ? 100 * averageGain / total : 50;
+    }
+
+    @Override
+    public boolean isReady() {
+        return changes >= period;
+    }
+
+    @Override
+    public void reset() {
+        changes = 0;
+        started = false;
+        previousClose = 0;
+        averageGain = 0;
+        averageLoss = 0;
+    }
+}
@@ -0,0 +1,37 @@
+package com.quantcrux.backtest;
+
+/**
+ * Population standard deviation of the close over the last period bars.
+ */
+public final class RollingStandardDeviation implements Indicator {
+
+    private final RollingWindow window;
+
+    public RollingStandardDeviation(int period) {
+        window = new RollingWindow(period);
+    }
+
+    public void update(double close) {
+        window.add(close);
+    }
+
+    @Override
+    public void update(double high, double low, double close) {
+        window.add(close);
+    }
+
+    @Override
+    public double value() {
+        return Math.sqrt(window.variance());
+    }
+
+    @Override
+    public boolean isReady() {
+        return window.isFull();
+    }
+
+    @Override
+    public void reset() {
+        window.clear();
+    }
+}
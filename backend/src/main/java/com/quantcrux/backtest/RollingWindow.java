@@ -0,0 +1,89 @@
+package com.quantcrux.backtest;
+
+/**
+ * The last size values in a primitive ring buffer, with their running mean and sum of squared
+ * deviations (Welford's update, sliding form).
+ *
+ * Each time the ring wraps the statistics are recomputed from the buffer, which costs O(size)
+ * once every size adds: updates stay O(1) amortised and rounding cannot drift over long series.
+ */
+final class RollingWindow {
+
+    private final double[] values;
+    private int head;
+    private int count;
+    private double mean;
+    private double m2;
+
+    RollingWindow(int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Window size must be positive");
+        }
+        values = new double[size];
+    }
+
+    void add(double value) {
+        int size = values.length;
+        if (count < size) {
+            values[head] = value;
+            count++;
+            double delta = value - mean;
+            mean += delta / count;
+            m2 += delta * (value - mean);
+        } else {
+            double evicted = values[head];
+            values[head] = value;
+            double previousMean = mean;
+            mean += (value - evicted) / size;
+            m2 += (value - evicted) * (value - mean + evicted - previousMean);
+        }
+        head++;
+        if (head == size) {
+            head = 0;
+            if (count == size) {
+                resync();
+            }
+        }
+    }
+
+    boolean isFull() {
+        return count == values.length;
+    }
+
+    int size() {
+        return values.length;
+    }
+
+    double mean() {
+        return mean;
+    }
+
+    /**
+     * Population variance of the values in the window.
+     */
+    double variance() {
+        return count > 0 ? Math.max(m2, 0) / count : 0;
+    }
+
+    void clear() {
+        head = 0;
+        count = 0;
+        mean = 0;
+        m2 = 0;
+    }
+
+    private void resync() {
+        double sum = 0;
+        for (double value : values) {
+            sum += value;
+        }
+        double exactMean = sum / values.length;
+        double squares = 0;
+        for (double value : values) {
+            double deviation = value - exactMean;
+            squares += deviation * deviation;
+        }
+        mean = exactMean;
+        m2 = squares;
+    }
+}
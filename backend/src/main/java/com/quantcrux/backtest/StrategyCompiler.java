@@ -0,0 +1,241 @@
+package com.quantcrux.backtest;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Compiles a StrategyV2 codeJson into a {@link CompiledStrategy}.
+ *
+ * indicators maps a name to a period. The type is the first word of the name and a trailing
+ * "_period" is dropped, so sma_short: 20 defines "sma_short" and rsi_period: 14 defines
+ * "rsi". Types are sma, ema, rsi, atr, std and bollinger (which also defines "_upper" and
+ * "_lower" bands, bollinger_std wide). volume_threshold and volume_period set the volume
+ * spike rule. A bare type name in a rule refers to the shortest series of that type, and
+ * price (or close) and volume are always defined.
+ *
+ * entry_conditions and exit_conditions hold rules:
+ * - a_above_b, a_below_b, a_crosses_above_b, a_crosses_below_b: true compares two series;
+ * - a_above, a_below, a_crosses_above, a_crosses_below: n compares a series with n;
+ * - volume_spike: true is volume above volume_threshold times its volume_period average;
+ * - exit only: stop_loss_percent and take_profit_percent, from the entry price.
+ * A rule set to false is ignored; any other key is rejected. risk_management reads
+ * max_position_size (fraction of equity per position) and max_drawdown.
+ */
+public final class StrategyCompiler {
+
+    private static final Set<String> SERIES_TYPES = Set.of(
+        IndicatorSpec.SMA, IndicatorSpec.EMA, IndicatorSpec.RSI, IndicatorSpec.ATR, IndicatorSpec.STD,
+        IndicatorSpec.BOLLINGER);
+    // Checked in this order, so that "_crosses_above_" is not read as "_above_"
+    private static final String[] RELATIONS = {"_crosses_above", "_crosses_below", "_above", "_below"};
+    private static final int[] RELATION_CODES = {
+        Condition.CROSSES_ABOVE, Condition.CROSSES_BELOW, Condition.ABOVE, Condition.BELOW};
+
+    private static final double DEFAULT_BOLLINGER_WIDTH = 2.0;
+    private static final int DEFAULT_VOLUME_PERIOD = 20;
+    private static final double DEFAULT_VOLUME_THRESHOLD = 1.5;
+
+    private StrategyCompiler() {}
+
+    public static CompiledStrategy compile(Map<String, Object> codeJson) {
+        if (codeJson == null) {
+            throw new IllegalArgumentException("Strategy has no code to backtest");
+        }
+        Map<String, Object> entryConditions = section(codeJson, "entry_conditions");
+        if (entryConditions.isEmpty()) {
+            throw new IllegalArgumentException("Strategy has no entry_conditions to backtest");
+        }
+        Series series = new Series(section(codeJson, "indicators"));
+
+        List<Condition> entry = new ArrayList<>();
+        for (Map.Entry<String, Object> rule : entryConditions.entrySet()) {
+            Condition condition = condition(rule.getKey(), rule.getValue(), series, "entry");
+            if (condition != null) {
+                entry.add(condition);
+            }
+        }
+        if (entry.isEmpty()) {
+            throw new IllegalArgumentException("Strategy has no active entry_conditions to backtest");
+        }
+
+        List<Condition> exit = new ArrayList<>();
+        double stopLoss = Double.NaN;
+        double takeProfit = Double.NaN;
+        for (Map.Entry<String, Object> rule : section(codeJson, "exit_conditions").entrySet()) {
+            String key = rule.getKey();
+            if (key.equals("stop_loss_percent")) {
+                stopLoss = fraction(number(rule.getValue(), key) / 100, key);
+            } else if (key.equals("take_profit_percent")) {
+                takeProfit = positive(number(rule.getValue(), key) / 100, key);
+            } else {
+                Condition condition = condition(key, rule.getValue(), series, "exit");
+                if (condition != null) {
+                    exit.add(condition);
+                }
+            }
+        }
+
+        Map<String, Object> risk = section(codeJson, "risk_management");
+        double positionSize = risk.get("max_position_size") != null
+            ? fraction(number(risk.get("max_position_size"), "max_position_size"), "max_position_size") : 1.0;
+        double maxDrawdown = risk.get("max_drawdown") != null
+            ? fraction(number(risk.get("max_drawdown"), "max_drawdown"), "max_drawdown") : Double.NaN;
+
+        return new CompiledStrategy(entry, exit, stopLoss, takeProfit, positionSize, maxDrawdown);
+    }
+
+    /**
+     * The rule for key, or null if it is switched off.
+     */
+    private static Condition condition(String key, Object value, Series series, String section) {
+        if (key.equals("volume_spike")) {
+            if (!(value instanceof Boolean)) {
+                throw new IllegalArgumentException("volume_spike must be true or false");
+            }
+            return Boolean.TRUE.equals(value)
+                ? new Condition(key, IndicatorSpec.VOLUME_COLUMN, Condition.ABOVE, series.volumeAverage,
+                                series.volumeThreshold, 0)
+                : null;
+        }
+        for (int r = 0; r < RELATIONS.length; r++) {
+            String relation = RELATIONS[r];
+            if (value instanceof Boolean) {
+                int at = key.indexOf(relation + "_");
+                if (at > 0) {
+                    IndicatorSpec left = series.resolve(key.substring(0, at), key);
+                    IndicatorSpec right = series.resolve(key.substring(at + relation.length() + 1), key);
+                    return Boolean.TRUE.equals(value) ? new Condition(key, left, RELATION_CODES[r], right, 1, 0) : null;
+                }
+            } else if (key.endsWith(relation) && key.length() > relation.length()) {
+                IndicatorSpec left = series.resolve(key.substring(0, key.length() - relation.length()), key);
+                return new Condition(key, left, RELATION_CODES[r], null, 1, number(value, key));
+            }
+        }
+        throw new IllegalArgumentException("Unsupported " + section + " condition: " + key);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> section(Map<String, Object> codeJson, String name) {
+        Object section = codeJson.get(name);
+        if (section == null) {
+            return Map.of();
+        }
+        if (!(section instanceof Map)) {
+            throw new IllegalArgumentException(name + " must be an object");
+        }
+        // Sorted, so compilation does not depend on map order
+        return new TreeMap<>((Map<String, Object>) section);
+    }
+
+    private static double number(Object value, String key) {
+        if (value instanceof Number number) {
+            return number.doubleValue();
+        }
+        if (value instanceof String text) {
+            try {
+                return Double.parseDouble(text.trim());
+            } catch (NumberFormatException e) {
+                // Reported below
+            }
+        }
+        throw new IllegalArgumentException(key + " must be a number");
+    }
+
+    private static int period(Object value, String key) {
+        double period = number(value, key);
+        if (period < 1 || period != Math.rint(period)) {
+            throw new IllegalArgumentException(key + " must be a positive whole number of bars");
+        }
+        return (int) period;
+    }
+
+    private static double positive(double value, String key) {
+        if (!(value > 0)) {
+            throw new IllegalArgumentException(key + " must be positive");
+        }
+        return value;
+    }
+
+    private static double fraction(double value, String key) {
+        if (!(value > 0 && value <= 1)) {
+            throw new IllegalArgumentException(key + " must be above 0 and at most " + (key.endsWith("_percent") ? "100" : "1"));
+        }
+        return value;
+    }
+
+    /**
+     * The named series of a strategy's indicators section.
+     */
+    private static final class Series {
+        private final Map<String, IndicatorSpec> byName = new HashMap<>();
+        // Shortest series of each type, for bare type names
+        private final Map<String, IndicatorSpec> byType = new HashMap<>();
+        final IndicatorSpec volumeAverage;
+        final double volumeThreshold;
+
+        Series(Map<String, Object> indicators) {
+            double width = DEFAULT_BOLLINGER_WIDTH;
+            int volumePeriod = DEFAULT_VOLUME_PERIOD;
+            double threshold = DEFAULT_VOLUME_THRESHOLD;
+            Map<String, Object> periods = new TreeMap<>();
+            for (Map.Entry<String, Object> indicator : indicators.entrySet()) {
+                String key = indicator.getKey();
+                switch (key) {
+                    case "bollinger_std", "bollinger_width" -> width = positive(number(indicator.getValue(), key), key);
+                    case "volume_period" -> volumePeriod = period(indicator.getValue(), key);
+                    case "volume_threshold" -> threshold = positive(number(indicator.getValue(), key), key);
+                    default -> periods.put(key, indicator.getValue());
+                }
+            }
+            volumeAverage = new IndicatorSpec(IndicatorSpec.VOLUME_SMA, volumePeriod, 0);
+            volumeThreshold = threshold;
+
+            for (Map.Entry<String, Object> indicator : periods.entrySet()) {
+                String key = indicator.getKey();
+                String name = key.endsWith("_period") ? key.substring(0, key.length() - "_period".length()) : key;
+                int separator = name.indexOf('_');
+                String type = separator > 0 ? name.substring(0, separator) : name;
+                if (!SERIES_TYPES.contains(type)) {
+                    throw new IllegalArgumentException("Unsupported indicator: " + key);
+                }
+                int period = period(indicator.getValue(), key);
+                if (type.equals(IndicatorSpec.BOLLINGER)) {
+                    define(name, type, new IndicatorSpec(IndicatorSpec.BOLLINGER, period, width));
+                    byName.put(name + "_upper", new IndicatorSpec(IndicatorSpec.BOLLINGER_UPPER, period, width));
+                    byName.put(name + "_lower", new IndicatorSpec(IndicatorSpec.BOLLINGER_LOWER, period, width));
+                } else {
+                    define(name, type, new IndicatorSpec(type, period, 0));
+                }
+            }
+        }
+
+        private void define(String name, String type, IndicatorSpec spec) {
+            byName.put(name, spec);
+            IndicatorSpec shortest = byType.get(type);
+            if (shortest == null || spec.getPeriod() < shortest.getPeriod()) {
+                byType.put(type, spec);
+            }
+        }
+
+        IndicatorSpec resolve(String name, String rule) {
+            IndicatorSpec spec = byName.get(name);
+            if (spec == null) {
+                spec = byType.get(name);
+            }
+            if (spec == null) {
+                if (name.equals("price") || name.equals(IndicatorSpec.CLOSE)) {
+                    return IndicatorSpec.CLOSE_PRICE;
+                }
+                if (name.equals(IndicatorSpec.VOLUME)) {
+                    return IndicatorSpec.VOLUME_COLUMN;
+                }
+                throw new IllegalArgumentException("Unknown indicator '" + name + "' in rule " + rule);
+            }
+            return spec;
+        }
+    }
+}
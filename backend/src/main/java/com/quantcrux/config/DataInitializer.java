@@ -2,6 +2,7 @@ package com.quantcrux.config;
 
 import com.quantcrux.model.User;
 import com.quantcrux.repository.UserRepository;
+import com.quantcrux.service.MarketEnvironmentService;
 import com.quantcrux.service.SessionService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
@@ -20,6 +21,9 @@ public class DataInitializer implements CommandLineRunner {
     @Autowired
     private SessionService sessionService;
 
+    @Autowired
+    private MarketEnvironmentService marketEnvironmentService;
+
     @Override
     public void run(String... args) throws Exception {
         // Clean up expired sessions on startup
@@ -38,6 +42,9 @@ public class DataInitializer implements CommandLineRunner {
         System.out.println("All demo users have password: 'password'");
         System.out.println("Available roles: CLIENT, PORTFOLIO_MANAGER, RESEARCHER, ADMIN");
         System.out.println("============================");
+
+        // Volatility surfaces and discount curves for pricing
+        marketEnvironmentService.rebuildFromMarketData();
     }
 
     private void createUserIfNotExists(String username, String email, String name, User.Role role) {
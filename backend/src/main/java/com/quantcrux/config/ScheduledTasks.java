@@ -1,16 +1,22 @@
 package com.quantcrux.config;
 
+import com.quantcrux.service.RevaluationService;
 import com.quantcrux.service.SessionService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.util.Map;
+
 @Component
 public class ScheduledTasks {
 
     @Autowired
     private SessionService sessionService;
 
+    @Autowired
+    private RevaluationService revaluationService;
+
     // Clean up expired sessions every hour
     @Scheduled(fixedRate = 3600000) // 1 hour
     public void cleanupExpiredSessions() {
@@ -21,4 +27,17 @@ public class ScheduledTasks {
             System.err.println("Error cleaning up expired sessions: " + e.getMessage());
         }
     }
+
+    // Mark the book to market; a run that hits its window resumes on the next one
+    @Scheduled(fixedDelayString = "${pricing.revaluation.interval-ms:900000}",
+               initialDelayString = "${pricing.revaluation.initial-delay-ms:60000}")
+    public void revalueBook() {
+        try {
+            Map<String, Object> report = revaluationService.revalueBook();
+            System.out.println("Book revaluation " + report.get("status") + ": " + report.get("tradesRevalued")
+                + " trades at " + report.get("tradesPerSecond") + " trades/sec at: " + new java.util.Date());
+        } catch (Exception e) {
+            System.err.println("Error revaluing book: " + e.getMessage());
+        }
+    }
 }
\ No newline at end of file
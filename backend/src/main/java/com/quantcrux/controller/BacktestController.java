@@ -1,10 +1,19 @@
 package com.quantcrux.controller;
 
+import com.quantcrux.dto.BacktestOptimizationRequest;
+import com.quantcrux.dto.BacktestOptimizationResult;
 import com.quantcrux.dto.BacktestRequest;
 import com.quantcrux.dto.BacktestResult;
+import com.quantcrux.dto.MessageResponse;
+import com.quantcrux.dto.PortfolioBacktestRequest;
+import com.quantcrux.dto.PortfolioBacktestResult;
+import com.quantcrux.model.StrategyV2;
 import com.quantcrux.service.BacktestService;
+import com.quantcrux.service.StrategyV2Service;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
@@ -18,10 +27,68 @@ public class BacktestController {
     @Autowired
     private BacktestService backtestService;
 
+    @Autowired
+    private StrategyV2Service strategyService;
+
+    /**
+     * Backtest a StrategyV2 the user may view; strategyId is its id
+     */
     @PostMapping
-    public ResponseEntity<BacktestResult> runBacktest(@Valid @RequestBody BacktestRequest request) {
-        BacktestResult result = backtestService.runBacktest(request);
-        return ResponseEntity.ok(result);
+    public ResponseEntity<?> runBacktest(@Valid @RequestBody BacktestRequest request, Authentication authentication) {
+        StrategyV2 strategy;
+        try {
+            strategy = strategyService.getStrategyForBacktest(authentication.getName(), request.getStrategyId());
+        } catch (RuntimeException e) {
+            return strategyError(e);
+        }
+        try {
+            BacktestResult result = backtestService.runBacktest(request, strategy);
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
+        }
+    }
+
+    /**
+     * Grid search: backtest the strategy for every combination of the parameter values and
+     * return the best runs by Sharpe ratio, drawdown or return
+     */
+    @PostMapping("/optimize")
+    public ResponseEntity<?> optimize(@Valid @RequestBody BacktestOptimizationRequest request,
+                                      Authentication authentication) {
+        StrategyV2 strategy;
+        try {
+            strategy = strategyService.getStrategyForBacktest(authentication.getName(),
+                                                              request.getBacktest().getStrategyId());
+        } catch (RuntimeException e) {
+            return strategyError(e);
+        }
+        try {
+            BacktestOptimizationResult result = backtestService.optimize(request, strategy);
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
+        }
+    }
+
+    /**
+     * Backtest a StrategyV2 over several symbols traded from one account
+     */
+    @PostMapping("/portfolio")
+    public ResponseEntity<?> runPortfolioBacktest(@Valid @RequestBody PortfolioBacktestRequest request,
+                                                  Authentication authentication) {
+        StrategyV2 strategy;
+        try {
+            strategy = strategyService.getStrategyForBacktest(authentication.getName(), request.getStrategyId());
+        } catch (RuntimeException e) {
+            return strategyError(e);
+        }
+        try {
+            PortfolioBacktestResult result = backtestService.runPortfolioBacktest(request, strategy);
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
+        }
     }
 
     @GetMapping("/history")
@@ -29,4 +96,15 @@ public class BacktestController {
         // Return empty list for now
         return ResponseEntity.ok(java.util.Collections.emptyList());
     }
-}
\ No newline at end of file
+
+    private ResponseEntity<?> strategyError(RuntimeException e) {
+        if (e.getMessage() != null && e.getMessage().contains("not found")) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(new MessageResponse("Strategy not found"));
+        } else if (e.getMessage() != null && e.getMessage().contains("Access denied")) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(new MessageResponse("Access denied"));
+        }
+        throw e;
+    }
+}
@@ -26,15 +26,21 @@ public class LifecycleController {
 
     @PostMapping("/process-fixings")
     public ResponseEntity<?> processFixings() {
-        lifecycleService.processFixings();
+        Map<String, Object> revaluation = lifecycleService.processFixings();
         
-        Map<String, String> response = new HashMap<>();
+        Map<String, Object> response = new HashMap<>();
         response.put("status", "SUCCESS");
         response.put("message", "Fixings processed successfully");
+        response.put("revaluation", revaluation);
         
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/revaluation/status")
+    public ResponseEntity<Map<String, Object>> getRevaluationStatus() {
+        return ResponseEntity.ok(lifecycleService.getRevaluationStatus());
+    }
+
     @PostMapping("/check-barriers")
     public ResponseEntity<?> checkBarriers() {
         lifecycleService.checkBarriers();
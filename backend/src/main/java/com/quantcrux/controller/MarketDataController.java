@@ -1,12 +1,18 @@
 package com.quantcrux.controller;
 
+import com.quantcrux.dto.DiscountCurveData;
 import com.quantcrux.dto.MarketDataPoint;
+import com.quantcrux.dto.MessageResponse;
+import com.quantcrux.dto.VolSurfaceData;
 import com.quantcrux.service.MarketDataService;
+import com.quantcrux.service.MarketEnvironmentService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import jakarta.validation.Valid;
 import java.util.List;
+import java.util.Map;
 
 // @CrossOrigin(origins = "http://localhost:3000")
 @CrossOrigin(origins = {"http://localhost:5173", "http://localhost:3000"}, maxAge = 3600)
@@ -17,6 +23,9 @@ public class MarketDataController {
     @Autowired
     private MarketDataService marketDataService;
 
+    @Autowired
+    private MarketEnvironmentService marketEnvironmentService;
+
     @GetMapping("/{symbol}")
     public ResponseEntity<List<MarketDataPoint>> getMarketData(
             @PathVariable String symbol,
@@ -25,4 +34,39 @@ public class MarketDataController {
         List<MarketDataPoint> data = marketDataService.getMarketData(symbol, days);
         return ResponseEntity.ok(data);
     }
-}
\ No newline at end of file
+
+    @GetMapping("/vol-surface/{underlying}")
+    public ResponseEntity<VolSurfaceData> getVolSurface(@PathVariable String underlying) {
+        VolSurfaceData surface = marketEnvironmentService.getVolSurface(underlying);
+        return surface != null ? ResponseEntity.ok(surface) : ResponseEntity.notFound().build();
+    }
+
+    @PutMapping("/vol-surface/{underlying}")
+    public ResponseEntity<?> putVolSurface(@PathVariable String underlying, @Valid @RequestBody VolSurfaceData surface) {
+        try {
+            return ResponseEntity.ok(marketEnvironmentService.putVolSurface(underlying, surface));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
+        }
+    }
+
+    @GetMapping("/discount-curve/{currency}")
+    public ResponseEntity<DiscountCurveData> getDiscountCurve(@PathVariable String currency) {
+        DiscountCurveData curve = marketEnvironmentService.getDiscountCurve(currency);
+        return curve != null ? ResponseEntity.ok(curve) : ResponseEntity.notFound().build();
+    }
+
+    @PutMapping("/discount-curve/{currency}")
+    public ResponseEntity<?> putDiscountCurve(@PathVariable String currency, @Valid @RequestBody DiscountCurveData curve) {
+        try {
+            return ResponseEntity.ok(marketEnvironmentService.putDiscountCurve(currency, curve));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
+        }
+    }
+
+    @PostMapping("/environment/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildEnvironment() {
+        return ResponseEntity.ok(marketEnvironmentService.rebuildFromMarketData());
+    }
+}
@@ -1,13 +1,32 @@
 package com.quantcrux.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quantcrux.dto.BasketPricingRequest;
+import com.quantcrux.dto.BatchPricingResult;
+import com.quantcrux.dto.ImpliedVolatilityRequest;
+import com.quantcrux.dto.MessageResponse;
+import com.quantcrux.dto.PricingJobStatus;
 import com.quantcrux.dto.PricingRequest;
 import com.quantcrux.dto.PricingResult;
+import com.quantcrux.dto.ScenarioGridRequest;
+import com.quantcrux.service.ImpliedVolatilityService;
+import com.quantcrux.service.PricingJobService;
 import com.quantcrux.service.PricingService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
 
 // @CrossOrigin(origins = "http://localhost:3000")
 @CrossOrigin(origins = {"http://localhost:5173", "http://localhost:3000"}, maxAge = 3600)
@@ -18,15 +37,188 @@ public class PricingController {
     @Autowired
     private PricingService pricingService;
 
+    @Autowired
+    private PricingJobService pricingJobService;
+
+    @Autowired
+    private ImpliedVolatilityService impliedVolatilityService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${pricing.batch.max-requests:10000}")
+    private int maxBatchRequests;
+
     @PostMapping("/calculate")
-    public ResponseEntity<PricingResult> calculatePrice(@Valid @RequestBody PricingRequest request) {
-        PricingResult result = pricingService.calculatePrice(request);
-        return ResponseEntity.ok(result);
+    public ResponseEntity<?> calculatePrice(@Valid @RequestBody PricingRequest request) {
+        try {
+            PricingResult result = pricingService.calculatePrice(request);
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
+        }
     }
 
     @PostMapping("/monte-carlo")
-    public ResponseEntity<PricingResult> monteCarloPrice(@Valid @RequestBody PricingRequest request) {
-        PricingResult result = pricingService.monteCarloPrice(request);
-        return ResponseEntity.ok(result);
+    public ResponseEntity<?> monteCarloPrice(@Valid @RequestBody PricingRequest request) {
+        try {
+            PricingResult result = pricingService.monteCarloPrice(request);
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
+        }
+    }
+
+    /**
+     * Basket, worst-of or best-of option on several correlated underlyings.
+     */
+    @PostMapping("/basket")
+    public ResponseEntity<?> priceBasket(@Valid @RequestBody BasketPricingRequest request) {
+        try {
+            return ResponseEntity.ok(pricingService.priceBasket(request));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
+        }
+    }
+
+    /**
+     * Price one request over every combination of spot, vol, rate and time shifts; the
+     * response holds a dense [spot][vol][rate][time] price grid.
+     */
+    @PostMapping("/scenarios")
+    public ResponseEntity<?> priceScenarioGrid(@Valid @RequestBody ScenarioGridRequest request) {
+        try {
+            return ResponseEntity.ok(pricingService.priceScenarioGrid(request));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
+        }
+    }
+
+    /**
+     * Volatility at which the analytic price of the request matches the quoted price.
+     */
+    @PostMapping("/implied-vol")
+    public ResponseEntity<?> impliedVolatility(@Valid @RequestBody ImpliedVolatilityRequest request) {
+        try {
+            return ResponseEntity.ok(impliedVolatilityService.solve(request.getRequest(), request.getPrice()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
+        }
+    }
+
+    /**
+     * Solve a list of quotes in parallel; each entry carries its index and either the
+     * implied volatility or the error that stopped it.
+     */
+    @PostMapping("/implied-vol/batch")
+    public ResponseEntity<?> impliedVolatilityBatch(@RequestBody List<ImpliedVolatilityRequest> quotes) {
+        if (quotes.isEmpty() || quotes.size() > maxBatchRequests) {
+            return ResponseEntity.badRequest()
+                    .body(new MessageResponse("Batch must contain between 1 and " + maxBatchRequests + " quotes"));
+        }
+        return ResponseEntity.ok(impliedVolatilityService.solveBatch(quotes));
+    }
+
+    @GetMapping("/implied-vol/trades/{tradeId}")
+    public ResponseEntity<?> tradeImpliedVolatility(@PathVariable Long tradeId) {
+        try {
+            return ResponseEntity.ok(impliedVolatilityService.solveForTrade(tradeId));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
+        }
+    }
+
+    /**
+     * Cached implied volatilities, optionally of one underlying, as surface points.
+     */
+    @GetMapping("/implied-vol/quotes")
+    public ResponseEntity<?> impliedVolatilityQuotes(@RequestParam(required = false) String underlying) {
+        return ResponseEntity.ok(impliedVolatilityService.getQuotes(underlying));
+    }
+
+    @GetMapping("/cache/stats")
+    public ResponseEntity<Map<String, Object>> getCacheStats() {
+        return ResponseEntity.ok(pricingService.getCacheStats());
+    }
+
+    @DeleteMapping("/cache")
+    public ResponseEntity<MessageResponse> clearCache() {
+        pricingService.clearCache();
+        return ResponseEntity.ok(new MessageResponse("Pricing cache cleared"));
+    }
+
+    /**
+     * Price a list of requests in one call. Results are streamed back as newline-delimited
+     * JSON, one {index, result} or {index, error} object per request, as each one completes.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<?> priceBatch(@RequestBody List<PricingRequest> requests) {
+        if (requests.isEmpty() || requests.size() > maxBatchRequests) {
+            return ResponseEntity.badRequest()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(new MessageResponse("Batch must contain between 1 and " + maxBatchRequests + " requests"));
+        }
+
+        StreamingResponseBody body = out -> pricingService.priceBatch(requests, item -> writeLine(out, item));
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    /**
+     * Queue a Monte Carlo request as a job and return its id straight away. priority is
+     * "high", "normal" or "low".
+     */
+    @PostMapping("/jobs")
+    public ResponseEntity<?> submitJob(@Valid @RequestBody PricingRequest request,
+                                       @RequestParam(defaultValue = "normal") String priority) {
+        try {
+            PricingJobStatus job = pricingJobService.submit(request, priority);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(new MessageResponse(e.getMessage()));
+        }
+    }
+
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<?> getJob(@PathVariable String jobId) {
+        try {
+            return ResponseEntity.ok(pricingJobService.getStatus(jobId));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new MessageResponse(e.getMessage()));
+        }
+    }
+
+    /**
+     * Server-sent events: "status" on connect, "progress" with the running price and
+     * confidence interval, then "completed", "failed" or "cancelled".
+     */
+    @GetMapping("/jobs/{jobId}/events")
+    public ResponseEntity<?> streamJob(@PathVariable String jobId) {
+        try {
+            SseEmitter emitter = pricingJobService.subscribe(jobId);
+            return ResponseEntity.ok().contentType(MediaType.TEXT_EVENT_STREAM).body(emitter);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new MessageResponse(e.getMessage()));
+        }
+    }
+
+    @DeleteMapping("/jobs/{jobId}")
+    public ResponseEntity<?> cancelJob(@PathVariable String jobId) {
+        try {
+            return ResponseEntity.ok(pricingJobService.cancel(jobId));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new MessageResponse(e.getMessage()));
+        }
+    }
+
+    private void writeLine(OutputStream out, BatchPricingResult item) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(item));
+            out.write('\n');
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,79 @@
+package com.quantcrux.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+/**
+ * A backtest repeated over every combination of the parameter values, ranked by one metric.
+ */
+public class BacktestOptimizationRequest {
+    @NotNull
+    @Valid
+    private BacktestRequest backtest;
+
+    @NotEmpty
+    @Valid
+    private List<ParameterRange> parameters;
+
+    // "sharpe" (highest first), "drawdown" (smallest first) or "return" (highest first)
+    private String rankBy = "sharpe";
+
+    // Rows returned, best first
+    private Integer top = 20;
+
+    // Equity curves of the returned rows; no run keeps one otherwise
+    private Boolean includeEquityCurves = false;
+
+    // Getters and Setters
+    public BacktestRequest getBacktest() { return backtest; }
+    public void setBacktest(BacktestRequest backtest) { this.backtest = backtest; }
+
+    public List<ParameterRange> getParameters() { return parameters; }
+    public void setParameters(List<ParameterRange> parameters) { this.parameters = parameters; }
+
+    public String getRankBy() { return rankBy; }
+    public void setRankBy(String rankBy) { this.rankBy = rankBy; }
+
+    public Integer getTop() { return top; }
+    public void setTop(Integer top) { this.top = top; }
+
+    public Boolean getIncludeEquityCurves() { return includeEquityCurves; }
+    public void setIncludeEquityCurves(Boolean includeEquityCurves) { this.includeEquityCurves = includeEquityCurves; }
+
+    /**
+     * Values of one codeJson entry: from, to and step (inclusive), or a list of values.
+     */
+    public static class ParameterRange {
+        // codeJson key such as "sma_short", or "exit_conditions.stop_loss_percent" when not unique
+        @NotBlank
+        private String name;
+
+        private Double from;
+
+        private Double to;
+
+        private Double step;
+
+        private List<Double> values;
+
+        // Getters and Setters
+        public String getName() { return name; }
+        public void setName(String name) { this.name = name; }
+
+        public Double getFrom() { return from; }
+        public void setFrom(Double from) { this.from = from; }
+
+        public Double getTo() { return to; }
+        public void setTo(Double to) { this.to = to; }
+
+        public Double getStep() { return step; }
+        public void setStep(Double step) { this.step = step; }
+
+        public List<Double> getValues() { return values; }
+        public void setValues(List<Double> values) { this.values = values; }
+    }
+}
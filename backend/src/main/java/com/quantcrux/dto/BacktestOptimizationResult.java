@@ -0,0 +1,124 @@
+package com.quantcrux.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.quantcrux.backtest.EquityCurve;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ranked outcome of a parameter sweep: the best rows by the requested metric, with how many
+ * runs there were and how many indicator columns they shared.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BacktestOptimizationResult {
+    private Long strategyId;
+
+    private String symbol;
+
+    private String rankBy;
+
+    private Integer bars;
+
+    private Integer runs;
+
+    private Integer failedRuns;
+
+    // Message of the first failed run, e.g. an invalid parameter value
+    private String error;
+
+    // Distinct indicator columns computed for the whole sweep
+    private Integer indicatorColumns;
+
+    private Long elapsedMillis;
+
+    private List<Row> rows;
+
+    // Getters and Setters
+    public Long getStrategyId() { return strategyId; }
+    public void setStrategyId(Long strategyId) { this.strategyId = strategyId; }
+
+    public String getSymbol() { return symbol; }
+    public void setSymbol(String symbol) { this.symbol = symbol; }
+
+    public String getRankBy() { return rankBy; }
+    public void setRankBy(String rankBy) { this.rankBy = rankBy; }
+
+    public Integer getBars() { return bars; }
+    public void setBars(Integer bars) { this.bars = bars; }
+
+    public Integer getRuns() { return runs; }
+    public void setRuns(Integer runs) { this.runs = runs; }
+
+    public Integer getFailedRuns() { return failedRuns; }
+    public void setFailedRuns(Integer failedRuns) { this.failedRuns = failedRuns; }
+
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+
+    public Integer getIndicatorColumns() { return indicatorColumns; }
+    public void setIndicatorColumns(Integer indicatorColumns) { this.indicatorColumns = indicatorColumns; }
+
+    public Long getElapsedMillis() { return elapsedMillis; }
+    public void setElapsedMillis(Long elapsedMillis) { this.elapsedMillis = elapsedMillis; }
+
+    public List<Row> getRows() { return rows; }
+    public void setRows(List<Row> rows) { this.rows = rows; }
+
+    /**
+     * One parameter combination and its backtest metrics.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Row {
+        private Integer rank;
+
+        private Map<String, Double> parameters;
+
+        private Double totalReturn;
+
+        private Double finalValue;
+
+        private Double sharpeRatio;
+
+        private Double maxDrawdown;
+
+        private Integer totalTrades;
+
+        private Double winRate;
+
+        private Boolean halted;
+
+        private EquityCurve equityCurve;
+
+        // Getters and Setters
+        public Integer getRank() { return rank; }
+        public void setRank(Integer rank) { this.rank = rank; }
+
+        public Map<String, Double> getParameters() { return parameters; }
+        public void setParameters(Map<String, Double> parameters) { this.parameters = parameters; }
+
+        public Double getTotalReturn() { return totalReturn; }
+        public void setTotalReturn(Double totalReturn) { this.totalReturn = totalReturn; }
+
+        public Double getFinalValue() { return finalValue; }
+        public void setFinalValue(Double finalValue) { this.finalValue = finalValue; }
+
+        public Double getSharpeRatio() { return sharpeRatio; }
+        public void setSharpeRatio(Double sharpeRatio) { this.sharpeRatio = sharpeRatio; }
+
+        public Double getMaxDrawdown() { return maxDrawdown; }
+        public void setMaxDrawdown(Double maxDrawdown) { this.maxDrawdown = maxDrawdown; }
+
+        public Integer getTotalTrades() { return totalTrades; }
+        public void setTotalTrades(Integer totalTrades) { this.totalTrades = totalTrades; }
+
+        public Double getWinRate() { return winRate; }
+        public void setWinRate(Double winRate) { this.winRate = winRate; }
+
+        public Boolean getHalted() { return halted; }
+        public void setHalted(Boolean halted) { this.halted = halted; }
+
+        public EquityCurve getEquityCurve() { return equityCurve; }
+        public void setEquityCurve(EquityCurve equityCurve) { this.equityCurve = equityCurve; }
+    }
+}
@@ -1,13 +1,14 @@
 package com.quantcrux.dto;
 
-import java.util.List;
+import com.quantcrux.backtest.EquityCurve;
+
 import java.util.Map;
 
 public class BacktestResult {
     private Map<String, Object> results;
-    private List<Map<String, Object>> equityCurve;
+    private EquityCurve equityCurve;
 
-    public BacktestResult(Map<String, Object> results, List<Map<String, Object>> equityCurve) {
+    public BacktestResult(Map<String, Object> results, EquityCurve equityCurve) {
         this.results = results;
         this.equityCurve = equityCurve;
     }
@@ -16,6 +17,6 @@ public class BacktestResult {
     public Map<String, Object> getResults() { return results; }
     public void setResults(Map<String, Object> results) { this.results = results; }
 
-    public List<Map<String, Object>> getEquityCurve() { return equityCurve; }
-    public void setEquityCurve(List<Map<String, Object>> equityCurve) { this.equityCurve = equityCurve; }
+    public EquityCurve getEquityCurve() { return equityCurve; }
+    public void setEquityCurve(EquityCurve equityCurve) { this.equityCurve = equityCurve; }
 }
\ No newline at end of file
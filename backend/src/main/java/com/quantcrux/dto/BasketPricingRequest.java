@@ -0,0 +1,103 @@
+package com.quantcrux.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+/**
+ * Multi-asset product on the performance S_i(T) / S_i(0) of each underlying, combined as a
+ * weighted basket, the worst performer or the best performer, and paid against a strike
+ * given as a performance level (1.0 = at the money), in percent of notional.
+ */
+public class BasketPricingRequest {
+    // "basket_option", "worst_of_option" or "best_of_option"
+    @NotBlank
+    private String productType;
+
+    // "call" pays 100 * max(performance - strike, 0); "digital" pays coupon * 100 above the strike
+    private String payoffType = "call";
+
+    // Optional symbols, used to look up volatilities when they are omitted
+    private List<String> underlyings;
+
+    // Optional currency, used to look up the discount curve when riskFreeRate is omitted
+    private String currency;
+
+    @NotEmpty
+    private List<Double> spotPrices;
+
+    // When omitted, taken from each underlying's volatility surface
+    private List<Double> volatilities;
+
+    // Basket weights; equal weights when omitted
+    private List<Double> weights;
+
+    // Full correlation matrix; independent underlyings when omitted
+    private List<List<Double>> correlations;
+
+    @NotNull
+    private Double strike;
+
+    private Double coupon;
+
+    private Double riskFreeRate;
+
+    @NotNull
+    private Double timeToMaturity;
+
+    private Integer numSimulations = 100000;
+
+    private Boolean antitheticVariates = false;
+
+    // Simulation seed; when omitted it is hashed from spots, volatilities, correlations, rate,
+    // maturity and the simulation settings, and returned in the result
+    private Long seed;
+
+    // Getters and Setters
+    public String getProductType() { return productType; }
+    public void setProductType(String productType) { this.productType = productType; }
+
+    public String getPayoffType() { return payoffType; }
+    public void setPayoffType(String payoffType) { this.payoffType = payoffType; }
+
+    public List<String> getUnderlyings() { return underlyings; }
+    public void setUnderlyings(List<String> underlyings) { this.underlyings = underlyings; }
+
+    public String getCurrency() { return currency; }
+    public void setCurrency(String currency) { this.currency = currency; }
+
+    public List<Double> getSpotPrices() { return spotPrices; }
+    public void setSpotPrices(List<Double> spotPrices) { this.spotPrices = spotPrices; }
+
+    public List<Double> getVolatilities() { return volatilities; }
+    public void setVolatilities(List<Double> volatilities) { this.volatilities = volatilities; }
+
+    public List<Double> getWeights() { return weights; }
+    public void setWeights(List<Double> weights) { this.weights = weights; }
+
+    public List<List<Double>> getCorrelations() { return correlations; }
+    public void setCorrelations(List<List<Double>> correlations) { this.correlations = correlations; }
+
+    public Double getStrike() { return strike; }
+    public void setStrike(Double strike) { this.strike = strike; }
+
+    public Double getCoupon() { return coupon; }
+    public void setCoupon(Double coupon) { this.coupon = coupon; }
+
+    public Double getRiskFreeRate() { return riskFreeRate; }
+    public void setRiskFreeRate(Double riskFreeRate) { this.riskFreeRate = riskFreeRate; }
+
+    public Double getTimeToMaturity() { return timeToMaturity; }
+    public void setTimeToMaturity(Double timeToMaturity) { this.timeToMaturity = timeToMaturity; }
+
+    public Integer getNumSimulations() { return numSimulations; }
+    public void setNumSimulations(Integer numSimulations) { this.numSimulations = numSimulations; }
+
+    public Boolean getAntitheticVariates() { return antitheticVariates; }
+    public void setAntitheticVariates(Boolean antitheticVariates) { this.antitheticVariates = antitheticVariates; }
+
+    public Long getSeed() { return seed; }
+    public void setSeed(Long seed) { this.seed = seed; }
+}
@@ -0,0 +1,38 @@
+package com.quantcrux.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * One entry of a batch pricing response: the result for the request at index, or the
+ * error that stopped it from being priced.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchPricingResult {
+    private Integer index;
+    private PricingResult result;
+    private String error;
+
+    public BatchPricingResult() {}
+
+    public BatchPricingResult(Integer index, PricingResult result) {
+        this.index = index;
+        this.result = result;
+    }
+
+    public static BatchPricingResult failed(Integer index, String error) {
+        BatchPricingResult item = new BatchPricingResult();
+        item.setIndex(index);
+        item.setError(error);
+        return item;
+    }
+
+    // Getters and Setters
+    public Integer getIndex() { return index; }
+    public void setIndex(Integer index) { this.index = index; }
+
+    public PricingResult getResult() { return result; }
+    public void setResult(PricingResult result) { this.result = result; }
+
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+}
@@ -0,0 +1,28 @@
+package com.quantcrux.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+/**
+ * Zero curve of one currency: continuously compounded zeroRates at tenors (years).
+ */
+public class DiscountCurveData {
+    private String currency;
+
+    @NotEmpty
+    private List<Double> tenors;
+
+    @NotEmpty
+    private List<Double> zeroRates;
+
+    // Getters and Setters
+    public String getCurrency() { return currency; }
+    public void setCurrency(String currency) { this.currency = currency; }
+
+    public List<Double> getTenors() { return tenors; }
+    public void setTenors(List<Double> tenors) { this.tenors = tenors; }
+
+    public List<Double> getZeroRates() { return zeroRates; }
+    public void setZeroRates(List<Double> zeroRates) { this.zeroRates = zeroRates; }
+}
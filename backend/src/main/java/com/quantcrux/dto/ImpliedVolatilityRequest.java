@@ -0,0 +1,24 @@
+package com.quantcrux.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * A quoted price to back out a volatility from. request.volatility is ignored; the rate
+ * comes from the currency's discount curve when omitted.
+ */
+public class ImpliedVolatilityRequest {
+    @NotNull
+    @Valid
+    private PricingRequest request;
+
+    @NotNull
+    private Double price;
+
+    // Getters and Setters
+    public PricingRequest getRequest() { return request; }
+    public void setRequest(PricingRequest request) { this.request = request; }
+
+    public Double getPrice() { return price; }
+    public void setPrice(Double price) { this.price = price; }
+}
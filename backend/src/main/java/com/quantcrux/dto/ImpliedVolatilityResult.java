@@ -0,0 +1,90 @@
+package com.quantcrux.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Implied volatility of one quote, with the terms it was solved on so that results can be
+ * laid out as points of a volatility surface. In a batch, index is the position of the quote
+ * and error is set instead of impliedVolatility when it could not be solved.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ImpliedVolatilityResult {
+    private Integer index;
+    private Long productId;
+    private Long tradeId;
+    private String productType;
+    private String underlying;
+    private Double spotPrice;
+    private Double strike;
+    private Double timeToMaturity;
+    private Double riskFreeRate;
+
+    // "american" or "bermudan" when solved on the PDE grid; omitted for European quotes
+    private String exerciseStyle;
+    private Double price;
+    private Double impliedVolatility;
+
+    // Price evaluations used and the step that finished the solve: "newton", "brent" or "bracket"
+    private Integer evaluations;
+    private String method;
+    private Boolean cached;
+    private String error;
+
+    public ImpliedVolatilityResult() {}
+
+    public static ImpliedVolatilityResult failed(Integer index, String error) {
+        ImpliedVolatilityResult result = new ImpliedVolatilityResult();
+        result.setIndex(index);
+        result.setError(error);
+        return result;
+    }
+
+    // Getters and Setters
+    public Integer getIndex() { return index; }
+    public void setIndex(Integer index) { this.index = index; }
+
+    public Long getProductId() { return productId; }
+    public void setProductId(Long productId) { this.productId = productId; }
+
+    public Long getTradeId() { return tradeId; }
+    public void setTradeId(Long tradeId) { this.tradeId = tradeId; }
+
+    public String getProductType() { return productType; }
+    public void setProductType(String productType) { this.productType = productType; }
+
+    public String getUnderlying() { return underlying; }
+    public void setUnderlying(String underlying) { this.underlying = underlying; }
+
+    public Double getSpotPrice() { return spotPrice; }
+    public void setSpotPrice(Double spotPrice) { this.spotPrice = spotPrice; }
+
+    public Double getStrike() { return strike; }
+    public void setStrike(Double strike) { this.strike = strike; }
+
+    public Double getTimeToMaturity() { return timeToMaturity; }
+    public void setTimeToMaturity(Double timeToMaturity) { this.timeToMaturity = timeToMaturity; }
+
+    public Double getRiskFreeRate() { return riskFreeRate; }
+    public void setRiskFreeRate(Double riskFreeRate) { this.riskFreeRate = riskFreeRate; }
+
+    public String getExerciseStyle() { return exerciseStyle; }
+    public void setExerciseStyle(String exerciseStyle) { this.exerciseStyle = exerciseStyle; }
+
+    public Double getPrice() { return price; }
+    public void setPrice(Double price) { this.price = price; }
+
+    public Double getImpliedVolatility() { return impliedVolatility; }
+    public void setImpliedVolatility(Double impliedVolatility) { this.impliedVolatility = impliedVolatility; }
+
+    public Integer getEvaluations() { return evaluations; }
+    public void setEvaluations(Integer evaluations) { this.evaluations = evaluations; }
+
+    public String getMethod() { return method; }
+    public void setMethod(String method) { this.method = method; }
+
+    public Boolean getCached() { return cached; }
+    public void setCached(Boolean cached) { this.cached = cached; }
+
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+}
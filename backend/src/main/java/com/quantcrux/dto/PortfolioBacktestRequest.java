@@ -0,0 +1,51 @@
+package com.quantcrux.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+/**
+ * A backtest of one strategy over a universe of symbols traded from a single account.
+ */
+public class PortfolioBacktestRequest {
+    @NotNull
+    private Long strategyId;
+
+    @NotEmpty
+    private List<String> symbols;
+
+    @NotBlank
+    private String startDate;
+
+    @NotBlank
+    private String endDate;
+
+    @NotNull
+    private Double initialCapital;
+
+    // Bars between resizing open positions to max_position_size of equity. 0 (the default)
+    // never resizes, so a one-symbol run matches the single-symbol backtest; with a period,
+    // positions are trimmed or topped up and the results differ from it
+    private Integer rebalanceBars = 0;
+
+    // Getters and Setters
+    public Long getStrategyId() { return strategyId; }
+    public void setStrategyId(Long strategyId) { this.strategyId = strategyId; }
+
+    public List<String> getSymbols() { return symbols; }
+    public void setSymbols(List<String> symbols) { this.symbols = symbols; }
+
+    public String getStartDate() { return startDate; }
+    public void setStartDate(String startDate) { this.startDate = startDate; }
+
+    public String getEndDate() { return endDate; }
+    public void setEndDate(String endDate) { this.endDate = endDate; }
+
+    public Double getInitialCapital() { return initialCapital; }
+    public void setInitialCapital(Double initialCapital) { this.initialCapital = initialCapital; }
+
+    public Integer getRebalanceBars() { return rebalanceBars; }
+    public void setRebalanceBars(Integer rebalanceBars) { this.rebalanceBars = rebalanceBars; }
+}
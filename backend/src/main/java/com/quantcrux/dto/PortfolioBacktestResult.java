@@ -0,0 +1,118 @@
+package com.quantcrux.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.quantcrux.backtest.EquityCurve;
+
+import java.util.List;
+
+/**
+ * Portfolio metrics and equity of a multi-symbol backtest, with a breakdown per symbol.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PortfolioBacktestResult {
+    private Long strategyId;
+
+    // Distinct dates across all symbols
+    private Integer bars;
+
+    private Double totalReturn;
+
+    private Double finalValue;
+
+    private Integer totalTrades;
+
+    private Integer profitableTrades;
+
+    private Double winRate;
+
+    private Double maxDrawdown;
+
+    private Double sharpeRatio;
+
+    private Boolean halted;
+
+    private EquityCurve equityCurve;
+
+    private List<SymbolResult> symbols;
+
+    // Getters and Setters
+    public Long getStrategyId() { return strategyId; }
+    public void setStrategyId(Long strategyId) { this.strategyId = strategyId; }
+
+    public Integer getBars() { return bars; }
+    public void setBars(Integer bars) { this.bars = bars; }
+
+    public Double getTotalReturn() { return totalReturn; }
+    public void setTotalReturn(Double totalReturn) { this.totalReturn = totalReturn; }
+
+    public Double getFinalValue() { return finalValue; }
+    public void setFinalValue(Double finalValue) { this.finalValue = finalValue; }
+
+    public Integer getTotalTrades() { return totalTrades; }
+    public void setTotalTrades(Integer totalTrades) { this.totalTrades = totalTrades; }
+
+    public Integer getProfitableTrades() { return profitableTrades; }
+    public void setProfitableTrades(Integer profitableTrades) { this.profitableTrades = profitableTrades; }
+
+    public Double getWinRate() { return winRate; }
+    public void setWinRate(Double winRate) { this.winRate = winRate; }
+
+    public Double getMaxDrawdown() { return maxDrawdown; }
+    public void setMaxDrawdown(Double maxDrawdown) { this.maxDrawdown = maxDrawdown; }
+
+    public Double getSharpeRatio() { return sharpeRatio; }
+    public void setSharpeRatio(Double sharpeRatio) { this.sharpeRatio = sharpeRatio; }
+
+    public Boolean getHalted() { return halted; }
+    public void setHalted(Boolean halted) { this.halted = halted; }
+
+    public EquityCurve getEquityCurve() { return equityCurve; }
+    public void setEquityCurve(EquityCurve equityCurve) { this.equityCurve = equityCurve; }
+
+    public List<SymbolResult> getSymbols() { return symbols; }
+    public void setSymbols(List<SymbolResult> symbols) { this.symbols = symbols; }
+
+    /**
+     * Trades and profit of one symbol of the portfolio.
+     */
+    public static class SymbolResult {
+        private String symbol;
+
+        private Integer bars;
+
+        // Dates inside the symbol's own range on which it has no bar
+        private Integer missingBars;
+
+        private Integer trades;
+
+        private Integer profitableTrades;
+
+        // Realised plus unrealised
+        private Double profit;
+
+        // Position still open at the end, 0 if flat
+        private Double openValue;
+
+        // Getters and Setters
+        public String getSymbol() { return symbol; }
+        public void setSymbol(String symbol) { this.symbol = symbol; }
+
+        public Integer getBars() { return bars; }
+        public void setBars(Integer bars) { this.bars = bars; }
+
+        public Integer getMissingBars() { return missingBars; }
+        public void setMissingBars(Integer missingBars) { this.missingBars = missingBars; }
+
+        public Integer getTrades() { return trades; }
+        public void setTrades(Integer trades) { this.trades = trades; }
+
+        public Integer getProfitableTrades() { return profitableTrades; }
+        public void setProfitableTrades(Integer profitableTrades) { this.profitableTrades = profitableTrades; }
+
+        public Double getProfit() { return profit; }
+        public void setProfit(Double profit) { this.profit = profit; }
+
+        public Double getOpenValue() { return openValue; }
+        public void setOpenValue(Double openValue) { this.openValue = openValue; }
+    }
+}
@@ -0,0 +1,81 @@
+package com.quantcrux.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDateTime;
+
+/**
+ * State of an asynchronous pricing job. While running, price and confidenceInterval are the
+ * running estimate after simulatedPaths paths; once COMPLETED, result holds the final price.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PricingJobStatus {
+    private String jobId;
+
+    // QUEUED, RUNNING, COMPLETED, FAILED or CANCELLED
+    private String status;
+
+    // "high", "normal" or "low"
+    private String priority;
+
+    // "interactive" or "bulk", from the estimated simulation work
+    private String lane;
+
+    private Long simulatedPaths;
+
+    private Long totalPaths;
+
+    private Double price;
+
+    private Double confidenceInterval;
+
+    private PricingResult result;
+
+    private String error;
+
+    private LocalDateTime submittedAt;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime completedAt;
+
+    // Getters and Setters
+    public String getJobId() { return jobId; }
+    public void setJobId(String jobId) { this.jobId = jobId; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public String getPriority() { return priority; }
+    public void setPriority(String priority) { this.priority = priority; }
+
+    public String getLane() { return lane; }
+    public void setLane(String lane) { this.lane = lane; }
+
+    public Long getSimulatedPaths() { return simulatedPaths; }
+    public void setSimulatedPaths(Long simulatedPaths) { this.simulatedPaths = simulatedPaths; }
+
+    public Long getTotalPaths() { return totalPaths; }
+    public void setTotalPaths(Long totalPaths) { this.totalPaths = totalPaths; }
+
+    public Double getPrice() { return price; }
+    public void setPrice(Double price) { this.price = price; }
+
+    public Double getConfidenceInterval() { return confidenceInterval; }
+    public void setConfidenceInterval(Double confidenceInterval) { this.confidenceInterval = confidenceInterval; }
+
+    public PricingResult getResult() { return result; }
+    public void setResult(PricingResult result) { this.result = result; }
+
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+
+    public LocalDateTime getSubmittedAt() { return submittedAt; }
+    public void setSubmittedAt(LocalDateTime submittedAt) { this.submittedAt = submittedAt; }
+
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+
+    public LocalDateTime getCompletedAt() { return completedAt; }
+    public void setCompletedAt(LocalDateTime completedAt) { this.completedAt = completedAt; }
+}
@@ -7,6 +7,15 @@ public class PricingRequest {
     @NotBlank
     private String productType;
 
+    // Optional product id; the compiled payoff is cached per product
+    private Long productId;
+
+    // Optional underlying symbol; cached results are invalidated when its market price moves
+    private String underlying;
+
+    // Optional currency, used to look up the discount curve when riskFreeRate is omitted
+    private String currency;
+
     @NotNull
     private Double spotPrice;
 
@@ -18,10 +27,10 @@ public class PricingRequest {
     @NotNull
     private Double coupon;
 
-    @NotNull
+    // When omitted, taken from the underlying's volatility surface
     private Double volatility;
 
-    @NotNull
+    // When omitted, taken from the currency's discount curve
     private Double riskFreeRate;
 
     @NotNull
@@ -29,10 +38,58 @@ public class PricingRequest {
 
     private Integer numSimulations = 50000;
 
+    // Monte Carlo variance reduction (opt-in)
+    private Boolean antitheticVariates = false;
+
+    private Boolean controlVariate = false;
+
+    private Boolean momentMatching = false;
+
+    // "pseudo_random" or "sobol" (randomised quasi-Monte Carlo)
+    private String samplingMethod = "pseudo_random";
+
+    private Integer qmcRandomizations = 16;
+
+    // Simulation seed. When omitted it is hashed from spot, volatility, rate, maturity and the
+    // simulation settings, so the same inputs replay the same draws; the seed used is returned
+    // in the result. Scenario grid points all use the seed of the base request.
+    private Long seed;
+
+    // Adaptive mode: simulate in batches until the 95% confidence interval meets a target.
+    // numSimulations is ignored; maxSimulations and maxTimeMillis bound the run.
+    private Double targetConfidenceInterval;
+
+    private Double targetRelativeError;
+
+    private Integer maxSimulations = 5000000;
+
+    private Long maxTimeMillis;
+
+    // Barrier monitoring: "daily", "weekly", "monthly" or "terminal" (maturity only).
+    // bridgeCorrection adds the crossing probability between observations (continuous barrier).
+    private String monitoringFrequency = "daily";
+
+    private Boolean bridgeCorrection = true;
+
+    // "european", "american" or "bermudan"; early exercise is priced on the PDE grid.
+    // Bermudan exercise dates are spaced by exerciseFrequency ("daily", "weekly", "monthly" or "quarterly").
+    private String exerciseStyle = "european";
+
+    private String exerciseFrequency = "monthly";
+
     // Getters and Setters
     public String getProductType() { return productType; }
     public void setProductType(String productType) { this.productType = productType; }
 
+    public Long getProductId() { return productId; }
+    public void setProductId(Long productId) { this.productId = productId; }
+
+    public String getUnderlying() { return underlying; }
+    public void setUnderlying(String underlying) { this.underlying = underlying; }
+
+    public String getCurrency() { return currency; }
+    public void setCurrency(String currency) { this.currency = currency; }
+
     public Double getSpotPrice() { return spotPrice; }
     public void setSpotPrice(Double spotPrice) { this.spotPrice = spotPrice; }
 
@@ -56,4 +113,46 @@ public class PricingRequest {
 
     public Integer getNumSimulations() { return numSimulations; }
     public void setNumSimulations(Integer numSimulations) { this.numSimulations = numSimulations; }
-}
\ No newline at end of file
+
+    public Boolean getAntitheticVariates() { return antitheticVariates; }
+    public void setAntitheticVariates(Boolean antitheticVariates) { this.antitheticVariates = antitheticVariates; }
+
+    public Boolean getControlVariate() { return controlVariate; }
+    public void setControlVariate(Boolean controlVariate) { this.controlVariate = controlVariate; }
+
+    public Boolean getMomentMatching() { return momentMatching; }
+    public void setMomentMatching(Boolean momentMatching) { this.momentMatching = momentMatching; }
+
+    public String getSamplingMethod() { return samplingMethod; }
+    public void setSamplingMethod(String samplingMethod) { this.samplingMethod = samplingMethod; }
+
+    public Integer getQmcRandomizations() { return qmcRandomizations; }
+    public void setQmcRandomizations(Integer qmcRandomizations) { this.qmcRandomizations = qmcRandomizations; }
+
+    public Long getSeed() { return seed; }
+    public void setSeed(Long seed) { this.seed = seed; }
+
+    public Double getTargetConfidenceInterval() { return targetConfidenceInterval; }
+    public void setTargetConfidenceInterval(Double targetConfidenceInterval) { this.targetConfidenceInterval = targetConfidenceInterval; }
+
+    public Double getTargetRelativeError() { return targetRelativeError; }
+    public void setTargetRelativeError(Double targetRelativeError) { this.targetRelativeError = targetRelativeError; }
+
+    public Integer getMaxSimulations() { return maxSimulations; }
+    public void setMaxSimulations(Integer maxSimulations) { this.maxSimulations = maxSimulations; }
+
+    public Long getMaxTimeMillis() { return maxTimeMillis; }
+    public void setMaxTimeMillis(Long maxTimeMillis) { this.maxTimeMillis = maxTimeMillis; }
+
+    public String getMonitoringFrequency() { return monitoringFrequency; }
+    public void setMonitoringFrequency(String monitoringFrequency) { this.monitoringFrequency = monitoringFrequency; }
+
+    public Boolean getBridgeCorrection() { return bridgeCorrection; }
+    public void setBridgeCorrection(Boolean bridgeCorrection) { this.bridgeCorrection = bridgeCorrection; }
+
+    public String getExerciseStyle() { return exerciseStyle; }
+    public void setExerciseStyle(String exerciseStyle) { this.exerciseStyle = exerciseStyle; }
+
+    public String getExerciseFrequency() { return exerciseFrequency; }
+    public void setExerciseFrequency(String exerciseFrequency) { this.exerciseFrequency = exerciseFrequency; }
+}
@@ -1,5 +1,6 @@
 package com.quantcrux.dto;
 
+import java.util.List;
 import java.util.Map;
 
 public class PricingResult {
@@ -7,6 +8,13 @@ public class PricingResult {
     private Map<String, Double> greeks;
     private Double confidenceInterval;
     private Integer numSimulations;
+    private String pricingModel;
+    private String samplingMethod;
+    private List<String> varianceReduction;
+    private Double varianceReductionFactor;
+    private Boolean targetMet;
+    private Long elapsedMillis;
+    private Long seed;
 
     public PricingResult(Double price, Map<String, Double> greeks, Double confidenceInterval, Integer numSimulations) {
         this.price = price;
@@ -27,4 +35,25 @@ public class PricingResult {
 
     public Integer getNumSimulations() { return numSimulations; }
     public void setNumSimulations(Integer numSimulations) { this.numSimulations = numSimulations; }
+
+    public String getPricingModel() { return pricingModel; }
+    public void setPricingModel(String pricingModel) { this.pricingModel = pricingModel; }
+
+    public String getSamplingMethod() { return samplingMethod; }
+    public void setSamplingMethod(String samplingMethod) { this.samplingMethod = samplingMethod; }
+
+    public List<String> getVarianceReduction() { return varianceReduction; }
+    public void setVarianceReduction(List<String> varianceReduction) { this.varianceReduction = varianceReduction; }
+
+    public Double getVarianceReductionFactor() { return varianceReductionFactor; }
+    public void setVarianceReductionFactor(Double varianceReductionFactor) { this.varianceReductionFactor = varianceReductionFactor; }
+
+    public Boolean getTargetMet() { return targetMet; }
+    public void setTargetMet(Boolean targetMet) { this.targetMet = targetMet; }
+
+    public Long getElapsedMillis() { return elapsedMillis; }
+    public void setElapsedMillis(Long elapsedMillis) { this.elapsedMillis = elapsedMillis; }
+
+    public Long getSeed() { return seed; }
+    public void setSeed(Long seed) { this.seed = seed; }
 }
\ No newline at end of file
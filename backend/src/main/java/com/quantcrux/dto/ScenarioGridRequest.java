@@ -0,0 +1,50 @@
+package com.quantcrux.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+/**
+ * A base request priced at every combination of the shift axes. An omitted axis is the
+ * single shift 0.
+ */
+public class ScenarioGridRequest {
+    @NotNull
+    @Valid
+    private PricingRequest request;
+
+    // "monte_carlo" (one set of draws shared by every grid point), "analytic" or "pde" (needed for early exercise)
+    private String pricingModel = "monte_carlo";
+
+    // Relative spot shifts, e.g. -0.1 prices at 90% of spot
+    private List<Double> spotShifts;
+
+    // Absolute volatility shifts, e.g. 0.01 adds one vol point
+    private List<Double> volShifts;
+
+    // Absolute risk-free rate shifts, e.g. 0.0025 adds 25bp
+    private List<Double> rateShifts;
+
+    // Calendar days elapsed, shortening the time to maturity
+    private List<Double> timeShifts;
+
+    // Getters and Setters
+    public PricingRequest getRequest() { return request; }
+    public void setRequest(PricingRequest request) { this.request = request; }
+
+    public String getPricingModel() { return pricingModel; }
+    public void setPricingModel(String pricingModel) { this.pricingModel = pricingModel; }
+
+    public List<Double> getSpotShifts() { return spotShifts; }
+    public void setSpotShifts(List<Double> spotShifts) { this.spotShifts = spotShifts; }
+
+    public List<Double> getVolShifts() { return volShifts; }
+    public void setVolShifts(List<Double> volShifts) { this.volShifts = volShifts; }
+
+    public List<Double> getRateShifts() { return rateShifts; }
+    public void setRateShifts(List<Double> rateShifts) { this.rateShifts = rateShifts; }
+
+    public List<Double> getTimeShifts() { return timeShifts; }
+    public void setTimeShifts(List<Double> timeShifts) { this.timeShifts = timeShifts; }
+}
@@ -0,0 +1,63 @@
+package com.quantcrux.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * Prices of a scenario grid, indexed [spot][vol][rate][time] in the order of the axes.
+ * Monte Carlo grids also carry the 95% confidence interval of every point.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ScenarioGridResult {
+    private String pricingModel;
+
+    private List<Double> spotShifts;
+
+    private List<Double> volShifts;
+
+    private List<Double> rateShifts;
+
+    private List<Double> timeShifts;
+
+    private double[][][][] prices;
+
+    private double[][][][] confidenceIntervals;
+
+    private Integer gridPoints;
+
+    private Integer numSimulations;
+
+    private Long elapsedMillis;
+
+    // Getters and Setters
+    public String getPricingModel() { return pricingModel; }
+    public void setPricingModel(String pricingModel) { this.pricingModel = pricingModel; }
+
+    public List<Double> getSpotShifts() { return spotShifts; }
+    public void setSpotShifts(List<Double> spotShifts) { this.spotShifts = spotShifts; }
+
+    public List<Double> getVolShifts() { return volShifts; }
+    public void setVolShifts(List<Double> volShifts) { this.volShifts = volShifts; }
+
+    public List<Double> getRateShifts() { return rateShifts; }
+    public void setRateShifts(List<Double> rateShifts) { this.rateShifts = rateShifts; }
+
+    public List<Double> getTimeShifts() { return timeShifts; }
+    public void setTimeShifts(List<Double> timeShifts) { this.timeShifts = timeShifts; }
+
+    public double[][][][] getPrices() { return prices; }
+    public void setPrices(double[][][][] prices) { this.prices = prices; }
+
+    public double[][][][] getConfidenceIntervals() { return confidenceIntervals; }
+    public void setConfidenceIntervals(double[][][][] confidenceIntervals) { this.confidenceIntervals = confidenceIntervals; }
+
+    public Integer getGridPoints() { return gridPoints; }
+    public void setGridPoints(Integer gridPoints) { this.gridPoints = gridPoints; }
+
+    public Integer getNumSimulations() { return numSimulations; }
+    public void setNumSimulations(Integer numSimulations) { this.numSimulations = numSimulations; }
+
+    public Long getElapsedMillis() { return elapsedMillis; }
+    public void setElapsedMillis(Long elapsedMillis) { this.elapsedMillis = elapsedMillis; }
+}
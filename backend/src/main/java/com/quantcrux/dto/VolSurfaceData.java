@@ -0,0 +1,35 @@
+package com.quantcrux.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+/**
+ * Volatility grid of one underlying: volatilities.get(i).get(j) is the implied volatility
+ * at tenors.get(i) (years) and logMoneyness.get(j) (ln(strike / spot)).
+ */
+public class VolSurfaceData {
+    private String underlying;
+
+    @NotEmpty
+    private List<Double> tenors;
+
+    @NotEmpty
+    private List<Double> logMoneyness;
+
+    @NotEmpty
+    private List<List<Double>> volatilities;
+
+    // Getters and Setters
+    public String getUnderlying() { return underlying; }
+    public void setUnderlying(String underlying) { this.underlying = underlying; }
+
+    public List<Double> getTenors() { return tenors; }
+    public void setTenors(List<Double> tenors) { this.tenors = tenors; }
+
+    public List<Double> getLogMoneyness() { return logMoneyness; }
+    public void setLogMoneyness(List<Double> logMoneyness) { this.logMoneyness = logMoneyness; }
+
+    public List<List<Double>> getVolatilities() { return volatilities; }
+    public void setVolatilities(List<List<Double>> volatilities) { this.volatilities = volatilities; }
+}
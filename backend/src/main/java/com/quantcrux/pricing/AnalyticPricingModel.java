@@ -0,0 +1,245 @@
+package com.quantcrux.pricing;
+
+import com.quantcrux.dto.PricingRequest;
+import com.quantcrux.dto.PricingResult;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Closed-form prices and Greeks for the single-underlying payoffs priced by
+ * {@link MonteCarloPricingModel}: Black-Scholes for the vanilla call, cash-or-nothing for
+ * digital_option and Rubinstein-Reiner binary barrier formulas for barrier_option.
+ *
+ * A barrier below spot is treated as down-and-out, a barrier above spot as up-and-in; the
+ * coupon is paid when the terminal price finishes above the strike. Discretely monitored
+ * barriers without bridge correction use the Broadie-Glasserman-Kou shifted barrier, and a
+ * barrier observed only at maturity is a digital struck at the higher of strike and barrier.
+ */
+@Component
+@Order(1)
+public class AnalyticPricingModel implements PricingModel {
+
+    private static final double ONE_DAY = 1.0 / 365.0;
+    private static final double VOL_POINT = 0.01;
+    private static final double SPOT_BUMP = 1e-4;
+
+    @Override
+    public String getName() {
+        return "analytic";
+    }
+
+    @Override
+    public boolean supports(PricingRequest request) {
+        return request.getVolatility() > 0 && request.getTimeToMaturity() > 0
+            && request.getSpotPrice() > 0 && request.getStrike() > 0 && !PdePricingModel.isEarlyExercise(request);
+    }
+
+    @Override
+    public PricingResult price(PricingRequest request) {
+        double spot = request.getSpotPrice();
+        double vol = request.getVolatility();
+        double rate = request.getRiskFreeRate();
+        double t = request.getTimeToMaturity();
+        Double barrier = request.getBarrier();
+        Terms terms = new Terms(request);
+        String productType = terms.productType;
+        double strike = terms.strike;
+        int discreteSteps = terms.discreteSteps;
+
+        double price;
+        double delta;
+        double gamma;
+        double vega;
+        switch (productType) {
+            case "digital_option" -> {
+                double cash = request.getCoupon() * 100;
+                price = digitalCall(spot, strike, cash, rate, vol, t);
+                double sqrtT = Math.sqrt(t);
+                double d1 = d1(spot, strike, rate, vol, t);
+                double d2 = d1 - vol * sqrtT;
+                double discountedDensity = cash * Math.exp(-rate * t) * NormalMath.pdf(d2);
+                delta = discountedDensity / (spot * vol * sqrtT);
+                gamma = -discountedDensity * d1 / (spot * spot * vol * vol * t);
+                vega = -discountedDensity * d1 / vol * VOL_POINT;
+            }
+            case "barrier_option" -> {
+                double cash = request.getCoupon() * 100;
+                boolean downAndOut = isDownAndOut(request);
+                price = barrierPayoff(spot, strike, barrier, downAndOut, discreteSteps, cash, rate, vol, t);
+                double h = spot * SPOT_BUMP;
+                double up = barrierPayoff(spot + h, strike, barrier, downAndOut, discreteSteps, cash, rate, vol, t);
+                double down = barrierPayoff(spot - h, strike, barrier, downAndOut, discreteSteps, cash, rate, vol, t);
+                delta = (up - down) / (2 * h);
+                gamma = (up - 2 * price + down) / (h * h);
+                vega = barrierPayoff(spot, strike, barrier, downAndOut, discreteSteps, cash, rate, vol + VOL_POINT, t)
+                    - price;
+            }
+            default -> {
+                price = blackScholesCall(spot, strike, rate, vol, t);
+                double sqrtT = Math.sqrt(t);
+                double d1 = d1(spot, strike, rate, vol, t);
+                delta = NormalMath.cdf(d1);
+                gamma = NormalMath.pdf(d1) / (spot * vol * sqrtT);
+                vega = spot * NormalMath.pdf(d1) * sqrtT * VOL_POINT;
+            }
+        }
+
+        // Theta: value change over one day, same convention as the Monte Carlo model
+        double thetaMaturity = Math.max(t - ONE_DAY, 0);
+        double theta = valueAt(productType, spot, strike, barrier, discreteSteps, request.getCoupon() * 100,
+                               rate, vol, thetaMaturity) - price;
+
+        Map<String, Double> greeks = new HashMap<>();
+        greeks.put("delta", Math.round(delta * 10000.0) / 10000.0);
+        greeks.put("gamma", Math.round(gamma * 10000.0) / 10000.0);
+        greeks.put("vega", Math.round(vega * 10000.0) / 10000.0);
+        greeks.put("theta", Math.round(theta * 10000.0) / 10000.0);
+
+        PricingResult result = new PricingResult(price, greeks, 0.0, 0);
+        result.setPricingModel(getName());
+        return result;
+    }
+
+    /**
+     * Price only, at volatility vol in place of the request's; for solvers that reprice the
+     * same terms many times.
+     */
+    public double value(PricingRequest request, double vol) {
+        Terms terms = new Terms(request);
+        double cash = request.getCoupon() != null ? request.getCoupon() * 100 : 0;
+        return valueAt(terms.productType, request.getSpotPrice(), terms.strike, request.getBarrier(), terms.discreteSteps,
+                       cash, request.getRiskFreeRate(), vol, request.getTimeToMaturity());
+    }
+
+    private double valueAt(String productType, double spot, double strike, Double barrier, int discreteSteps,
+                           double cash, double rate, double vol, double t) {
+        return switch (productType) {
+            case "digital_option" -> digitalCall(spot, strike, cash, rate, vol, t);
+            case "barrier_option" -> barrierPayoff(spot, strike, barrier, barrier != null && barrier <= spot,
+                                                   discreteSteps, cash, rate, vol, t);
+            default -> blackScholesCall(spot, strike, rate, vol, t);
+        };
+    }
+
+    /**
+     * Barrier direction is fixed by the request's spot so that bumped revaluations stay on
+     * the same side of the barrier.
+     */
+    public static boolean isDownAndOut(PricingRequest request) {
+        return request.getBarrier() != null && request.getBarrier() <= request.getSpotPrice();
+    }
+
+    /**
+     * discreteSteps is the number of barrier observations, or 0 for continuous monitoring.
+     */
+    private double barrierPayoff(double spot, double strike, Double barrier, boolean downAndOut, int discreteSteps,
+                                 double cash, double rate, double vol, double t) {
+        if (barrier == null) {
+            return digitalCall(spot, strike, cash, rate, vol, t);
+        }
+        double effectiveBarrier = discreteSteps > 0 && t > 0
+            ? BarrierMonitoring.continuityAdjustedBarrier(barrier, downAndOut, vol, t, discreteSteps)
+            : barrier;
+        return downAndOut
+            ? downAndOutDigitalCall(spot, strike, effectiveBarrier, cash, rate, vol, t)
+            : upAndInDigitalCall(spot, strike, effectiveBarrier, cash, rate, vol, t);
+    }
+
+    public static double d1(double spot, double strike, double rate, double vol, double t) {
+        return (Math.log(spot / strike) + (rate + 0.5 * vol * vol) * t) / (vol * Math.sqrt(t));
+    }
+
+    public static double blackScholesCall(double spot, double strike, double rate, double vol, double t) {
+        if (t <= 0) {
+            return Math.max(spot - strike, 0);
+        }
+        double d1 = d1(spot, strike, rate, vol, t);
+        double d2 = d1 - vol * Math.sqrt(t);
+        return spot * NormalMath.cdf(d1) - strike * Math.exp(-rate * t) * NormalMath.cdf(d2);
+    }
+
+    public static double blackScholesVega(double spot, double strike, double rate, double vol, double t) {
+        return spot * NormalMath.pdf(d1(spot, strike, rate, vol, t)) * Math.sqrt(t);
+    }
+
+    /**
+     * Cash-or-nothing call paying cash when S_T > strike.
+     */
+    public static double digitalCall(double spot, double strike, double cash, double rate, double vol, double t) {
+        if (t <= 0) {
+            return spot > strike ? cash : 0;
+        }
+        double d2 = d1(spot, strike, rate, vol, t) - vol * Math.sqrt(t);
+        return cash * Math.exp(-rate * t) * NormalMath.cdf(d2);
+    }
+
+    /**
+     * Cash-or-nothing call knocked out if the spot ever trades at or below barrier (barrier <= spot).
+     */
+    public static double downAndOutDigitalCall(double spot, double strike, double barrier, double cash,
+                                               double rate, double vol, double t) {
+        if (spot <= barrier) {
+            return 0;
+        }
+        if (t <= 0) {
+            return spot > strike ? cash : 0;
+        }
+        double mu = rate - 0.5 * vol * vol;
+        double s = vol * Math.sqrt(t);
+        double b = Math.log(barrier / spot);
+        double k = Math.max(Math.log(strike / spot), b);
+        double reflection = Math.exp(2 * mu * b / (vol * vol));
+        double probability = NormalMath.cdf((mu * t - k) / s) - reflection * NormalMath.cdf((2 * b - k + mu * t) / s);
+        return cash * Math.exp(-rate * t) * Math.max(probability, 0);
+    }
+
+    /**
+     * Cash-or-nothing call that only pays if the spot touches barrier (barrier > spot) before expiry.
+     */
+    public static double upAndInDigitalCall(double spot, double strike, double barrier, double cash,
+                                            double rate, double vol, double t) {
+        if (t <= 0) {
+            return 0;
+        }
+        double mu = rate - 0.5 * vol * vol;
+        double s = vol * Math.sqrt(t);
+        double b = Math.log(barrier / spot);
+        double k = Math.log(strike / spot);
+        if (k >= b) {
+            return cash * Math.exp(-rate * t) * NormalMath.cdf((mu * t - k) / s);
+        }
+        double reflection = Math.exp(2 * mu * b / (vol * vol));
+        double probability = NormalMath.cdf((mu * t - b) / s)
+            + reflection * (NormalMath.cdf((-b - mu * t) / s) - NormalMath.cdf((k - 2 * b - mu * t) / s));
+        return cash * Math.exp(-rate * t) * probability;
+    }
+
+    /**
+     * Payoff terms as priced: a barrier observed at maturity only pays when S_T is above both
+     * strike and barrier, so it is a digital struck at the higher of the two.
+     */
+    static final class Terms {
+        final String productType;
+        final double strike;
+        final int discreteSteps;
+
+        Terms(PricingRequest request) {
+            String type = request.getProductType().toLowerCase();
+            double effectiveStrike = request.getStrike();
+            Double barrier = request.getBarrier();
+            if (type.equals("barrier_option") && (barrier == null || BarrierMonitoring.isTerminal(request))) {
+                type = "digital_option";
+                if (barrier != null) {
+                    effectiveStrike = Math.max(effectiveStrike, barrier);
+                }
+            }
+            productType = type;
+            strike = effectiveStrike;
+            discreteSteps = type.equals("barrier_option") && !BarrierMonitoring.isContinuous(request)
+                ? BarrierMonitoring.steps(request) : 0;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.quantcrux.pricing;
+
+import com.quantcrux.dto.PricingRequest;
+
+/**
+ * Barrier monitoring schedule of a pricing request.
+ *
+ * The barrier is observed at the request's monitoringFrequency ("daily", "weekly",
+ * "monthly" or "terminal"). With bridgeCorrection the probability of crossing between two
+ * observations is added back, which turns a discrete schedule into continuous monitoring.
+ */
+public final class BarrierMonitoring {
+
+    public static final String DAILY = "daily";
+    public static final String WEEKLY = "weekly";
+    public static final String MONTHLY = "monthly";
+    public static final String TERMINAL = "terminal";
+
+    // Broadie-Glasserman-Kou shift, zeta(1/2) / sqrt(2 pi)
+    private static final double BGK_BETA = 0.5825971579390106;
+
+    private BarrierMonitoring() {}
+
+    public static boolean isTerminal(PricingRequest request) {
+        return TERMINAL.equalsIgnoreCase(request.getMonitoringFrequency());
+    }
+
+    /**
+     * True when the request prices a continuously monitored barrier.
+     */
+    public static boolean isContinuous(PricingRequest request) {
+        return !isTerminal(request) && !Boolean.FALSE.equals(request.getBridgeCorrection());
+    }
+
+    public static int observationsPerYear(PricingRequest request) {
+        String frequency = request.getMonitoringFrequency();
+        if (frequency == null) {
+            return 252;
+        }
+        return switch (frequency.toLowerCase()) {
+            case WEEKLY -> 52;
+            case MONTHLY -> 12;
+            case TERMINAL -> 0;
+            case DAILY -> 252;
+            default -> throw new IllegalArgumentException("Unknown monitoring frequency: " + frequency);
+        };
+    }
+
+    /**
+     * Number of time steps between today and maturity, at least one.
+     */
+    public static int steps(PricingRequest request) {
+        int perYear = observationsPerYear(request);
+        if (perYear == 0) {
+            return 1;
+        }
+        return Math.max(1, (int) Math.round(request.getTimeToMaturity() * perYear));
+    }
+
+    /**
+     * Continuous barrier equivalent to the discrete schedule (Broadie-Glasserman-Kou): moved
+     * away from spot by exp(0.5826 sigma sqrt(dt)).
+     */
+    public static double continuityAdjustedBarrier(double barrier, boolean downBarrier, double volatility,
+                                                   double timeToMaturity, int steps) {
+        double shift = BGK_BETA * volatility * Math.sqrt(timeToMaturity / steps);
+        return downBarrier ? barrier * Math.exp(-shift) : barrier * Math.exp(shift);
+    }
+}
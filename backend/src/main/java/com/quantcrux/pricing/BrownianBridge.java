@@ -0,0 +1,89 @@
+package com.quantcrux.pricing;
+
+/**
+ * Brownian-bridge construction over equally spaced steps. The first input normal fixes the
+ * terminal value, the next ones successive midpoints, so the leading (best distributed)
+ * quasi-random dimensions drive the largest-scale path features.
+ */
+public final class BrownianBridge {
+
+    private final int steps;
+    private final int[] bridgeIndex;
+    private final int[] leftIndex;
+    private final int[] rightIndex;
+    private final double[] leftWeight;
+    private final double[] rightWeight;
+    private final double[] stdDev;
+
+    public BrownianBridge(int steps) {
+        if (steps < 1) {
+            throw new IllegalArgumentException("Brownian bridge needs at least one step");
+        }
+        this.steps = steps;
+        bridgeIndex = new int[steps];
+        leftIndex = new int[steps];
+        rightIndex = new int[steps];
+        leftWeight = new double[steps];
+        rightWeight = new double[steps];
+        stdDev = new double[steps];
+
+        // Times are 1..steps; the transform output is scale free
+        int[] map = new int[steps];
+        map[steps - 1] = 1;
+        bridgeIndex[0] = steps - 1;
+        stdDev[0] = Math.sqrt(steps);
+
+        int j = 0;
+        for (int i = 1; i < steps; i++) {
+            while (map[j] != 0) {
+                j++;
+            }
+            int k = j;
+            while (map[k] == 0) {
+                k++;
+            }
+            int l = j + ((k - 1 - j) >> 1);
+            map[l] = i;
+            bridgeIndex[i] = l;
+            leftIndex[i] = j;
+            rightIndex[i] = k;
+
+            double tLeft = j; // time of point j - 1, zero when j == 0
+            double tMid = l + 1;
+            double tRight = k + 1;
+            leftWeight[i] = (tRight - tMid) / (tRight - tLeft);
+            rightWeight[i] = (tMid - tLeft) / (tRight - tLeft);
+            stdDev[i] = Math.sqrt((tMid - tLeft) * (tRight - tMid) / (tRight - tLeft));
+
+            j = k + 1;
+            if (j >= steps) {
+                j = 0;
+            }
+        }
+    }
+
+    public int getSteps() {
+        return steps;
+    }
+
+    /**
+     * Turn steps independent standard normals into the standardised increments of one
+     * Brownian path (each increment divided by the square root of the step length).
+     */
+    public void transform(double[] normals, int normalsOffset, double[] increments, int incrementsOffset) {
+        increments[incrementsOffset + steps - 1] = stdDev[0] * normals[normalsOffset];
+        for (int i = 1; i < steps; i++) {
+            int j = leftIndex[i];
+            int k = rightIndex[i];
+            int l = bridgeIndex[i];
+            double value = rightWeight[i] * increments[incrementsOffset + k] + stdDev[i] * normals[normalsOffset + i];
+            if (j != 0) {
+                value += leftWeight[i] * increments[incrementsOffset + j - 1];
+            }
+            increments[incrementsOffset + l] = value;
+        }
+        for (int i = steps - 1; i > 0; i--) {
+            increments[incrementsOffset + i] -= increments[incrementsOffset + i - 1];
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.quantcrux.pricing;
+
+/**
+ * Lower-triangular Cholesky factor L of a correlation matrix (C = L L^T), stored packed by
+ * rows. Applied to blocks of shocks held asset-major (one array per asset, indexed by path),
+ * so the inner loops run over contiguous paths.
+ */
+public final class CholeskyFactor {
+
+    private static final double SYMMETRY_TOLERANCE = 1e-10;
+
+    private final int size;
+    private final double[] lower;
+
+    private CholeskyFactor(int size, double[] lower) {
+        this.size = size;
+        this.lower = lower;
+    }
+
+    /**
+     * Factor a correlation matrix: symmetric, unit diagonal, entries in [-1, 1] and positive
+     * definite.
+     */
+    public static CholeskyFactor of(double[][] correlation) {
+        int n = correlation.length;
+        for (int i = 0; i < n; i++) {
+            if (correlation[i].length != n) {
+                throw new IllegalArgumentException("Correlation matrix must be square");
+            }
+            if (Math.abs(correlation[i][i] - 1) > SYMMETRY_TOLERANCE) {
+                throw new IllegalArgumentException("Correlation matrix must have a unit diagonal");
+            }
+            for (int j = 0; j < i; j++) {
+                double rho = correlation[i][j];
+                if (Math.abs(rho - correlation[j][i]) > SYMMETRY_TOLERANCE) {
+                    throw new IllegalArgumentException("Correlation matrix must be symmetric");
+                }
+                if (!(Math.abs(rho) <= 1)) {
+                    throw new IllegalArgumentException("Correlations must lie in [-1, 1]");
+                }
+            }
+        }
+
+        double[] lower = new double[n * (n + 1) / 2];
+        for (int i = 0; i < n; i++) {
+            int rowI = i * (i + 1) / 2;
+            for (int j = 0; j <= i; j++) {
+                int rowJ = j * (j + 1) / 2;
+                double sum = correlation[i][j];
+                for (int k = 0; k < j; k++) {
+                    sum -= lower[rowI + k] * lower[rowJ + k];
+                }
+                if (i == j) {
+                    if (sum <= 0) {
+                        throw new IllegalArgumentException("Correlation matrix is not positive definite");
+                    }
+                    lower[rowI + i] = Math.sqrt(sum);
+                } else {
+                    lower[rowI + j] = sum / lower[rowJ + j];
+                }
+            }
+        }
+        return new CholeskyFactor(n, lower);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public double get(int i, int j) {
+        return j <= i ? lower[i * (i + 1) / 2 + j] : 0;
+    }
+
+    /**
+     * correlated[i][p] = sum_j L[i][j] independent[j][p] for the first paths paths.
+     */
+    public void correlate(double[][] independent, double[][] correlated, int paths) {
+        for (int i = 0; i < size; i++) {
+            int row = i * (i + 1) / 2;
+            double[] out = correlated[i];
+            double diagonal = lower[row + i];
+            double[] own = independent[i];
+            for (int p = 0; p < paths; p++) {
+                out[p] = diagonal * own[p];
+            }
+            for (int j = 0; j < i; j++) {
+                double weight = lower[row + j];
+                if (weight == 0) {
+                    continue;
+                }
+                double[] in = independent[j];
+                for (int p = 0; p < paths; p++) {
+                    out[p] += weight * in[p];
+                }
+            }
+        }
+    }
+
+    /**
+     * Solve L^T solution = rhs for the first paths paths, in place over rhs. For rhs = z this
+     * gives C^-1 L z, the likelihood-ratio score direction of the correlated shocks.
+     */
+    public void solveTranspose(double[][] rhs, int paths) {
+        for (int i = size - 1; i >= 0; i--) {
+            double[] out = rhs[i];
+            for (int k = i + 1; k < size; k++) {
+                double weight = lower[k * (k + 1) / 2 + i];
+                if (weight == 0) {
+                    continue;
+                }
+                double[] solved = rhs[k];
+                for (int p = 0; p < paths; p++) {
+                    out[p] -= weight * solved[p];
+                }
+            }
+            double inverseDiagonal = 1 / lower[i * (i + 1) / 2 + i];
+            for (int p = 0; p < paths; p++) {
+                out[p] *= inverseDiagonal;
+            }
+        }
+    }
+}
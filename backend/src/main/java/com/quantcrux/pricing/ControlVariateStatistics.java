@@ -0,0 +1,72 @@
+package com.quantcrux.pricing;
+
+/**
+ * Streaming means, variances and covariance of an estimator sample y and a control x,
+ * merged across chunks like {@link PathStatistics}.
+ */
+public final class ControlVariateStatistics implements MonteCarloEngine.Accumulator<ControlVariateStatistics> {
+
+    private long count;
+    private double meanY;
+    private double meanX;
+    private double m2Y;
+    private double m2X;
+    private double cXY;
+
+    public void add(double y, double x) {
+        count++;
+        double dx = x - meanX;
+        double dy = y - meanY;
+        meanX += dx / count;
+        meanY += dy / count;
+        m2X += dx * (x - meanX);
+        m2Y += dy * (y - meanY);
+        cXY += dx * (y - meanY);
+    }
+
+    @Override
+    public void merge(ControlVariateStatistics other) {
+        if (other.count == 0) {
+            return;
+        }
+        if (count == 0) {
+            count = other.count;
+            meanY = other.meanY;
+            meanX = other.meanX;
+            m2Y = other.m2Y;
+            m2X = other.m2X;
+            cXY = other.cXY;
+            return;
+        }
+        long total = count + other.count;
+        double dx = other.meanX - meanX;
+        double dy = other.meanY - meanY;
+        double weight = (double) count * other.count / total;
+        meanX += dx * other.count / total;
+        meanY += dy * other.count / total;
+        m2X += other.m2X + dx * dx * weight;
+        m2Y += other.m2Y + dy * dy * weight;
+        cXY += other.cXY + dx * dy * weight;
+        count = total;
+    }
+
+    public long getCount() { return count; }
+
+    public double getMeanY() { return meanY; }
+
+    public double getMeanX() { return meanX; }
+
+    public double getVarianceY() { return count > 0 ? m2Y / count : 0; }
+
+    public double getVarianceX() { return count > 0 ? m2X / count : 0; }
+
+    public double getCovariance() { return count > 0 ? cXY / count : 0; }
+
+    /**
+     * Regression coefficient minimising the variance of y - beta * (x - E[x]).
+     */
+    public double getOptimalBeta() {
+        double varianceX = getVarianceX();
+        return varianceX > 0 ? getCovariance() / varianceX : 0;
+    }
+}
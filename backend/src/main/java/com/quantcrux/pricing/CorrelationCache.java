@@ -0,0 +1,69 @@
+package com.quantcrux.pricing;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cholesky factors by correlation matrix, so a matrix shared by many requests is factored
+ * once. Least recently used factors are dropped beyond MAX_ENTRIES.
+ */
+@Component
+public class CorrelationCache {
+
+    private static final int MAX_ENTRIES = 256;
+
+    private final LinkedHashMap<Key, CholeskyFactor> factors = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, CholeskyFactor> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    public CholeskyFactor factor(double[][] correlation) {
+        Key key = new Key(correlation);
+        synchronized (factors) {
+            CholeskyFactor factor = factors.get(key);
+            if (factor != null) {
+                return factor;
+            }
+        }
+        // Factor outside the lock; a concurrent miss on the same matrix just factors twice
+        CholeskyFactor factor = CholeskyFactor.of(correlation);
+        synchronized (factors) {
+            factors.put(key, factor);
+        }
+        return factor;
+    }
+
+    public int size() {
+        synchronized (factors) {
+            return factors.size();
+        }
+    }
+
+    private static final class Key {
+        final double[][] matrix;
+        final int hash;
+
+        Key(double[][] matrix) {
+            this.matrix = new double[matrix.length][];
+            for (int i = 0; i < matrix.length; i++) {
+                this.matrix[i] = matrix[i].clone();
+            }
+            this.hash = Arrays.deepHashCode(this.matrix);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Key key && hash == key.hash && Arrays.deepEquals(matrix, key.matrix);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.quantcrux.pricing;
+
+import java.util.Arrays;
+
+/**
+ * Natural cubic spline through (x, y) knots with the polynomial coefficients of every
+ * interval computed up front, so evaluation is a binary search and a Horner step. Values
+ * outside the knot range are held flat at the end knots.
+ */
+public final class CubicSpline {
+
+    private final double[] x;
+    private final double[] a;
+    private final double[] b;
+    private final double[] c;
+    private final double[] d;
+
+    public CubicSpline(double[] x, double[] y) {
+        int n = x.length;
+        if (n == 0 || y.length != n) {
+            throw new IllegalArgumentException("Spline needs matching, non-empty knot arrays");
+        }
+        for (int i = 1; i < n; i++) {
+            if (!(x[i] > x[i - 1])) {
+                throw new IllegalArgumentException("Spline knots must be strictly increasing");
+            }
+        }
+        this.x = x.clone();
+        a = y.clone();
+        b = new double[n];
+        c = new double[n];
+        d = new double[n];
+        if (n < 3) {
+            if (n == 2) {
+                b[0] = (y[1] - y[0]) / (x[1] - x[0]);
+            }
+            return;
+        }
+
+        // Second derivatives from the tridiagonal system, natural end conditions
+        double[] h = new double[n - 1];
+        for (int i = 0; i < n - 1; i++) {
+            h[i] = x[i + 1] - x[i];
+        }
+        double[] m = new double[n];
+        double[] diagonal = new double[n];
+        double[] rhs = new double[n];
+        for (int i = 1; i < n - 1; i++) {
+            diagonal[i] = 2 * (h[i - 1] + h[i]);
+            rhs[i] = 6 * ((y[i + 1] - y[i]) / h[i] - (y[i] - y[i - 1]) / h[i - 1]);
+        }
+        for (int i = 2; i < n - 1; i++) {
+            double factor = h[i - 1] / diagonal[i - 1];
+            diagonal[i] -= factor * h[i - 1];
+            rhs[i] -= factor * rhs[i - 1];
+        }
+        for (int i = n - 2; i >= 1; i--) {
+            m[i] = (rhs[i] - h[i] * m[i + 1]) / diagonal[i];
+        }
+
+        for (int i = 0; i < n - 1; i++) {
+            b[i] = (y[i + 1] - y[i]) / h[i] - h[i] * (2 * m[i] + m[i + 1]) / 6;
+            c[i] = m[i] / 2;
+            d[i] = (m[i + 1] - m[i]) / (6 * h[i]);
+        }
+    }
+
+    public double value(double at) {
+        int n = x.length;
+        if (at <= x[0]) {
+            return a[0];
+        }
+        if (at >= x[n - 1]) {
+            return a[n - 1];
+        }
+        int i = Arrays.binarySearch(x, at);
+        if (i < 0) {
+            i = -i - 2;
+        }
+        double dx = at - x[i];
+        return a[i] + dx * (b[i] + dx * (c[i] + dx * d[i]));
+    }
+}
@@ -0,0 +1,57 @@
+package com.quantcrux.pricing;
+
+/**
+ * Continuously compounded zero curve of one currency. Zero rates are interpolated with a
+ * cubic spline in tenor and held flat outside the quoted tenors. Instances are immutable
+ * and safe to share between threads.
+ */
+public final class DiscountCurve {
+
+    private final String currency;
+    private final double[] tenors;
+    private final double[] zeroRates;
+    private final CubicSpline spline;
+
+    public DiscountCurve(String currency, double[] tenors, double[] zeroRates) {
+        for (double tenor : tenors) {
+            if (!(tenor > 0)) {
+                throw new IllegalArgumentException("Tenors must be positive");
+            }
+        }
+        this.currency = currency;
+        this.tenors = tenors.clone();
+        this.zeroRates = zeroRates.clone();
+        this.spline = new CubicSpline(tenors, zeroRates);
+    }
+
+    public static DiscountCurve flat(String currency, double rate) {
+        return new DiscountCurve(currency, new double[] {1.0}, new double[] {rate});
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public double zeroRate(double timeToMaturity) {
+        return spline.value(timeToMaturity);
+    }
+
+    public double discountFactor(double timeToMaturity) {
+        return Math.exp(-zeroRate(timeToMaturity) * timeToMaturity);
+    }
+
+    /**
+     * Continuously compounded forward rate between two times, start before end.
+     */
+    public double forwardRate(double start, double end) {
+        return (zeroRate(end) * end - zeroRate(start) * start) / (end - start);
+    }
+
+    public double[] getTenors() {
+        return tenors.clone();
+    }
+
+    public double[] getZeroRates() {
+        return zeroRates.clone();
+    }
+}
@@ -0,0 +1,40 @@
+package com.quantcrux.pricing;
+
+/**
+ * Accumulates the base payoff together with the sensitivity estimators evaluated on the
+ * same shocks (common random numbers), so price and Greeks come out of one simulation.
+ */
+public final class GreeksAccumulator implements MonteCarloEngine.Accumulator<GreeksAccumulator> {
+
+    /** Undiscounted payoff at the base spot, one entry per path. */
+    public final PathStatistics payoff = new PathStatistics();
+    /**
+     * Price estimator samples (antithetic pair averages when enabled) against the
+     * vanilla-call control variate.
+     */
+    public final ControlVariateStatistics samples = new ControlVariateStatistics();
+    /** Undiscounted payoff with spot bumped up. */
+    public final PathStatistics payoffUp = new PathStatistics();
+    /** Undiscounted payoff with spot bumped down. */
+    public final PathStatistics payoffDown = new PathStatistics();
+    /** Undiscounted payoff one day closer to maturity. */
+    public final PathStatistics payoffTheta = new PathStatistics();
+    /** Undiscounted pathwise or likelihood-ratio delta estimator. */
+    public final PathStatistics delta = new PathStatistics();
+    /** Undiscounted likelihood-ratio gamma estimator (discontinuous payoffs only). */
+    public final PathStatistics gamma = new PathStatistics();
+    /** Undiscounted pathwise or likelihood-ratio vega estimator. */
+    public final PathStatistics vega = new PathStatistics();
+
+    @Override
+    public void merge(GreeksAccumulator other) {
+        payoff.merge(other.payoff);
+        samples.merge(other.samples);
+        payoffUp.merge(other.payoffUp);
+        payoffDown.merge(other.payoffDown);
+        payoffTheta.merge(other.payoffTheta);
+        delta.merge(other.delta);
+        gamma.merge(other.gamma);
+        vega.merge(other.vega);
+    }
+}
@@ -0,0 +1,267 @@
+package com.quantcrux.pricing;
+
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Root finder for the volatility at which a pricing function matches a quoted price.
+ *
+ * The root is first bracketed on [MIN_VOLATILITY, MAX_VOLATILITY]; when the price is not
+ * monotone in volatility (digitals, barriers) and the ends do not straddle the quote, a
+ * log-spaced scan picks the lowest bracketing interval. A quote close to the price's
+ * maximum (or minimum) can have both roots between two scan points; the scan point nearest
+ * the quote is then refined by a golden-section search for the extremum, which brackets a
+ * root as soon as it crosses the quote. With an analytic vega the root is
+ * then polished by Newton steps that fall back to bisection whenever a step leaves the
+ * bracket; without one, Brent's method is used.
+ */
+public final class ImpliedVolatilitySolver {
+
+    public static final double MIN_VOLATILITY = 1e-4;
+    public static final double MAX_VOLATILITY = 5.0;
+
+    private static final double VOLATILITY_TOLERANCE = 1e-10;
+    private static final double PRICE_TOLERANCE = 1e-10;
+    private static final int MAX_ITERATIONS = 100;
+    private static final int SCAN_POINTS = 64;
+    private static final double GOLDEN_RATIO = (Math.sqrt(5) - 1) / 2;
+
+    private ImpliedVolatilitySolver() {}
+
+    /**
+     * Volatility at which price matches target. vega may be null; guess seeds Newton.
+     */
+    public static Solution solve(DoubleUnaryOperator price, DoubleUnaryOperator vega, double target, double guess) {
+        double tolerance = PRICE_TOLERANCE * Math.max(1, Math.abs(target));
+        double lo = MIN_VOLATILITY;
+        double hi = MAX_VOLATILITY;
+        double fLo = price.applyAsDouble(lo) - target;
+        double fHi = price.applyAsDouble(hi) - target;
+        int evaluations = 2;
+
+        if (!Double.isFinite(fLo) || !Double.isFinite(fHi) || Math.signum(fLo) == Math.signum(fHi) && fLo != 0) {
+            // Walk up a log-spaced grid to the first sign change, stepping over volatilities
+            // where a closed form under- or overflows
+            double ratio = Math.pow(MAX_VOLATILITY / MIN_VOLATILITY, 1.0 / SCAN_POINTS);
+            double previous = Double.NaN;
+            double fPrevious = Double.NaN;
+            boolean bracketed = false;
+            int nearest = -1;
+            double fNearest = Double.NaN;
+            for (int i = 0; i <= SCAN_POINTS && !bracketed; i++) {
+                double next = i == 0 ? MIN_VOLATILITY : i == SCAN_POINTS ? MAX_VOLATILITY : MIN_VOLATILITY * Math.pow(ratio, i);
+                double fNext = i == 0 ? fLo : i == SCAN_POINTS ? fHi : price.applyAsDouble(next) - target;
+                if (i > 0 && i < SCAN_POINTS) {
+                    evaluations++;
+                }
+                if (!Double.isFinite(fNext)) {
+                    continue;
+                }
+                if (nearest < 0 || Math.abs(fNext) < Math.abs(fNearest)) {
+                    nearest = i;
+                    fNearest = fNext;
+                }
+                if (Double.isFinite(fPrevious) && (Math.signum(fNext) != Math.signum(fPrevious) || fNext == 0)) {
+                    lo = previous;
+                    fLo = fPrevious;
+                    hi = next;
+                    fHi = fNext;
+                    bracketed = true;
+                }
+                previous = next;
+                fPrevious = fNext;
+            }
+            if (!bracketed) {
+                if (nearest < 0) {
+                    throw new IllegalArgumentException("No volatility between " + MIN_VOLATILITY + " and "
+                                                       + MAX_VOLATILITY + " reproduces price " + target);
+                }
+                // Every scan point is on one side of the quote: look for the extremum of the
+                // price between the neighbours of the nearest point, on the log scale of the scan
+                double xNearest = MIN_VOLATILITY * Math.pow(ratio, nearest);
+                double sign = Math.signum(fNearest);
+                double a = Math.log(MIN_VOLATILITY) + Math.max(nearest - 1, 0) * Math.log(ratio);
+                double b = Math.log(MIN_VOLATILITY) + Math.min(nearest + 1, SCAN_POINTS) * Math.log(ratio);
+                double x1 = b - GOLDEN_RATIO * (b - a);
+                double x2 = a + GOLDEN_RATIO * (b - a);
+                double f1 = price.applyAsDouble(Math.exp(x1)) - target;
+                double f2 = price.applyAsDouble(Math.exp(x2)) - target;
+                evaluations += 2;
+                double crossing = Double.NaN;
+                double fCrossing = Double.NaN;
+                for (int i = 0; i < MAX_ITERATIONS && b - a > VOLATILITY_TOLERANCE; i++) {
+                    if (Double.isFinite(f1) && Math.signum(f1) != sign) {
+                        crossing = x1;
+                        fCrossing = f1;
+                        break;
+                    }
+                    if (Double.isFinite(f2) && Math.signum(f2) != sign) {
+                        crossing = x2;
+                        fCrossing = f2;
+                        break;
+                    }
+                    // Keep the side nearer the quote, i.e. the smaller sign * f
+                    if (!(sign * f2 < sign * f1)) {
+                        b = x2;
+                        x2 = x1;
+                        f2 = f1;
+                        x1 = b - GOLDEN_RATIO * (b - a);
+                        f1 = price.applyAsDouble(Math.exp(x1)) - target;
+                    } else {
+                        a = x1;
+                        x1 = x2;
+                        f1 = f2;
+                        x2 = a + GOLDEN_RATIO * (b - a);
+                        f2 = price.applyAsDouble(Math.exp(x2)) - target;
+                    }
+                    evaluations++;
+                }
+                if (Double.isNaN(crossing)) {
+                    double best = Math.abs(f1) <= Math.abs(f2) ? x1 : x2;
+                    if (Math.min(Math.abs(f1), Math.abs(f2)) <= tolerance) {
+                        return new Solution(Math.exp(best), evaluations, "golden_section");
+                    }
+                    throw new IllegalArgumentException("No volatility between " + MIN_VOLATILITY + " and "
+                                                       + MAX_VOLATILITY + " reproduces price " + target);
+                }
+                double xCrossing = Math.exp(crossing);
+                if (xCrossing < xNearest) {
+                    lo = xCrossing;
+                    fLo = fCrossing;
+                    hi = xNearest;
+                    fHi = fNearest;
+                } else {
+                    lo = xNearest;
+                    fLo = fNearest;
+                    hi = xCrossing;
+                    fHi = fCrossing;
+                }
+            }
+        }
+        if (Math.abs(fLo) <= tolerance) {
+            return new Solution(lo, evaluations, "bracket");
+        }
+        if (Math.abs(fHi) <= tolerance) {
+            return new Solution(hi, evaluations, "bracket");
+        }
+
+        return vega != null
+            ? newton(price, vega, target, guess, lo, fLo, hi, tolerance, evaluations)
+            : brent(price, target, lo, fLo, hi, fHi, tolerance, evaluations);
+    }
+
+    private static Solution newton(DoubleUnaryOperator price, DoubleUnaryOperator vega, double target, double guess,
+                                   double lo, double fLo, double hi, double tolerance, int evaluations) {
+        double x = guess > lo && guess < hi ? guess : 0.5 * (lo + hi);
+        for (int i = 0; i < MAX_ITERATIONS; i++) {
+            double f = price.applyAsDouble(x) - target;
+            evaluations++;
+            if (Math.abs(f) <= tolerance) {
+                return new Solution(x, evaluations, "newton");
+            }
+            // Keep the root between lo and hi
+            if (Math.signum(f) == Math.signum(fLo)) {
+                lo = x;
+                fLo = f;
+            } else {
+                hi = x;
+            }
+            if (hi - lo <= VOLATILITY_TOLERANCE) {
+                return new Solution(0.5 * (lo + hi), evaluations, "newton");
+            }
+            double slope = vega.applyAsDouble(x);
+            double next = slope != 0 ? x - f / slope : Double.NaN;
+            x = next > lo && next < hi ? next : 0.5 * (lo + hi);
+        }
+        throw new IllegalArgumentException("Implied volatility did not converge for price " + target);
+    }
+
+    /**
+     * Brent-Dekker: inverse quadratic interpolation and secant steps, with bisection whenever
+     * they would not shrink the bracket fast enough.
+     */
+    private static Solution brent(DoubleUnaryOperator price, double target, double a, double fa, double b, double fb,
+                                  double tolerance, int evaluations) {
+        double c = a;
+        double fc = fa;
+        double d = b - a;
+        double e = d;
+        for (int i = 0; i < MAX_ITERATIONS; i++) {
+            if (Math.signum(fb) == Math.signum(fc)) {
+                c = a;
+                fc = fa;
+                d = b - a;
+                e = d;
+            }
+            if (Math.abs(fc) < Math.abs(fb)) {
+                a = b;
+                b = c;
+                c = a;
+                fa = fb;
+                fb = fc;
+                fc = fa;
+            }
+            double step = 0.5 * VOLATILITY_TOLERANCE;
+            double middle = 0.5 * (c - b);
+            if (Math.abs(middle) <= step || Math.abs(fb) <= tolerance) {
+                return new Solution(b, evaluations, "brent");
+            }
+            if (Math.abs(e) >= step && Math.abs(fa) > Math.abs(fb)) {
+                double s = fb / fa;
+                double p;
+                double q;
+                if (a == c) {
+                    p = 2 * middle * s;
+                    q = 1 - s;
+                } else {
+                    double r = fb / fc;
+                    q = fa / fc;
+                    p = s * (2 * middle * q * (q - r) - (b - a) * (r - 1));
+                    q = (q - 1) * (r - 1) * (s - 1);
+                }
+                if (p > 0) {
+                    q = -q;
+                } else {
+                    p = -p;
+                }
+                if (2 * p < Math.min(3 * middle * q - Math.abs(step * q), Math.abs(e * q))) {
+                    e = d;
+                    d = p / q;
+                } else {
+                    d = middle;
+                    e = d;
+                }
+            } else {
+                d = middle;
+                e = d;
+            }
+            a = b;
+            fa = fb;
+            b += Math.abs(d) > step ? d : Math.copySign(step, middle);
+            fb = price.applyAsDouble(b) - target;
+            evaluations++;
+        }
+        throw new IllegalArgumentException("Implied volatility did not converge for price " + target);
+    }
+
+    /**
+     * A solved volatility, the number of price evaluations it took and the method that
+     * finished it.
+     */
+    public static final class Solution {
+        private final double volatility;
+        private final int evaluations;
+        private final String method;
+
+        Solution(double volatility, int evaluations, String method) {
+            this.volatility = volatility;
+            this.evaluations = evaluations;
+            this.method = method;
+        }
+
+        public double getVolatility() { return volatility; }
+
+        public int getEvaluations() { return evaluations; }
+
+        public String getMethod() { return method; }
+    }
+}
@@ -0,0 +1,102 @@
+package com.quantcrux.pricing;
+
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Current volatility surfaces (by underlying) and discount curves (by currency).
+ *
+ * Readers take the current immutable snapshot without locking; updates build a new
+ * snapshot and swap it in, so a pricing run never sees a half-applied update.
+ */
+@Component
+public class MarketEnvironment {
+
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(new Snapshot(Map.of(), Map.of()));
+
+    public VolSurface getVolSurface(String underlying) {
+        return lookup(snapshot.get().surfaces, underlying);
+    }
+
+    public DiscountCurve getDiscountCurve(String currency) {
+        return lookup(snapshot.get().curves, currency);
+    }
+
+    public Map<String, VolSurface> getVolSurfaces() {
+        return snapshot.get().surfaces;
+    }
+
+    public Map<String, DiscountCurve> getDiscountCurves() {
+        return snapshot.get().curves;
+    }
+
+    public void putVolSurface(VolSurface surface) {
+        snapshot.updateAndGet(current -> {
+            Map<String, VolSurface> surfaces = new HashMap<>(current.surfaces);
+            surfaces.put(surface.getUnderlying().toUpperCase(), surface);
+            return new Snapshot(surfaces, current.curves);
+        });
+    }
+
+    public void putDiscountCurve(DiscountCurve curve) {
+        snapshot.updateAndGet(current -> {
+            Map<String, DiscountCurve> curves = new HashMap<>(current.curves);
+            curves.put(curve.getCurrency().toUpperCase(), curve);
+            return new Snapshot(current.surfaces, curves);
+        });
+    }
+
+    /**
+     * Replace every surface and curve in one step, except that the current surface of each
+     * key in keptUnderlyings and the current curve of each key in keptCurrencies survive.
+     * The merge runs inside the swap, so a put that lands while the defaults are being built
+     * makes the swap retry against it rather than being overwritten.
+     */
+    public void replaceAll(Map<String, VolSurface> surfaces, Map<String, DiscountCurve> curves,
+                           Set<String> keptUnderlyings, Set<String> keptCurrencies) {
+        Map<String, VolSurface> surfacesByKey = new HashMap<>();
+        surfaces.values().forEach(surface -> surfacesByKey.put(surface.getUnderlying().toUpperCase(), surface));
+        Map<String, DiscountCurve> curvesByKey = new HashMap<>();
+        curves.values().forEach(curve -> curvesByKey.put(curve.getCurrency().toUpperCase(), curve));
+        snapshot.updateAndGet(current -> {
+            Map<String, VolSurface> mergedSurfaces = new HashMap<>(surfacesByKey);
+            for (String underlying : keptUnderlyings) {
+                VolSurface kept = current.surfaces.get(underlying);
+                if (kept != null) {
+                    mergedSurfaces.put(underlying, kept);
+                }
+            }
+            Map<String, DiscountCurve> mergedCurves = new HashMap<>(curvesByKey);
+            for (String currency : keptCurrencies) {
+                DiscountCurve kept = current.curves.get(currency);
+                if (kept != null) {
+                    mergedCurves.put(currency, kept);
+                }
+            }
+            return new Snapshot(mergedSurfaces, mergedCurves);
+        });
+    }
+
+    // Keys are stored upper case; try the key as given first to avoid the copy
+    private static <T> T lookup(Map<String, T> values, String key) {
+        if (key == null) {
+            return null;
+        }
+        T value = values.get(key);
+        return value != null ? value : values.get(key.toUpperCase());
+    }
+
+    private static final class Snapshot {
+        final Map<String, VolSurface> surfaces;
+        final Map<String, DiscountCurve> curves;
+
+        Snapshot(Map<String, VolSurface> surfaces, Map<String, DiscountCurve> curves) {
+            this.surfaces = Map.copyOf(surfaces);
+            this.curves = Map.copyOf(curves);
+        }
+    }
+}
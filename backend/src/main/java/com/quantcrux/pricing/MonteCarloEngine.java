@@ -0,0 +1,163 @@
+package com.quantcrux.pricing;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * Parallel Monte Carlo driver.
+ *
+ * Paths are cut into fixed-size chunks. Every chunk gets its own SplittableRandom stream,
+ * split off a root generator in chunk order, and its own accumulator. Chunks are then
+ * merged in chunk order, so a given seed produces bit-identical results whatever the
+ * parallelism of the pool.
+ *
+ * A run can also be done in slices: a slice starting at chunk firstChunk draws the same
+ * streams and folds into the same accumulator as those chunks of a one-shot run, so the
+ * sliced result is identical to simulating all paths at once.
+ */
+@Component
+public class MonteCarloEngine {
+
+    public static final int CHUNK_SIZE = 4096;
+
+    private final ForkJoinPool pool;
+
+    public MonteCarloEngine(@Value("${pricing.monte-carlo.parallelism:0}") int parallelism) {
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.pool = new ForkJoinPool(threads);
+    }
+
+    /**
+     * Simulate numPaths paths and return the merged accumulator.
+     */
+    public <A extends Accumulator<A>> A run(int numPaths, long seed, Supplier<A> accumulatorFactory,
+                                            ChunkTask<A> task) {
+        return run(numPaths, seed, 0, null, null, accumulatorFactory, task);
+    }
+
+    /**
+     * Simulate numPaths paths as chunks firstChunk onwards of the run with the given seed and
+     * merge them into target in chunk order; with a null target the merged accumulator is
+     * returned. Chunks not yet started are skipped once cancelled returns true, and the run
+     * then throws CancellationException.
+     */
+    public <A extends Accumulator<A>> A run(int numPaths, long seed, int firstChunk, A target,
+                                            BooleanSupplier cancelled, Supplier<A> accumulatorFactory,
+                                            ChunkTask<A> task) {
+        if (numPaths <= 0) {
+            throw new IllegalArgumentException("Number of simulations must be positive");
+        }
+
+        int numChunks = (numPaths + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        SplittableRandom root = new SplittableRandom(seed);
+        for (int c = 0; c < firstChunk; c++) {
+            root.split();
+        }
+        SplittableRandom[] streams = new SplittableRandom[numChunks];
+        for (int c = 0; c < numChunks; c++) {
+            streams[c] = root.split();
+        }
+
+        @SuppressWarnings("unchecked")
+        A[] partials = (A[]) new Accumulator[numChunks];
+        ChunkAction<A> action = new ChunkAction<>(0, numChunks, numPaths, streams, partials,
+                                                  accumulatorFactory, task, cancelled);
+        if (numChunks == 1) {
+            action.compute();
+        } else {
+            pool.invoke(action);
+        }
+        if (cancelled != null && cancelled.getAsBoolean()) {
+            throw new CancellationException("Simulation cancelled");
+        }
+
+        A result = target != null ? target : partials[0];
+        for (int c = target != null ? 0 : 1; c < numChunks; c++) {
+            result.merge(partials[c]);
+        }
+        return result;
+    }
+
+    /**
+     * Run task for every index in [0, count) in parallel on the simulation pool, for work
+     * whose items are independent of each other.
+     */
+    public void forEach(int count, IntConsumer task) {
+        pool.submit(() -> IntStream.range(0, count).parallel().forEach(task)).join();
+    }
+
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Per-chunk result that can absorb another chunk's result.
+     */
+    public interface Accumulator<A> {
+        void merge(A other);
+    }
+
+    /**
+     * Simulates pathCount paths starting at firstPath, drawing only from rng.
+     */
+    @FunctionalInterface
+    public interface ChunkTask<A> {
+        void simulate(SplittableRandom rng, int firstPath, int pathCount, A accumulator);
+    }
+
+    private static final class ChunkAction<A extends Accumulator<A>> extends RecursiveAction {
+        private final int fromChunk;
+        private final int toChunk;
+        private final int numPaths;
+        private final SplittableRandom[] streams;
+        private final A[] partials;
+        private final Supplier<A> factory;
+        private final ChunkTask<A> task;
+        private final BooleanSupplier cancelled;
+
+        ChunkAction(int fromChunk, int toChunk, int numPaths, SplittableRandom[] streams, A[] partials,
+                    Supplier<A> factory, ChunkTask<A> task, BooleanSupplier cancelled) {
+            this.fromChunk = fromChunk;
+            this.toChunk = toChunk;
+            this.numPaths = numPaths;
+            this.streams = streams;
+            this.partials = partials;
+            this.factory = factory;
+            this.task = task;
+            this.cancelled = cancelled;
+        }
+
+        @Override
+        protected void compute() {
+            if (toChunk - fromChunk == 1) {
+                if (cancelled != null && cancelled.getAsBoolean()) {
+                    return;
+                }
+                int firstPath = fromChunk * CHUNK_SIZE;
+                int pathCount = Math.min(CHUNK_SIZE, numPaths - firstPath);
+                A accumulator = factory.get();
+                task.simulate(streams[fromChunk], firstPath, pathCount, accumulator);
+                partials[fromChunk] = accumulator;
+                return;
+            }
+            int mid = (fromChunk + toChunk) >>> 1;
+            invokeAll(new ChunkAction<>(fromChunk, mid, numPaths, streams, partials, factory, task, cancelled),
+                      new ChunkAction<>(mid, toChunk, numPaths, streams, partials, factory, task, cancelled));
+        }
+    }
+}
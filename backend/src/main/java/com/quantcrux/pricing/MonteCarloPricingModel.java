@@ -0,0 +1,918 @@
+package com.quantcrux.pricing;
+
+import com.quantcrux.dto.PricingRequest;
+import com.quantcrux.dto.PricingResult;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CancellationException;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Monte Carlo pricing for any single-underlying payoff. Registered last so that it only
+ * handles requests no closed-form model supports, or requests sent to /monte-carlo.
+ *
+ * Barrier options are simulated on the request's monitoring schedule (one step per
+ * observation); every other payoff only needs the terminal price and uses a single step.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class MonteCarloPricingModel implements PricingModel {
+
+    public static final String SAMPLING_PSEUDO_RANDOM = "pseudo_random";
+    public static final String SAMPLING_SOBOL = "sobol";
+
+    private static final long SIMULATION_SEED = 42L; // Starting value of the default seed hash
+    static final int DEFAULT_QMC_RANDOMIZATIONS = 16;
+    private static final int DEFAULT_MAX_SIMULATIONS = 5_000_000;
+    private static final long ADAPTIVE_INITIAL_BATCH = 10_000;
+    private static final long ADAPTIVE_MIN_BATCH = 4_096;
+    private static final double SPOT_BUMP = 0.01;
+    private static final double VOL_BUMP = 0.01;
+    private static final double ONE_DAY = 1.0 / 365.0;
+    private static final int PATH_BUFFER_SIZE = 1 << 16;
+    private static final int PROGRESS_SLICES = 20;
+
+    private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(MonteCarloPricingModel.class);
+
+    @Autowired
+    private MonteCarloEngine monteCarloEngine;
+
+    @Autowired
+    private PayoffKernelCache payoffKernels;
+
+    // Generate single-step paths with a PathKernel (Box-Muller shocks, SIMD lanes when available)
+    @Value("${pricing.monte-carlo.simd:false}")
+    private boolean simd;
+
+    // Null unless simd is on
+    private PathKernel pathKernel;
+
+    // Per-worker path buffers, reused across chunks and requests
+    private final ThreadLocal<PathBuffers> pathBuffers = ThreadLocal.withInitial(PathBuffers::new);
+
+    @PostConstruct
+    public void selectPathKernel() {
+        if (simd) {
+            pathKernel = PathKernel.select(true);
+            if (pathKernel instanceof ScalarPathKernel) {
+                logger.warn("pricing.monte-carlo.simd is on but the vector kernel is not available; build with "
+                            + "-Psimd and start the JVM with --add-modules jdk.incubator.vector for SIMD path generation");
+            }
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "monte_carlo";
+    }
+
+    @Override
+    public boolean supports(PricingRequest request) {
+        return !PdePricingModel.isEarlyExercise(request);
+    }
+
+    /**
+     * Price and Greeks from a single path set. Spot and time bumps reuse each path's shock
+     * (common random numbers); delta and vega use the pathwise estimator for continuous
+     * payoffs and the likelihood-ratio estimator for digital/barrier payoffs.
+     *
+     * Antithetic variates, a vanilla-call control variate and per-chunk moment matching of
+     * the shocks can be switched on per request; the price and confidence interval then
+     * come from the reduced-variance estimator while the Greeks keep using every path.
+     *
+     * With samplingMethod "sobol" the paths are split across independently shifted Sobol
+     * sequences and the confidence interval comes from the spread of the replicate prices.
+     *
+     * When a target confidence interval or relative error is given, paths are simulated in
+     * batches until the target, maxSimulations or maxTimeMillis is reached.
+     *
+     * Barrier paths are checked at every observation of the monitoringFrequency schedule;
+     * with bridgeCorrection the Brownian-bridge probability of touching the barrier between
+     * two observations is applied as a weight, which prices the continuous barrier.
+     */
+    @Override
+    public PricingResult price(PricingRequest request) {
+        return price(List.of(request)).get(0);
+    }
+
+    /**
+     * Price several requests on one path set. All requests must share a {@link #pathSetKey};
+     * each path is generated once and then evaluated against every payoff, so the results
+     * are identical to pricing the requests one at a time.
+     */
+    public List<PricingResult> price(List<PricingRequest> requests) {
+        return price(requests, null);
+    }
+
+    /**
+     * Price several requests on one path set, reporting running estimates to progress after
+     * every slice of paths and stopping with CancellationException once it is cancelled.
+     * A fixed-size run is split into chunk-aligned slices of the same simulation, so the
+     * final result equals the one from {@link #price(List)}.
+     */
+    public List<PricingResult> price(List<PricingRequest> requests, PricingProgress progress) {
+        return price(requests, progress, true);
+    }
+
+    /**
+     * Price and confidence interval only: the same paths and estimator as {@link #price},
+     * without any Greek estimator or the one-day-earlier theta paths. For callers that
+     * revalue many shifted copies of a request, such as scenario grids.
+     */
+    public PricingResult value(PricingRequest request) {
+        return price(List.of(request), null, false).get(0);
+    }
+
+    private List<PricingResult> price(List<PricingRequest> requests, PricingProgress progress, boolean greeks) {
+        long startTime = System.nanoTime();
+        PricingRequest lead = requests.get(0);
+        List<Object> key = pathSetKey(lead);
+        for (PricingRequest request : requests) {
+            if (!key.equals(pathSetKey(request))) {
+                throw new IllegalArgumentException("Requests priced together must share underlying and simulation settings");
+            }
+            if (PdePricingModel.isEarlyExercise(request)) {
+                throw new IllegalArgumentException("Early exercise is priced by the pde model, not Monte Carlo");
+            }
+        }
+
+        int count = requests.size();
+        long rootSeed = seed(lead);
+        boolean antithetic = Boolean.TRUE.equals(lead.getAntitheticVariates());
+        boolean momentMatching = Boolean.TRUE.equals(lead.getMomentMatching());
+        boolean sobol = SAMPLING_SOBOL.equalsIgnoreCase(lead.getSamplingMethod());
+        boolean adaptive = lead.getTargetConfidenceInterval() != null || lead.getTargetRelativeError() != null;
+        PathSetup[] setups = new PathSetup[count];
+        for (int j = 0; j < count; j++) {
+            setups[j] = new PathSetup(requests.get(j), payoffKernels.get(requests.get(j)));
+        }
+
+        int replicates = 1;
+        if (sobol) {
+            Integer randomizations = lead.getQmcRandomizations();
+            replicates = Math.max(randomizations != null ? randomizations : DEFAULT_QMC_RANDOMIZATIONS, 2);
+        }
+        SobolShockGenerator[] generators = new SobolShockGenerator[replicates];
+        if (sobol) {
+            for (int r = 0; r < replicates; r++) {
+                generators[r] = new SobolShockGenerator(setups[0].steps, rootSeed, r);
+            }
+        }
+
+        long maxPaths = lead.getNumSimulations();
+        long batchPaths = maxPaths;
+        if (adaptive) {
+            maxPaths = lead.getMaxSimulations() != null ? lead.getMaxSimulations() : DEFAULT_MAX_SIMULATIONS;
+            batchPaths = Math.min(ADAPTIVE_INITIAL_BATCH, maxPaths);
+        }
+
+        // A fixed-size run being observed is done in slices of whole chunks
+        boolean sliced = progress != null && !adaptive;
+        int runPerReplicate = (int) ((maxPaths + replicates - 1) / replicates);
+        if (antithetic && runPerReplicate % 2 != 0) {
+            runPerReplicate++;
+        }
+        int slicePaths = MonteCarloEngine.CHUNK_SIZE
+            * Math.max(1, runPerReplicate / (PROGRESS_SLICES * MonteCarloEngine.CHUNK_SIZE));
+        BooleanSupplier cancelled = progress != null ? progress::isCancelled : null;
+        long deadline = lead.getMaxTimeMillis() != null
+            ? startTime + lead.getMaxTimeMillis() * 1_000_000L : Long.MAX_VALUE;
+
+        GroupAccumulator[] accumulators = new GroupAccumulator[replicates];
+        SplittableRandom batchSeeds = new SplittableRandom(rootSeed);
+        long pathsPerReplicate = 0;
+        Estimate[] estimates = new Estimate[count];
+        boolean[] targetMet = new boolean[count];
+        for (int batch = 0; ; batch++) {
+            if (cancelled != null && cancelled.getAsBoolean()) {
+                throw new CancellationException("Pricing cancelled");
+            }
+            int batchPerReplicate;
+            long seed;
+            if (sliced) {
+                batchPerReplicate = (int) Math.min(slicePaths, runPerReplicate - pathsPerReplicate);
+                seed = rootSeed;
+            } else {
+                batchPerReplicate = (int) ((batchPaths + replicates - 1) / replicates);
+                if (antithetic && batchPerReplicate % 2 != 0) {
+                    batchPerReplicate++; // Keep every antithetic pair inside one chunk
+                }
+                seed = batch == 0 ? rootSeed : batchSeeds.nextLong();
+            }
+            for (int r = 0; r < replicates; r++) {
+                if (sliced) {
+                    // Continue the one-shot run: same streams, merged in the same chunk order
+                    int firstChunk = (int) (pathsPerReplicate / MonteCarloEngine.CHUNK_SIZE);
+                    accumulators[r] = simulate(setups, batchPerReplicate, pathsPerReplicate, seed, firstChunk,
+                                               accumulators[r], cancelled, generators[r], antithetic, momentMatching,
+                                               greeks);
+                    continue;
+                }
+                GroupAccumulator part = simulate(setups, batchPerReplicate, pathsPerReplicate, seed, 0, null,
+                                                 cancelled, generators[r], antithetic, momentMatching, greeks);
+                if (accumulators[r] == null) {
+                    accumulators[r] = part;
+                } else {
+                    accumulators[r].merge(part);
+                }
+            }
+            pathsPerReplicate += batchPerReplicate;
+
+            // The run continues until every request in the group meets its target
+            double worstRatio = 0;
+            for (int j = 0; j < count; j++) {
+                PricingRequest request = requests.get(j);
+                PathSetup setup = setups[j];
+                estimates[j] = estimate(accumulators, j, setup, Boolean.TRUE.equals(request.getControlVariate()), sobol);
+                if (adaptive) {
+                    double confidenceInterval = 1.96 * Math.sqrt(estimates[j].variance) * setup.discount;
+                    double target = targetConfidenceInterval(request, estimates[j].value * setup.discount);
+                    targetMet[j] = confidenceInterval <= target;
+                    if (!targetMet[j]) {
+                        worstRatio = Math.max(worstRatio, confidenceInterval / target);
+                    }
+                }
+            }
+            if (progress != null) {
+                reportProgress(progress, estimates, setups, pathsPerReplicate * replicates,
+                               sliced ? (long) runPerReplicate * replicates : maxPaths);
+            }
+            if (sliced) {
+                if (pathsPerReplicate >= runPerReplicate) {
+                    break;
+                }
+                continue;
+            }
+            if (!adaptive || worstRatio == 0) {
+                break;
+            }
+            long totalPaths = pathsPerReplicate * replicates;
+            if (totalPaths >= maxPaths || System.nanoTime() >= deadline) {
+                break;
+            }
+
+            // Size the next batch from the observed convergence, at most doubling the run
+            double needed = totalPaths * (worstRatio * worstRatio - 1) * 1.1;
+            batchPaths = (long) Math.min(Math.max(needed, ADAPTIVE_MIN_BATCH), totalPaths);
+            batchPaths = Math.min(batchPaths, maxPaths - totalPaths);
+        }
+
+        long numPaths = pathsPerReplicate * replicates;
+        long elapsedMillis = (System.nanoTime() - startTime) / 1_000_000L;
+        List<PricingResult> results = new ArrayList<>(count);
+        for (int j = 0; j < count; j++) {
+            PricingRequest request = requests.get(j);
+            PathSetup setup = setups[j];
+            Estimate estimate = estimates[j];
+            boolean controlVariate = Boolean.TRUE.equals(request.getControlVariate());
+            GreeksAccumulator stats = accumulators[0].parts[j];
+            for (int r = 1; r < replicates; r++) {
+                stats.merge(accumulators[r].parts[j]);
+            }
+
+            // Discount to present value
+            double price = estimate.value * setup.discount;
+            double plainPrice = stats.payoff.getMean() * setup.discount;
+
+            Map<String, Double> greekValues = greeks
+                ? calculateGreeks(request, stats, plainPrice, setup.pathwise) : new HashMap<>();
+
+            // 95% confidence interval
+            double confidenceInterval = 1.96 * Math.sqrt(estimate.variance) * setup.discount;
+
+            PricingResult result = new PricingResult(price, greekValues, confidenceInterval, (int) numPaths);
+            result.setPricingModel(getName());
+            result.setSamplingMethod(sobol ? SAMPLING_SOBOL : SAMPLING_PSEUDO_RANDOM);
+            if (adaptive) {
+                result.setTargetMet(targetMet[j]);
+            }
+            result.setElapsedMillis(elapsedMillis);
+            result.setSeed(rootSeed);
+
+            List<String> techniques = new ArrayList<>();
+            if (antithetic) techniques.add("antithetic");
+            if (controlVariate) techniques.add("control_variate");
+            if (momentMatching) techniques.add("moment_matching");
+            if (sobol) techniques.add("quasi_monte_carlo");
+            result.setVarianceReduction(techniques);
+
+            // Variance of plain Monte Carlo with the same number of paths over the achieved variance
+            double plainVariance = stats.payoff.getVariance() / numPaths;
+            if (estimate.variance > 0) {
+                result.setVarianceReductionFactor(Math.round(plainVariance / estimate.variance * 100.0) / 100.0);
+            }
+            results.add(result);
+        }
+        return results;
+    }
+
+    private void reportProgress(PricingProgress progress, Estimate[] estimates, PathSetup[] setups,
+                                long simulatedPaths, long totalPaths) {
+        double[] prices = new double[estimates.length];
+        double[] confidenceIntervals = new double[estimates.length];
+        for (int j = 0; j < estimates.length; j++) {
+            prices[j] = estimates[j].value * setups[j].discount;
+            confidenceIntervals[j] = 1.96 * Math.sqrt(estimates[j].variance) * setups[j].discount;
+        }
+        progress.onProgress(simulatedPaths, totalPaths, prices, confidenceIntervals);
+    }
+
+    /**
+     * Everything that determines the simulated paths of a request: underlying, model
+     * parameters, path count, schedule and seed, sampling and path-level variance reduction.
+     * Requests with equal keys see the same shocks and can share one path set.
+     */
+    public static List<Object> pathSetKey(PricingRequest request) {
+        return Arrays.asList(pathInputs(request), seed(request));
+    }
+
+    /**
+     * Root seed of a request's simulation. Every path stream is split off it in a fixed
+     * order, so the same seed replays the same result bit-for-bit on any thread count.
+     * Without a request seed it is hashed from the inputs that shape the paths (everything in
+     * the path set key but the seed): the same market and settings always replay the same
+     * draws, while different inputs get streams of their own. Payoff terms are left out so
+     * products on one path set still share it.
+     */
+    public static long seed(PricingRequest request) {
+        return request.getSeed() != null ? request.getSeed() : hashSeed(pathInputs(request));
+    }
+
+    /**
+     * Deterministic 64-bit seed from a list of Double, Boolean, integral or null inputs.
+     * Unlike List.hashCode it is not truncated to 32 bits.
+     */
+    static long hashSeed(List<?> inputs) {
+        long hash = SIMULATION_SEED;
+        for (Object input : inputs) {
+            long bits;
+            if (input == null) {
+                bits = 0x632BE59BD9B4E019L;
+            } else if (input instanceof Double value) {
+                bits = Double.doubleToLongBits(value);
+            } else if (input instanceof Boolean flag) {
+                bits = flag ? 1 : 2;
+            } else {
+                bits = ((Number) input).longValue();
+            }
+            hash = (hash ^ bits) * 0x9E3779B97F4A7C15L;
+        }
+        // MurmurHash3 finaliser, so inputs that differ in a few bits give unrelated seeds
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        return hash ^ (hash >>> 33);
+    }
+
+    private static List<Object> pathInputs(PricingRequest request) {
+        boolean sobol = SAMPLING_SOBOL.equalsIgnoreCase(request.getSamplingMethod());
+        return Arrays.asList(
+            request.getSpotPrice(), request.getVolatility(), request.getRiskFreeRate(), request.getTimeToMaturity(),
+            request.getNumSimulations(), pathSteps(request),
+            sobol, sobol ? request.getQmcRandomizations() : null,
+            Boolean.TRUE.equals(request.getAntitheticVariates()), Boolean.TRUE.equals(request.getMomentMatching()),
+            request.getTargetConfidenceInterval(), request.getTargetRelativeError(),
+            request.getMaxSimulations(), request.getMaxTimeMillis());
+    }
+
+    static boolean isBarrierPath(PricingRequest request) {
+        return request.getProductType().equalsIgnoreCase("barrier_option")
+            && request.getBarrier() != null && !BarrierMonitoring.isTerminal(request);
+    }
+
+    /**
+     * Time steps per simulated path: the monitoring schedule for barrier paths, else one.
+     */
+    public static int pathSteps(PricingRequest request) {
+        return isBarrierPath(request) ? BarrierMonitoring.steps(request) : 1;
+    }
+
+    /**
+     * Requested confidence interval half-width; the tighter of the absolute and relative targets.
+     */
+    private double targetConfidenceInterval(PricingRequest request, double price) {
+        double target = Double.MAX_VALUE;
+        if (request.getTargetConfidenceInterval() != null) {
+            target = request.getTargetConfidenceInterval();
+        }
+        if (request.getTargetRelativeError() != null) {
+            target = Math.min(target, request.getTargetRelativeError() * Math.abs(price));
+        }
+        return target;
+    }
+
+    /**
+     * Undiscounted price estimate and its variance from the per-replicate accumulators.
+     */
+    private Estimate estimate(GroupAccumulator[] accumulators, int index, PathSetup setup, boolean controlVariate,
+                              boolean sobol) {
+        PathStatistics spread = new PathStatistics();
+        double variance = 0;
+        for (GroupAccumulator accumulator : accumulators) {
+            ControlVariateStatistics samples = accumulator.parts[index].samples;
+            double value = samples.getMeanY();
+            variance = samples.getVarianceY();
+            if (controlVariate) {
+                double beta = samples.getOptimalBeta();
+                value -= beta * (samples.getMeanX() - setup.controlMean);
+                variance += beta * beta * samples.getVarianceX() - 2 * beta * samples.getCovariance();
+            }
+            variance = Math.max(variance, 0) / samples.getCount();
+            spread.add(value);
+        }
+
+        if (sobol) {
+            // Randomised QMC: the replicate prices are i.i.d., their spread gives the error
+            return new Estimate(spread.getMean(), spread.getVariance() / (accumulators.length - 1));
+        }
+        return new Estimate(spread.getMean(), variance);
+    }
+
+    private GroupAccumulator simulate(PathSetup[] setups, int numPaths, long pointOffset, long seed, int firstChunk,
+                                      GroupAccumulator target, BooleanSupplier cancelled,
+                                      SobolShockGenerator generator, boolean antithetic, boolean momentMatching,
+                                      boolean greeks) {
+        // Simulate in parallel chunks, accumulating price and Greek estimators in a single pass
+        PathSetup lead = setups[0];
+        PathKernel kernel = lead.steps == 1 ? pathKernel : null;
+        boolean thetaNeeded = false;
+        for (PathSetup setup : setups) {
+            thetaNeeded |= greeks && !setup.barrierPath;
+        }
+        boolean terminalTheta = thetaNeeded;
+        return monteCarloEngine.run(numPaths, seed, firstChunk, target, cancelled,
+                                    () -> new GroupAccumulator(setups.length),
+            (rng, firstPath, pathCount, group) -> {
+                int steps = lead.steps;
+                PathBuffers buffers = pathBuffers.get();
+                buffers.ensureSteps(steps);
+                double[] shocks = buffers.shocks;
+
+                // Paths are stored path-major, steps shocks each; long schedules go in blocks
+                int blockSize = Math.min(pathCount, Math.max(2, (shocks.length / steps) & ~1));
+                for (int blockStart = 0; blockStart < pathCount; blockStart += blockSize) {
+                    int blockPaths = Math.min(blockSize, pathCount - blockStart);
+                    if (generator != null) {
+                        long firstPoint = pointOffset + firstPath + blockStart;
+                        int points = antithetic ? blockPaths / 2 : blockPaths;
+                        generator.fill(antithetic ? firstPoint / 2 : firstPoint, points, shocks,
+                                       buffers.sobolState, buffers.normals);
+                        if (antithetic) {
+                            mirror(shocks, points, steps);
+                        }
+                    } else if (kernel != null) {
+                        int points = antithetic ? (blockPaths + 1) / 2 : blockPaths;
+                        kernel.gaussians(rng, shocks, points, buffers.uniforms);
+                        if (antithetic) {
+                            mirror(shocks, points, steps);
+                        }
+                    } else {
+                        drawShocks(rng, shocks, blockPaths, steps, antithetic);
+                    }
+                    if (momentMatching) {
+                        matchMoments(shocks, blockPaths, steps);
+                    }
+                    if (kernel != null) {
+                        // Single-step paths: every terminal price of the block in one pass
+                        int evaluated = antithetic ? (blockPaths + 1) & ~1 : blockPaths;
+                        kernel.terminalPrices(shocks, evaluated, lead.spot, lead.drift, lead.diffusion,
+                                              buffers.finalPrices);
+                        if (terminalTheta) {
+                            kernel.terminalPrices(shocks, evaluated, lead.spot, lead.thetaDrift,
+                                                  lead.thetaStepDiffusion, buffers.thetaPrices);
+                        }
+                    }
+
+                    // Every payoff of the group is evaluated on each generated path
+                    int stride = antithetic ? 2 : 1;
+                    for (int i = 0; i < blockPaths; i += stride) {
+                        int offset = i * steps;
+                        double finalPrice;
+                        double mirrorPrice = 0;
+                        double thetaPrice = 0;
+                        double mirrorThetaPrice = 0;
+                        if (kernel != null) {
+                            finalPrice = buffers.finalPrices[i];
+                            thetaPrice = buffers.thetaPrices[i];
+                            if (antithetic) {
+                                mirrorPrice = buffers.finalPrices[i + 1];
+                                mirrorThetaPrice = buffers.thetaPrices[i + 1];
+                            }
+                        } else {
+                            finalPrice = lead.terminalPrice(shocks, offset, false);
+                            if (antithetic) {
+                                mirrorPrice = lead.terminalPrice(shocks, offset + steps, false);
+                            }
+                            if (terminalTheta) {
+                                thetaPrice = lead.terminalPrice(shocks, offset, true);
+                                if (antithetic) {
+                                    mirrorThetaPrice = lead.terminalPrice(shocks, offset + steps, true);
+                                }
+                            }
+                        }
+                        for (int j = 0; j < setups.length; j++) {
+                            PathSetup setup = setups[j];
+                            GreeksAccumulator acc = group.parts[j];
+                            double sample = greeks
+                                ? accumulatePath(shocks, offset, finalPrice, thetaPrice, setup, acc,
+                                                 buffers.sensitivities)
+                                : accumulatePayoff(shocks, offset, finalPrice, setup, acc);
+                            double control = Math.max(finalPrice - setup.strike, 0);
+                            if (antithetic) {
+                                double mirrorSample = greeks
+                                    ? accumulatePath(shocks, offset + steps, mirrorPrice, mirrorThetaPrice, setup,
+                                                     acc, buffers.sensitivities)
+                                    : accumulatePayoff(shocks, offset + steps, mirrorPrice, setup, acc);
+                                sample = 0.5 * (sample + mirrorSample);
+                                control = 0.5 * (control + Math.max(mirrorPrice - setup.strike, 0));
+                            }
+                            acc.samples.add(sample, control);
+                        }
+                    }
+                }
+            });
+    }
+
+    /**
+     * Fill paths x steps pseudo-random standard normal shocks, path-major; when antithetic
+     * every second path is the negated previous one.
+     */
+    private void drawShocks(SplittableRandom rng, double[] shocks, int paths, int steps, boolean antithetic) {
+        int count = paths * steps;
+        if (antithetic) {
+            for (int p = 0; p < count; p += 2 * steps) {
+                for (int s = 0; s < steps; s++) {
+                    double z = rng.nextGaussian();
+                    shocks[p + s] = z;
+                    shocks[p + steps + s] = -z;
+                }
+            }
+        } else {
+            for (int i = 0; i < count; i++) {
+                shocks[i] = rng.nextGaussian();
+            }
+        }
+    }
+
+    /**
+     * Expand the first points paths into (path, negated path) pairs in place.
+     */
+    private void mirror(double[] shocks, int points, int steps) {
+        for (int j = points - 1; j >= 0; j--) {
+            for (int s = 0; s < steps; s++) {
+                double z = shocks[j * steps + s];
+                shocks[2 * j * steps + s] = z;
+                shocks[(2 * j + 1) * steps + s] = -z;
+            }
+        }
+    }
+
+    /**
+     * Rescale each step's shocks across the first paths paths to zero sample mean and unit
+     * sample variance.
+     */
+    private void matchMoments(double[] shocks, int paths, int steps) {
+        if (paths < 2) {
+            return;
+        }
+        int count = paths * steps;
+        for (int s = 0; s < steps; s++) {
+            double mean = 0;
+            double sumSquares = 0;
+            for (int i = s; i < count; i += steps) {
+                mean += shocks[i];
+            }
+            mean /= paths;
+            for (int i = s; i < count; i += steps) {
+                double d = shocks[i] - mean;
+                sumSquares += d * d;
+            }
+            double scale = sumSquares > 0 ? 1 / Math.sqrt(sumSquares / paths) : 1;
+            for (int i = s; i < count; i += steps) {
+                shocks[i] = (shocks[i] - mean) * scale;
+            }
+        }
+    }
+
+    /**
+     * Record one path in the payoff and Greek accumulators and return its payoff. thetaPrice
+     * is the path's terminal price one day earlier; barrier paths work it out themselves.
+     */
+    private double accumulatePath(double[] shocks, int offset, double finalPrice, double thetaPrice,
+                                  PathSetup setup, GreeksAccumulator acc, double[] sensitivities) {
+        if (setup.barrierPath) {
+            return accumulateBarrierPath(shocks, offset, finalPrice, setup, acc, sensitivities);
+        }
+        PayoffKernel kernel = setup.kernel;
+        double z = shocks[offset];
+        double payoff = kernel.payoff(finalPrice);
+
+        acc.payoff.add(payoff);
+        acc.payoffTheta.add(kernel.payoff(thetaPrice));
+
+        if (setup.pathwise) {
+            acc.payoffUp.add(kernel.payoff(finalPrice * (1 + SPOT_BUMP)));
+            acc.payoffDown.add(kernel.payoff(finalPrice * (1 - SPOT_BUMP)));
+            double slope = kernel.slope(finalPrice);
+            acc.delta.add(slope * finalPrice / setup.spot);
+            acc.vega.add(slope * finalPrice * (setup.sqrtT * z - setup.volatility * setup.timeToMaturity));
+        } else {
+            double diffusion = setup.diffusion;
+            acc.delta.add(payoff * z / (setup.spot * diffusion));
+            acc.gamma.add(payoff * (z * z - 1 - z * diffusion) / (setup.spot * setup.spot * diffusion * diffusion));
+            acc.vega.add(payoff * ((z * z - 1) / setup.volatility - z * setup.sqrtT));
+        }
+        return payoff;
+    }
+
+    /**
+     * Record one path's payoff alone, for runs without Greeks, and return it.
+     */
+    private double accumulatePayoff(double[] shocks, int offset, double finalPrice, PathSetup setup,
+                                    GreeksAccumulator acc) {
+        double payoff;
+        if (setup.barrierPath) {
+            payoff = finalPrice > setup.strike ? setup.cash * setup.barrierFactor(shocks, offset, false, null) : 0;
+        } else {
+            payoff = setup.kernel.payoff(finalPrice);
+        }
+        acc.payoff.add(payoff);
+        return payoff;
+    }
+
+    /**
+     * Monitored barrier path: the coupon times the probability that the path survived (down
+     * barrier) or touched (up barrier). Likelihood-ratio Greeks use the first step's shock
+     * for spot and every step's shock for volatility, plus the direct sensitivity of the
+     * bridge correction to spot and volatility.
+     */
+    private double accumulateBarrierPath(double[] shocks, int offset, double finalPrice, PathSetup setup,
+                                         GreeksAccumulator acc, double[] sensitivities) {
+        double payoff = 0;
+        double payoffDx = 0;
+        double payoffDxx = 0;
+        double payoffDvol = 0;
+        if (finalPrice > setup.strike) {
+            payoff = setup.cash * setup.barrierFactor(shocks, offset, false, sensitivities);
+            payoffDx = setup.cash * sensitivities[0];
+            payoffDxx = setup.cash * sensitivities[1];
+            payoffDvol = setup.cash * sensitivities[2];
+        }
+        double thetaPayoff = 0;
+        if (setup.terminalPrice(shocks, offset, true) > setup.strike) {
+            thetaPayoff = setup.cash * setup.barrierFactor(shocks, offset, true, null);
+        }
+        acc.payoff.add(payoff);
+        acc.payoffTheta.add(thetaPayoff);
+
+        // Derivatives in x = log(spot), converted to spot
+        double diffusion = setup.stepDiffusion;
+        double score = shocks[offset] / diffusion;
+        double dx = payoff * score + payoffDx;
+        double dxx = payoff * (score * score - 1 / (diffusion * diffusion)) + 2 * payoffDx * score + payoffDxx;
+        acc.delta.add(dx / setup.spot);
+        acc.gamma.add((dxx - dx) / (setup.spot * setup.spot));
+
+        double vegaScore = 0;
+        if (payoff != 0) {
+            for (int s = 0; s < setup.steps; s++) {
+                double z = shocks[offset + s];
+                vegaScore += (z * z - 1) / setup.volatility - z * setup.sqrtDt;
+            }
+        }
+        acc.vega.add(payoff * vegaScore + payoffDvol);
+        return payoff;
+    }
+
+    private Map<String, Double> calculateGreeks(PricingRequest request, GreeksAccumulator stats,
+                                                double basePrice, boolean pathwise) {
+        Map<String, Double> greeks = new HashMap<>();
+        double spot = request.getSpotPrice();
+        double rate = request.getRiskFreeRate();
+        double discount = Math.exp(-rate * request.getTimeToMaturity());
+
+        // Delta: sensitivity to underlying price
+        double delta = discount * stats.delta.getMean();
+        greeks.put("delta", Math.round(delta * 10000.0) / 10000.0);
+
+        // Gamma: second derivative with respect to spot
+        double gamma;
+        if (pathwise) {
+            double priceUp = discount * stats.payoffUp.getMean();
+            double priceDown = discount * stats.payoffDown.getMean();
+            gamma = (priceUp - 2 * basePrice + priceDown) / Math.pow(spot * SPOT_BUMP, 2);
+        } else {
+            gamma = discount * stats.gamma.getMean();
+        }
+        greeks.put("gamma", Math.round(gamma * 10000.0) / 10000.0);
+
+        // Vega: price change for a one point move in volatility
+        double vega = discount * stats.vega.getMean() * VOL_BUMP;
+        greeks.put("vega", Math.round(vega * 10000.0) / 10000.0);
+
+        // Theta: time decay over one day
+        double thetaMaturity = Math.max(request.getTimeToMaturity() - ONE_DAY, 0);
+        double thetaPrice = Math.exp(-rate * thetaMaturity) * stats.payoffTheta.getMean();
+        double theta = thetaPrice - basePrice;
+        greeks.put("theta", Math.round(theta * 10000.0) / 10000.0);
+
+        return greeks;
+    }
+
+    /**
+     * Per-request constants of the path simulation.
+     */
+    private static final class PathSetup {
+        final double spot;
+        final double strike;
+        final double rate;
+        final double volatility;
+        final double timeToMaturity;
+        final double sqrtT;
+        final double drift;
+        final double diffusion;
+        final double thetaDrift;
+        final double discount;
+        final double controlMean;
+        final boolean pathwise;
+        final PayoffKernel kernel;
+        final int steps;
+        final double sqrtDt;
+        final double stepDrift;
+        final double stepDiffusion;
+        final double thetaStepDrift;
+        final double thetaStepDiffusion;
+        final boolean barrierPath;
+        final boolean downAndOut;
+        final boolean bridgeCorrection;
+        final double logSpot;
+        final double logBarrier;
+        final double cash;
+
+        PathSetup(PricingRequest request, PayoffKernel kernel) {
+            spot = request.getSpotPrice();
+            strike = request.getStrike();
+            rate = request.getRiskFreeRate();
+            volatility = request.getVolatility();
+            timeToMaturity = request.getTimeToMaturity();
+            sqrtT = Math.sqrt(timeToMaturity);
+            drift = (rate - 0.5 * volatility * volatility) * timeToMaturity;
+            diffusion = volatility * sqrtT;
+            double thetaMaturity = Math.max(timeToMaturity - ONE_DAY, 0);
+            thetaDrift = (rate - 0.5 * volatility * volatility) * thetaMaturity;
+            discount = Math.exp(-rate * timeToMaturity);
+            controlMean = AnalyticPricingModel.blackScholesCall(spot, strike, rate, volatility, timeToMaturity) / discount;
+            this.kernel = kernel;
+            pathwise = kernel.isContinuous();
+
+            barrierPath = isBarrierPath(request);
+            steps = pathSteps(request);
+            sqrtDt = Math.sqrt(timeToMaturity / steps);
+            stepDrift = drift / steps;
+            stepDiffusion = volatility * sqrtDt;
+            thetaStepDrift = thetaDrift / steps;
+            thetaStepDiffusion = volatility * Math.sqrt(thetaMaturity / steps);
+            downAndOut = AnalyticPricingModel.isDownAndOut(request);
+            bridgeCorrection = !Boolean.FALSE.equals(request.getBridgeCorrection());
+            logSpot = Math.log(spot);
+            logBarrier = request.getBarrier() != null ? Math.log(request.getBarrier()) : 0;
+            cash = request.getCoupon() != null ? request.getCoupon() * 100 : 0;
+        }
+
+        /**
+         * Terminal price of the path whose steps shocks start at offset, at the request's
+         * maturity or one day earlier.
+         */
+        double terminalPrice(double[] shocks, int offset, boolean theta) {
+            double sum = 0;
+            for (int s = 0; s < steps; s++) {
+                sum += shocks[offset + s];
+            }
+            return theta
+                ? spot * Math.exp(thetaDrift + thetaStepDiffusion * sum)
+                : spot * Math.exp(drift + stepDiffusion * sum);
+        }
+
+        /**
+         * Probability that the path survived a down barrier or touched an up barrier. A path
+         * beyond the barrier at an observation is knocked out (in) outright; between
+         * observations the bridge probability exp(-2 (x_i - b)(x_{i+1} - b) / (sigma^2 dt))
+         * of touching it is applied when bridge correction is on.
+         *
+         * If sensitivities is not null it receives the direct derivatives of the result with
+         * respect to log(spot) (first and second, through the first step only) and volatility,
+         * holding the simulated log-path fixed.
+         */
+        double barrierFactor(double[] shocks, int offset, boolean theta, double[] sensitivities) {
+            double stepMean = theta ? thetaStepDrift : stepDrift;
+            double stepStd = theta ? thetaStepDiffusion : stepDiffusion;
+            double variance = stepStd * stepStd;
+            boolean correct = bridgeCorrection && variance > 0;
+
+            double survival = 1;     // probability of not touching the barrier so far
+            double survivalVol = 0;  // its derivative with respect to volatility
+            double rest = 1;         // survival over steps after the first
+            double firstCrossing = 0;
+            double firstSlope = 0;   // d log(firstCrossing) / d log(spot)
+            double previous = logSpot;
+            for (int s = 0; s < steps; s++) {
+                double x = previous + stepMean + stepStd * shocks[offset + s];
+                if (downAndOut ? x <= logBarrier : x >= logBarrier) {
+                    survival = 0;
+                    survivalVol = 0;
+                    rest = 0;
+                    break;
+                }
+                if (correct) {
+                    double exponent = 2 * (previous - logBarrier) * (x - logBarrier) / variance;
+                    double crossing = Math.exp(-exponent);
+                    double crossingVol = crossing * exponent * 2 / volatility;
+                    survivalVol = survivalVol * (1 - crossing) - survival * crossingVol;
+                    survival *= 1 - crossing;
+                    if (s == 0) {
+                        firstCrossing = crossing;
+                        firstSlope = -2 * (x - logBarrier) / variance;
+                    } else {
+                        rest *= 1 - crossing;
+                    }
+                }
+                previous = x;
+            }
+
+            double sign = downAndOut ? 1 : -1;
+            if (sensitivities != null) {
+                sensitivities[0] = -sign * firstCrossing * firstSlope * rest;
+                sensitivities[1] = -sign * firstCrossing * firstSlope * firstSlope * rest;
+                sensitivities[2] = sign * survivalVol;
+            }
+            return downAndOut ? survival : 1 - survival;
+        }
+    }
+
+    /**
+     * Per-request accumulators of a group priced on one path set.
+     */
+    private static final class GroupAccumulator implements MonteCarloEngine.Accumulator<GroupAccumulator> {
+        final GreeksAccumulator[] parts;
+
+        GroupAccumulator(int size) {
+            parts = new GreeksAccumulator[size];
+            for (int j = 0; j < size; j++) {
+                parts[j] = new GreeksAccumulator();
+            }
+        }
+
+        @Override
+        public void merge(GroupAccumulator other) {
+            for (int j = 0; j < parts.length; j++) {
+                parts[j].merge(other.parts[j]);
+            }
+        }
+    }
+
+    /**
+     * Scratch arrays of one worker thread, grown to the longest schedule seen.
+     */
+    private static final class PathBuffers {
+        final double[] sensitivities = new double[3];
+        double[] shocks = new double[PATH_BUFFER_SIZE];
+        int[] sobolState = new int[1];
+        double[] normals = new double[1];
+        // Single-step blocks never exceed a chunk, plus one path to complete an antithetic pair
+        final double[] uniforms = new double[MonteCarloEngine.CHUNK_SIZE + 2];
+        final double[] finalPrices = new double[MonteCarloEngine.CHUNK_SIZE + 2];
+        final double[] thetaPrices = new double[MonteCarloEngine.CHUNK_SIZE + 2];
+
+        void ensureSteps(int steps) {
+            if (shocks.length < 2 * steps) {
+                shocks = new double[2 * steps];
+            }
+            if (sobolState.length < steps) {
+                sobolState = new int[steps];
+                normals = new double[steps];
+            }
+        }
+    }
+
+    private static final class Estimate {
+        final double value;
+        final double variance;
+
+        Estimate(double value, double variance) {
+            this.value = value;
+            this.variance = variance;
+        }
+    }
+}
@@ -0,0 +1,398 @@
+package com.quantcrux.pricing;
+
+import com.quantcrux.dto.BasketPricingRequest;
+import com.quantcrux.dto.PricingResult;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Monte Carlo pricing of basket, worst-of and best-of payoffs on correlated underlyings.
+ *
+ * Each underlying follows its own lognormal process; the shocks are correlated with the
+ * Cholesky factor of the request's correlation matrix, taken from {@link CorrelationCache}
+ * so a matrix is factored once however often it is priced. Paths are generated in blocks
+ * held asset-major (one array per underlying, indexed by path), so correlation, growth and
+ * aggregation all run as tight loops over contiguous paths, and blocks are simulated in
+ * parallel chunks by {@link MonteCarloEngine}.
+ *
+ * Only the terminal value of each underlying is needed, so every path is a single step.
+ */
+@Component
+public class MultiAssetPricingModel {
+
+    public static final String BASKET_OPTION = "basket_option";
+    public static final String WORST_OF_OPTION = "worst_of_option";
+    public static final String BEST_OF_OPTION = "best_of_option";
+
+    private static final int BLOCK_SIZE = 256;
+
+    @Autowired
+    private MonteCarloEngine monteCarloEngine;
+
+    @Autowired
+    private CorrelationCache correlationCache;
+
+    // Per-worker block buffers, reused across chunks and requests
+    private final ThreadLocal<BlockBuffers> blockBuffers = ThreadLocal.withInitial(BlockBuffers::new);
+
+    public String getName() {
+        return "multi_asset_monte_carlo";
+    }
+
+    /**
+     * Price and per-underlying deltas from one correlated path set. Deltas are with respect
+     * to each underlying's current spot, with the strike level fixed: pathwise for the call
+     * payoff and likelihood-ratio for the digital. With antithetic variates every draw is
+     * also simulated negated and the price comes from the pair averages.
+     */
+    public PricingResult price(BasketPricingRequest request) {
+        long startTime = System.nanoTime();
+        BasketSetup setup = new BasketSetup(request, correlationCache);
+
+        int numPaths = request.getNumSimulations() != null ? request.getNumSimulations() : 0;
+        // An antithetic draw yields two paths, so the engine runs over draws
+        int draws = setup.antithetic ? (numPaths + 1) / 2 : numPaths;
+        long seed = request.getSeed() != null ? request.getSeed() : seed(request, numPaths);
+        BasketAccumulator stats = monteCarloEngine.run(draws, seed,
+                                                       () -> new BasketAccumulator(setup.assets),
+            (rng, firstDraw, drawCount, acc) -> simulate(setup, rng, drawCount, acc));
+
+        long simulatedPaths = setup.antithetic ? 2L * draws : draws;
+        double price = stats.samples.getMean() * setup.discount;
+        // 95% confidence interval
+        double confidenceInterval = 1.96 * stats.samples.getStandardError() * setup.discount;
+
+        Map<String, Double> greeks = new LinkedHashMap<>();
+        for (int i = 0; i < setup.assets; i++) {
+            double delta = setup.discount * stats.deltaSums[i] / simulatedPaths;
+            greeks.put("delta_" + setup.names[i], Math.round(delta * 10000.0) / 10000.0);
+        }
+
+        PricingResult result = new PricingResult(price, greeks, confidenceInterval, (int) simulatedPaths);
+        result.setPricingModel(getName());
+        result.setSamplingMethod(MonteCarloPricingModel.SAMPLING_PSEUDO_RANDOM);
+        List<String> techniques = new ArrayList<>();
+        if (setup.antithetic) techniques.add("antithetic");
+        result.setVarianceReduction(techniques);
+        result.setElapsedMillis((System.nanoTime() - startTime) / 1_000_000L);
+        result.setSeed(seed);
+        return result;
+    }
+
+    /**
+     * Default seed, hashed like the single-asset one from the inputs that shape the paths:
+     * spots, volatilities, correlations, rate, maturity, path count and antithetic sampling.
+     */
+    private static long seed(BasketPricingRequest request, int numPaths) {
+        List<Object> inputs = new ArrayList<>(request.getSpotPrices());
+        inputs.addAll(request.getVolatilities());
+        if (request.getCorrelations() != null) {
+            for (List<Double> row : request.getCorrelations()) {
+                inputs.addAll(row);
+            }
+        }
+        inputs.add(request.getRiskFreeRate());
+        inputs.add(request.getTimeToMaturity());
+        inputs.add(numPaths);
+        inputs.add(Boolean.TRUE.equals(request.getAntitheticVariates()));
+        return MonteCarloPricingModel.hashSeed(inputs);
+    }
+
+    private void simulate(BasketSetup setup, SplittableRandom rng, int drawCount, BasketAccumulator acc) {
+        int assets = setup.assets;
+        BlockBuffers buffers = blockBuffers.get();
+        buffers.ensureAssets(assets);
+        double[][] shocks = buffers.shocks;
+        double[][] correlated = buffers.correlated;
+
+        for (int blockStart = 0; blockStart < drawCount; blockStart += BLOCK_SIZE) {
+            int paths = Math.min(BLOCK_SIZE, drawCount - blockStart);
+            for (int i = 0; i < assets; i++) {
+                double[] z = shocks[i];
+                for (int p = 0; p < paths; p++) {
+                    z[p] = rng.nextGaussian();
+                }
+            }
+            setup.factor.correlate(shocks, correlated, paths);
+            if (setup.digital) {
+                // The independent draws are no longer needed; turn them into the score direction
+                setup.factor.solveTranspose(shocks, paths);
+            }
+
+            evaluate(setup, buffers, paths, 1, buffers.payoff, acc);
+            if (setup.antithetic) {
+                evaluate(setup, buffers, paths, -1, buffers.mirrorPayoff, acc);
+                for (int p = 0; p < paths; p++) {
+                    acc.samples.add(0.5 * (buffers.payoff[p] + buffers.mirrorPayoff[p]));
+                }
+            } else {
+                for (int p = 0; p < paths; p++) {
+                    acc.samples.add(buffers.payoff[p]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Payoffs of the block's paths driven by sign times the correlated shocks, adding their
+     * delta estimators to acc.
+     */
+    private void evaluate(BasketSetup setup, BlockBuffers buffers, int paths, double sign, double[] payoff,
+                          BasketAccumulator acc) {
+        int assets = setup.assets;
+        double[][] performance = buffers.performance;
+        double[] level = buffers.level;
+        int[] extreme = buffers.extreme;
+
+        // Terminal performance S_i(T) / S_i(0) of every underlying
+        for (int i = 0; i < assets; i++) {
+            double drift = setup.drifts[i];
+            double diffusion = sign * setup.diffusions[i];
+            double[] y = buffers.correlated[i];
+            double[] out = performance[i];
+            for (int p = 0; p < paths; p++) {
+                out[p] = Math.exp(drift + diffusion * y[p]);
+            }
+        }
+
+        // Aggregate across underlyings, remembering the worst or best one
+        if (setup.aggregation == Aggregation.BASKET) {
+            double weight = setup.weights[0];
+            double[] first = performance[0];
+            for (int p = 0; p < paths; p++) {
+                level[p] = weight * first[p];
+            }
+            for (int i = 1; i < assets; i++) {
+                weight = setup.weights[i];
+                double[] in = performance[i];
+                for (int p = 0; p < paths; p++) {
+                    level[p] += weight * in[p];
+                }
+            }
+        } else {
+            boolean worst = setup.aggregation == Aggregation.WORST_OF;
+            System.arraycopy(performance[0], 0, level, 0, paths);
+            for (int p = 0; p < paths; p++) {
+                extreme[p] = 0;
+            }
+            for (int i = 1; i < assets; i++) {
+                double[] in = performance[i];
+                for (int p = 0; p < paths; p++) {
+                    if (worst ? in[p] < level[p] : in[p] > level[p]) {
+                        level[p] = in[p];
+                        extreme[p] = i;
+                    }
+                }
+            }
+        }
+
+        double strike = setup.strike;
+        if (setup.digital) {
+            double cash = setup.cash;
+            for (int p = 0; p < paths; p++) {
+                payoff[p] = level[p] > strike ? cash : 0;
+            }
+            // Likelihood ratio: payoff x (C^-1 y)_i / (S_i sigma_i sqrt(T)), with y the correlated shocks
+            for (int i = 0; i < assets; i++) {
+                double scale = sign * setup.scoreScales[i];
+                double[] score = buffers.shocks[i];
+                double sum = 0;
+                for (int p = 0; p < paths; p++) {
+                    sum += payoff[p] * score[p];
+                }
+                acc.deltaSums[i] += scale * sum;
+            }
+            return;
+        }
+
+        for (int p = 0; p < paths; p++) {
+            payoff[p] = 100 * Math.max(level[p] - strike, 0);
+        }
+        // Pathwise: 100 x 1{level > K} x dlevel/dperformance_i x performance_i / S_i
+        if (setup.aggregation == Aggregation.BASKET) {
+            for (int i = 0; i < assets; i++) {
+                double[] in = performance[i];
+                double sum = 0;
+                for (int p = 0; p < paths; p++) {
+                    if (level[p] > strike) {
+                        sum += in[p];
+                    }
+                }
+                acc.deltaSums[i] += 100 * setup.weights[i] / setup.spots[i] * sum;
+            }
+        } else {
+            for (int p = 0; p < paths; p++) {
+                if (level[p] > strike) {
+                    int i = extreme[p];
+                    acc.deltaSums[i] += 100 * level[p] / setup.spots[i];
+                }
+            }
+        }
+    }
+
+    private enum Aggregation { BASKET, WORST_OF, BEST_OF }
+
+    /**
+     * Validated per-request constants of the simulation.
+     */
+    private static final class BasketSetup {
+        final int assets;
+        final Aggregation aggregation;
+        final boolean digital;
+        final boolean antithetic;
+        final String[] names;
+        final double[] spots;
+        final double[] weights;
+        final double[] drifts;
+        final double[] diffusions;
+        final double[] scoreScales;
+        final double strike;
+        final double cash;
+        final double discount;
+        final CholeskyFactor factor;
+
+        BasketSetup(BasketPricingRequest request, CorrelationCache correlationCache) {
+            aggregation = switch (request.getProductType().toLowerCase()) {
+                case BASKET_OPTION -> Aggregation.BASKET;
+                case WORST_OF_OPTION -> Aggregation.WORST_OF;
+                case BEST_OF_OPTION -> Aggregation.BEST_OF;
+                default -> throw new IllegalArgumentException("Unsupported multi-asset product type: " + request.getProductType());
+            };
+            String payoffType = request.getPayoffType() != null ? request.getPayoffType().toLowerCase() : "call";
+            if (!payoffType.equals("call") && !payoffType.equals("digital")) {
+                throw new IllegalArgumentException("Payoff type must be call or digital");
+            }
+            digital = payoffType.equals("digital");
+            if (digital && request.getCoupon() == null) {
+                throw new IllegalArgumentException("Digital payoffs need a coupon");
+            }
+            antithetic = Boolean.TRUE.equals(request.getAntitheticVariates());
+
+            List<Double> spotPrices = request.getSpotPrices();
+            assets = spotPrices != null ? spotPrices.size() : 0;
+            if (assets == 0) {
+                throw new IllegalArgumentException("At least one underlying is required");
+            }
+            List<Double> volatilities = request.getVolatilities();
+            if (volatilities == null || volatilities.size() != assets) {
+                throw new IllegalArgumentException("One volatility per underlying is required");
+            }
+            if (request.getWeights() != null && request.getWeights().size() != assets) {
+                throw new IllegalArgumentException("One weight per underlying is required");
+            }
+            if (request.getUnderlyings() != null && request.getUnderlyings().size() != assets) {
+                throw new IllegalArgumentException("One symbol per underlying is required");
+            }
+            double timeToMaturity = request.getTimeToMaturity();
+            if (!(timeToMaturity > 0)) {
+                throw new IllegalArgumentException("Time to maturity must be positive");
+            }
+            if (request.getRiskFreeRate() == null) {
+                throw new IllegalArgumentException("Risk-free rate is required");
+            }
+            double rate = request.getRiskFreeRate();
+            double sqrtT = Math.sqrt(timeToMaturity);
+
+            names = new String[assets];
+            spots = new double[assets];
+            weights = new double[assets];
+            drifts = new double[assets];
+            diffusions = new double[assets];
+            scoreScales = new double[assets];
+            for (int i = 0; i < assets; i++) {
+                Double spot = spotPrices.get(i);
+                Double volatility = volatilities.get(i);
+                if (spot == null || !(spot > 0)) {
+                    throw new IllegalArgumentException("Spot prices must be positive");
+                }
+                if (volatility == null || !(volatility > 0)) {
+                    throw new IllegalArgumentException("Volatilities must be positive");
+                }
+                names[i] = request.getUnderlyings() != null ? request.getUnderlyings().get(i) : String.valueOf(i);
+                spots[i] = spot;
+                weights[i] = request.getWeights() != null ? request.getWeights().get(i) : 1.0 / assets;
+                drifts[i] = (rate - 0.5 * volatility * volatility) * timeToMaturity;
+                diffusions[i] = volatility * sqrtT;
+                scoreScales[i] = 1 / (spot * volatility * sqrtT);
+            }
+
+            strike = request.getStrike();
+            cash = digital ? request.getCoupon() * 100 : 0;
+            discount = Math.exp(-rate * timeToMaturity);
+            factor = correlationCache.factor(correlationMatrix(request.getCorrelations(), assets));
+        }
+
+        private static double[][] correlationMatrix(List<List<Double>> correlations, int assets) {
+            double[][] matrix = new double[assets][assets];
+            if (correlations == null) {
+                for (int i = 0; i < assets; i++) {
+                    matrix[i][i] = 1;
+                }
+                return matrix;
+            }
+            if (correlations.size() != assets) {
+                throw new IllegalArgumentException("Correlation matrix must have one row per underlying");
+            }
+            for (int i = 0; i < assets; i++) {
+                List<Double> row = correlations.get(i);
+                if (row == null || row.size() != assets) {
+                    throw new IllegalArgumentException("Correlation matrix must have one column per underlying");
+                }
+                for (int j = 0; j < assets; j++) {
+                    if (row.get(j) == null) {
+                        throw new IllegalArgumentException("Correlation matrix must not contain nulls");
+                    }
+                    matrix[i][j] = row.get(j);
+                }
+            }
+            return matrix;
+        }
+    }
+
+    /**
+     * Undiscounted price samples and delta sums of one chunk.
+     */
+    private static final class BasketAccumulator implements MonteCarloEngine.Accumulator<BasketAccumulator> {
+        final PathStatistics samples = new PathStatistics();
+        final double[] deltaSums;
+
+        BasketAccumulator(int assets) {
+            deltaSums = new double[assets];
+        }
+
+        @Override
+        public void merge(BasketAccumulator other) {
+            samples.merge(other.samples);
+            for (int i = 0; i < deltaSums.length; i++) {
+                deltaSums[i] += other.deltaSums[i];
+            }
+        }
+    }
+
+    /**
+     * Asset-major scratch arrays of one worker thread, grown to the most underlyings seen.
+     */
+    private static final class BlockBuffers {
+        double[][] shocks = new double[0][];
+        double[][] correlated = new double[0][];
+        double[][] performance = new double[0][];
+        final double[] level = new double[BLOCK_SIZE];
+        final int[] extreme = new int[BLOCK_SIZE];
+        final double[] payoff = new double[BLOCK_SIZE];
+        final double[] mirrorPayoff = new double[BLOCK_SIZE];
+
+        void ensureAssets(int assets) {
+            if (shocks.length < assets) {
+                shocks = new double[assets][BLOCK_SIZE];
+                correlated = new double[assets][BLOCK_SIZE];
+                performance = new double[assets][BLOCK_SIZE];
+            }
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.quantcrux.pricing;
+
+/**
+ * Standard normal density and distribution functions used by the pricing models.
+ */
+public final class NormalMath {
+
+    private static final double INV_SQRT_2PI = 0.3989422804014327;
+    private static final double SQRT_2PI = 2.5066282746310002;
+
+    // Acklam's rational approximation of the inverse normal distribution
+    private static final double[] A = {
+        -3.969683028665376e+01, 2.209460984245205e+02, -2.759285104469687e+02,
+        1.383577518672690e+02, -3.066479806614716e+01, 2.506628277459239e+00
+    };
+    private static final double[] B = {
+        -5.447609879822406e+01, 1.615858368580409e+02, -1.556989798598866e+02,
+        6.680131188771972e+01, -1.328068155288572e+01
+    };
+    private static final double[] C = {
+        -7.784894002430293e-03, -3.223964580411365e-01, -2.400758277161838e+00,
+        -2.549732539343734e+00, 4.374664141464968e+00, 2.938163982698783e+00
+    };
+    private static final double[] D = {
+        7.784695709041462e-03, 3.224671290700398e-01, 2.445134137142996e+00, 3.754408661907416e+00
+    };
+    private static final double P_LOW = 0.02425;
+
+    private NormalMath() {}
+
+    public static double pdf(double x) {
+        return INV_SQRT_2PI * Math.exp(-0.5 * x * x);
+    }
+
+    /**
+     * Cumulative normal distribution, Hart's double precision approximation (West, 2005).
+     */
+    public static double cdf(double x) {
+        double xAbs = Math.abs(x);
+        double c;
+        if (xAbs > 37) {
+            c = 0;
+        } else {
+            double e = Math.exp(-xAbs * xAbs / 2);
+            if (xAbs < 7.07106781186547) {
+                double b = 3.52624965998911E-02 * xAbs + 0.700383064443688;
+                b = b * xAbs + 6.37396220353165;
+                b = b * xAbs + 33.912866078383;
+                b = b * xAbs + 112.079291497871;
+                b = b * xAbs + 221.213596169931;
+                b = b * xAbs + 220.206867912376;
+                c = e * b;
+                b = 8.83883476483184E-02 * xAbs + 1.75566716318264;
+                b = b * xAbs + 16.064177579207;
+                b = b * xAbs + 86.7807322029461;
+                b = b * xAbs + 296.564248779674;
+                b = b * xAbs + 637.333633378831;
+                b = b * xAbs + 793.826512519948;
+                b = b * xAbs + 440.413735824752;
+                c = c / b;
+            } else {
+                double b = xAbs + 0.65;
+                b = xAbs + 4 / b;
+                b = xAbs + 3 / b;
+                b = xAbs + 2 / b;
+                b = xAbs + 1 / b;
+                c = e / b / 2.506628274631;
+            }
+        }
+        return x > 0 ? 1 - c : c;
+    }
+
+    /**
+     * Inverse cumulative normal for p in (0, 1): Acklam's approximation polished with one
+     * Halley step against {@link #cdf}.
+     */
+    public static double inverseCdf(double p) {
+        double x;
+        if (p < P_LOW) {
+            double q = Math.sqrt(-2 * Math.log(p));
+            x = (((((C[0] * q + C[1]) * q + C[2]) * q + C[3]) * q + C[4]) * q + C[5])
+                / ((((D[0] * q + D[1]) * q + D[2]) * q + D[3]) * q + 1);
+        } else if (p <= 1 - P_LOW) {
+            double q = p - 0.5;
+            double r = q * q;
+            x = (((((A[0] * r + A[1]) * r + A[2]) * r + A[3]) * r + A[4]) * r + A[5]) * q
+                / (((((B[0] * r + B[1]) * r + B[2]) * r + B[3]) * r + B[4]) * r + 1);
+        } else {
+            double q = Math.sqrt(-2 * Math.log(1 - p));
+            x = -(((((C[0] * q + C[1]) * q + C[2]) * q + C[3]) * q + C[4]) * q + C[5])
+                / ((((D[0] * q + D[1]) * q + D[2]) * q + D[3]) * q + 1);
+        }
+
+        double e = cdf(x) - p;
+        double u = e * SQRT_2PI * Math.exp(0.5 * x * x);
+        return x - u / (1 + 0.5 * x * u);
+    }
+}
@@ -0,0 +1,46 @@
+package com.quantcrux.pricing;
+
+import java.util.SplittableRandom;
+
+/**
+ * Block operations of single-step path generation: standard normal shocks (Box-Muller from
+ * uniform draws) and terminal prices spot * exp(drift + diffusion * z).
+ *
+ * VectorPathKernel runs them in SIMD lanes through jdk.incubator.vector. It lives in
+ * src/simd/java and is only compiled by the simd Maven profile, so the default build never
+ * touches the incubator module. {@link ScalarPathKernel} computes the same formulas one value
+ * at a time and is used when the class or the module is not available. Both consume the
+ * random stream identically, so they agree up to the last-bit rounding of exp, log, sin and
+ * cos; benchmarks/PathKernelEquivalence checks that they do.
+ */
+public interface PathKernel {
+
+    String getName();
+
+    /**
+     * Fill out[0, count) with standard normals drawn from rng; uniforms is scratch space of
+     * at least count + 1 values.
+     */
+    void gaussians(SplittableRandom rng, double[] out, int count, double[] uniforms);
+
+    /**
+     * out[i] = spot * exp(drift + diffusion * shocks[i]) for i in [0, count).
+     */
+    void terminalPrices(double[] shocks, int count, double spot, double drift, double diffusion, double[] out);
+
+    /**
+     * The vector kernel when requested, built with -Psimd and the JVM was started with
+     * --add-modules jdk.incubator.vector, else the scalar kernel.
+     */
+    static PathKernel select(boolean vectorized) {
+        if (vectorized) {
+            try {
+                return (PathKernel) Class.forName("com.quantcrux.pricing.VectorPathKernel")
+                    .getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                // Not built with -Psimd, or the incubator module is not resolved in this JVM
+            }
+        }
+        return new ScalarPathKernel();
+    }
+}
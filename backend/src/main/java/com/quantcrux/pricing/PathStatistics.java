@@ -0,0 +1,50 @@
+package com.quantcrux.pricing;
+
+/**
+ * Streaming mean/variance accumulator (Welford) for simulated payoffs.
+ * Partial accumulators from different chunks are combined with {@link #merge}.
+ */
+public final class PathStatistics implements MonteCarloEngine.Accumulator<PathStatistics> {
+
+    private long count;
+    private double mean;
+    private double m2;
+
+    public void add(double value) {
+        count++;
+        double delta = value - mean;
+        mean += delta / count;
+        m2 += delta * (value - mean);
+    }
+
+    @Override
+    public void merge(PathStatistics other) {
+        if (other.count == 0) {
+            return;
+        }
+        if (count == 0) {
+            count = other.count;
+            mean = other.mean;
+            m2 = other.m2;
+            return;
+        }
+        long total = count + other.count;
+        double delta = other.mean - mean;
+        mean += delta * other.count / total;
+        m2 += other.m2 + delta * delta * ((double) count * other.count / total);
+        count = total;
+    }
+
+    public long getCount() { return count; }
+
+    public double getMean() { return mean; }
+
+    /**
+     * Population variance of the accumulated values.
+     */
+    public double getVariance() { return count > 0 ? m2 / count : 0; }
+
+    public double getStandardDeviation() { return Math.sqrt(getVariance()); }
+
+    public double getStandardError() { return count > 0 ? getStandardDeviation() / Math.sqrt(count) : 0; }
+}
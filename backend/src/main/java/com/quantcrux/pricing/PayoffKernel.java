@@ -0,0 +1,90 @@
+package com.quantcrux.pricing;
+
+import com.quantcrux.dto.PricingRequest;
+
+/**
+ * Terminal payoff of a product, compiled once from its definition so the Monte Carlo path
+ * loop works on primitive fields instead of re-reading the request for every path.
+ *
+ * A barrier_option whose barrier is only checked at maturity pays when the terminal price is
+ * above both strike and barrier, which is a digital struck at the higher of the two.
+ */
+public sealed interface PayoffKernel permits PayoffKernel.Call, PayoffKernel.Digital {
+
+    double payoff(double finalPrice);
+
+    /**
+     * dPayoff/dS_T, only meaningful when {@link #isContinuous} is true.
+     */
+    double slope(double finalPrice);
+
+    /**
+     * Whether the payoff is continuous in S_T, so pathwise Greeks apply.
+     */
+    boolean isContinuous();
+
+    static PayoffKernel compile(PricingRequest request) {
+        double strike = request.getStrike();
+        double cash = request.getCoupon() != null ? request.getCoupon() * 100 : 0;
+        return switch (request.getProductType().toLowerCase()) {
+            case "digital_option" -> new Digital(strike, cash);
+            case "barrier_option" -> new Digital(
+                request.getBarrier() != null ? Math.max(strike, request.getBarrier()) : strike, cash);
+            default -> new Call(strike);
+        };
+    }
+
+    /**
+     * Vanilla call, max(S_T - K, 0).
+     */
+    final class Call implements PayoffKernel {
+        private final double strike;
+
+        public Call(double strike) {
+            this.strike = strike;
+        }
+
+        @Override
+        public double payoff(double finalPrice) {
+            return Math.max(finalPrice - strike, 0);
+        }
+
+        @Override
+        public double slope(double finalPrice) {
+            return finalPrice > strike ? 1 : 0;
+        }
+
+        @Override
+        public boolean isContinuous() {
+            return true;
+        }
+    }
+
+    /**
+     * Cash-or-nothing call: pays cash when S_T finishes strictly above the strike.
+     */
+    final class Digital implements PayoffKernel {
+        private final double strike;
+        private final double cash;
+
+        public Digital(double strike, double cash) {
+            this.strike = strike;
+            this.cash = cash;
+        }
+
+        @Override
+        public double payoff(double finalPrice) {
+            return finalPrice > strike ? cash : 0;
+        }
+
+        @Override
+        public double slope(double finalPrice) {
+            return 0;
+        }
+
+        @Override
+        public boolean isContinuous() {
+            return false;
+        }
+    }
+}
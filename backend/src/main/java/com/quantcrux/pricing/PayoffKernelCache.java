@@ -0,0 +1,57 @@
+package com.quantcrux.pricing;
+
+import com.quantcrux.dto.PricingRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compiled {@link PayoffKernel}s by product id. Requests without a productId are compiled
+ * on every call; a cached kernel is recompiled if the request's terms differ from the terms
+ * it was compiled from.
+ */
+@Component
+public class PayoffKernelCache {
+
+    private final Map<Long, Entry> kernels = new ConcurrentHashMap<>();
+
+    public PayoffKernel get(PricingRequest request) {
+        Long productId = request.getProductId();
+        if (productId == null) {
+            return PayoffKernel.compile(request);
+        }
+        List<Object> terms = terms(request);
+        Entry entry = kernels.get(productId);
+        if (entry == null || !entry.terms.equals(terms)) {
+            entry = new Entry(terms, PayoffKernel.compile(request));
+            kernels.put(productId, entry);
+        }
+        return entry.kernel;
+    }
+
+    public void evict(Long productId) {
+        kernels.remove(productId);
+    }
+
+    public int size() {
+        return kernels.size();
+    }
+
+    private static List<Object> terms(PricingRequest request) {
+        return List.of(request.getProductType().toLowerCase(), request.getStrike(),
+                       Objects.toString(request.getBarrier()), Objects.toString(request.getCoupon()));
+    }
+
+    private static final class Entry {
+        final List<Object> terms;
+        final PayoffKernel kernel;
+
+        Entry(List<Object> terms, PayoffKernel kernel) {
+            this.terms = terms;
+            this.kernel = kernel;
+        }
+    }
+}
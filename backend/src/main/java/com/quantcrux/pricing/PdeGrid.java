@@ -0,0 +1,104 @@
+package com.quantcrux.pricing;
+
+import java.util.Arrays;
+
+/**
+ * Non-uniform spot grids for the finite-difference engine.
+ *
+ * Node density is a sum of sinh-type bumps, one per critical point (spot, strike,
+ * barrier), each of width alpha; its integral is a sum of asinh terms, so nodes are placed
+ * by inverting that mass function. Every critical point is an exact node, which keeps the
+ * payoff kink or jump and the barrier on the grid and lets Greeks be read at the spot node.
+ */
+final class PdeGrid {
+
+    private static final int MAX_INVERSION_STEPS = 60;
+
+    private PdeGrid() {}
+
+    /**
+     * About intervals + 1 nodes from lower to upper, both included, clustered around the
+     * critical points inside (lower, upper).
+     */
+    static double[] build(double lower, double upper, double[] criticalPoints, double alpha, int intervals) {
+        double[] breaks = new double[criticalPoints.length + 2];
+        int count = 0;
+        breaks[count++] = lower;
+        double[] sorted = criticalPoints.clone();
+        Arrays.sort(sorted);
+        for (double point : sorted) {
+            if (point > breaks[count - 1] && point < upper) {
+                breaks[count++] = point;
+            }
+        }
+        breaks[count++] = upper;
+
+        double totalMass = mass(upper, sorted, alpha) - mass(lower, sorted, alpha);
+        double[] nodes = new double[intervals + 2 * count];
+        int n = 0;
+        for (int k = 0; k + 1 < count; k++) {
+            double from = breaks[k];
+            double to = breaks[k + 1];
+            double massFrom = mass(from, sorted, alpha);
+            double segmentMass = mass(to, sorted, alpha) - massFrom;
+            int segmentIntervals = Math.max(1, (int) Math.round(intervals * segmentMass / totalMass));
+            nodes[n++] = from;
+            double previous = from;
+            for (int j = 1; j < segmentIntervals; j++) {
+                previous = invert(massFrom + segmentMass * j / segmentIntervals, previous, to, sorted, alpha);
+                nodes[n++] = previous;
+            }
+        }
+        nodes[n++] = upper;
+        return Arrays.copyOf(nodes, n);
+    }
+
+    /**
+     * Index of an exact node value, or -1.
+     */
+    static int indexOf(double[] grid, double value) {
+        int index = Arrays.binarySearch(grid, value);
+        return index >= 0 ? index : -1;
+    }
+
+    private static double mass(double x, double[] points, double alpha) {
+        double total = 0;
+        for (double point : points) {
+            double u = (x - point) / alpha;
+            total += Math.copySign(Math.log(Math.abs(u) + Math.sqrt(u * u + 1)), u);
+        }
+        return total;
+    }
+
+    private static double density(double x, double[] points, double alpha) {
+        double total = 0;
+        for (double point : points) {
+            double u = (x - point) / alpha;
+            total += 1 / (alpha * Math.sqrt(u * u + 1));
+        }
+        return total;
+    }
+
+    /**
+     * Point in (lo, hi) where the mass reaches target: Newton steps, bisecting whenever a
+     * step leaves the bracket.
+     */
+    private static double invert(double target, double lo, double hi, double[] points, double alpha) {
+        double x = 0.5 * (lo + hi);
+        for (int i = 0; i < MAX_INVERSION_STEPS; i++) {
+            double f = mass(x, points, alpha) - target;
+            if (f > 0) {
+                hi = x;
+            } else {
+                lo = x;
+            }
+            double next = x - f / density(x, points, alpha);
+            next = next > lo && next < hi ? next : 0.5 * (lo + hi);
+            if (Math.abs(next - x) <= 1e-14 * Math.max(1, Math.abs(x))) {
+                return next;
+            }
+            x = next;
+        }
+        return x;
+    }
+}
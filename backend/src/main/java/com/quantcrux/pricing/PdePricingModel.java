@@ -0,0 +1,501 @@
+package com.quantcrux.pricing;
+
+import com.quantcrux.dto.PricingRequest;
+import com.quantcrux.dto.PricingResult;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Crank-Nicolson finite-difference pricer for the single-underlying payoffs of
+ * {@link AnalyticPricingModel}, with American and Bermudan exercise.
+ *
+ * The Black-Scholes PDE is solved backwards from the payoff on a non-uniform spot grid
+ * ({@link PdeGrid}) with exact nodes at spot, strike and barrier. The first step and the
+ * step after every knock-out or exercise date are split into two fully implicit half steps
+ * (Rannacher) so that payoff jumps do not ring. Continuous barriers are grid boundaries;
+ * discrete ones are applied at their observation dates. An up-and-in is two layers: the
+ * knocked-in digital, and the not-yet-touched value that takes it over at the barrier.
+ * American exercise is solved inside each step by Brennan-Schwartz (every payoff here is
+ * exercised at high spot), Bermudan exercise by taking the payoff at each exercise date;
+ * the holder of an up-and-in exercises only once knocked in.
+ *
+ * Delta and gamma are read off the grid at the spot node, theta from the time layer one
+ * day before today; vega reprices one vol point either side on the same grid. Requests
+ * with early exercise are always routed here; pricing.pde.product-types routes whole
+ * product types here as well.
+ */
+@Component
+@Order(0)
+public class PdePricingModel implements PricingModel {
+
+    public static final String EXERCISE_EUROPEAN = "european";
+    public static final String EXERCISE_AMERICAN = "american";
+    public static final String EXERCISE_BERMUDAN = "bermudan";
+
+    private static final double ONE_DAY = 1.0 / 365.0;
+    private static final double VOL_POINT = 0.01;
+    // Grid reaches this many standard deviations of log spot beyond the critical points
+    private static final double STD_DEVS = 5.0;
+    private static final double MAX_LOG_WIDTH = 10.0;
+    // Width of node clustering around each critical point, in standard deviations
+    private static final double CONCENTRATION = 0.1;
+
+    @Value("${pricing.pde.space-steps:400}")
+    private int spaceSteps;
+
+    @Value("${pricing.pde.time-steps:400}")
+    private int timeSteps;
+
+    @Value("${pricing.pde.product-types:}")
+    private String[] productTypes;
+
+    private Set<String> routedProductTypes = Set.of();
+
+    // Per-worker operator, layer and solver buffers, grown to the largest grid seen
+    private final ThreadLocal<Workspace> workspaces = ThreadLocal.withInitial(Workspace::new);
+
+    @PostConstruct
+    public void init() {
+        Set<String> types = new HashSet<>();
+        if (productTypes != null) {
+            for (String type : productTypes) {
+                if (!type.isBlank()) {
+                    types.add(type.trim().toLowerCase());
+                }
+            }
+        }
+        routedProductTypes = types;
+    }
+
+    @Override
+    public String getName() {
+        return "pde";
+    }
+
+    @Override
+    public boolean supports(PricingRequest request) {
+        return request.getVolatility() > 0 && request.getTimeToMaturity() > 0
+            && request.getSpotPrice() > 0 && request.getStrike() > 0
+            && (isEarlyExercise(request) || routedProductTypes.contains(request.getProductType().toLowerCase()));
+    }
+
+    public static boolean isEarlyExercise(PricingRequest request) {
+        return request.getExerciseStyle() != null && !EXERCISE_EUROPEAN.equalsIgnoreCase(request.getExerciseStyle());
+    }
+
+    @Override
+    public PricingResult price(PricingRequest request) {
+        double vol = request.getVolatility();
+        Problem problem = new Problem(request, vol, spaceSteps);
+        Workspace workspace = workspaces.get();
+
+        double price = 0;
+        double delta = 0;
+        double gamma = 0;
+        double vega = 0;
+        double theta = 0;
+        if (!problem.knockedOut) {
+            price = solve(problem, vol, workspace);
+            double[] grid = problem.grid;
+            double[] values = problem.upAndIn ? workspace.notIn : workspace.main;
+            int s = problem.spotIndex;
+            double down = grid[s] - grid[s - 1];
+            double up = grid[s + 1] - grid[s];
+            delta = (-up / (down * (down + up))) * values[s - 1] + ((up - down) / (down * up)) * values[s]
+                + (down / (up * (down + up))) * values[s + 1];
+            gamma = 2 * (values[s - 1] / (down * (down + up)) - values[s] / (down * up)
+                + values[s + 1] / (up * (down + up)));
+            theta = workspace.thetaValue - price;
+            vega = vol > VOL_POINT
+                ? 0.5 * (solve(problem, vol + VOL_POINT, workspace) - solve(problem, vol - VOL_POINT, workspace))
+                : solve(problem, vol + VOL_POINT, workspace) - price;
+        }
+
+        Map<String, Double> greeks = new HashMap<>();
+        greeks.put("delta", Math.round(delta * 10000.0) / 10000.0);
+        greeks.put("gamma", Math.round(gamma * 10000.0) / 10000.0);
+        greeks.put("vega", Math.round(vega * 10000.0) / 10000.0);
+        greeks.put("theta", Math.round(theta * 10000.0) / 10000.0);
+
+        PricingResult result = new PricingResult(price, greeks, 0.0, 0);
+        result.setPricingModel(getName());
+        return result;
+    }
+
+    /**
+     * Price only, at volatility vol in place of the request's; the grid is laid out for vol.
+     */
+    public double value(PricingRequest request, double vol) {
+        Problem problem = new Problem(request, vol, spaceSteps);
+        return problem.knockedOut ? 0 : solve(problem, vol, workspaces.get());
+    }
+
+    /**
+     * March from maturity back to today; returns the value at the spot node and leaves the
+     * layers and the one-day theta value in the workspace.
+     */
+    private double solve(Problem problem, double vol, Workspace workspace) {
+        double[] grid = problem.grid;
+        int last = grid.length - 1;
+        workspace.ensureCapacity(grid.length);
+        buildOperator(grid, vol, problem.rate, workspace);
+
+        double[] main = workspace.main;
+        double[] notIn = workspace.notIn;
+        int mainFrom = problem.continuous && problem.downAndOut ? problem.barrierIndex : 0;
+        // A continuous barrier node is knocked out, never exercised
+        int exerciseFrom = problem.continuous && problem.downAndOut ? mainFrom + 1 : mainFrom;
+        for (int i = 0; i <= last; i++) {
+            main[i] = problem.payoff(grid[i], true);
+            workspace.exercise[i] = i >= exerciseFrom ? problem.payoff(grid[i], false) : 0;
+        }
+        int notInTo = last;
+        if (problem.upAndIn) {
+            notInTo = problem.continuous ? problem.barrierIndex : last;
+            Arrays.fill(notIn, 0, last + 1, 0.0);
+        }
+        if (problem.continuous) {
+            if (problem.downAndOut) {
+                Arrays.fill(main, 0, problem.barrierIndex + 1, 0.0);
+            } else {
+                System.arraycopy(main, problem.barrierIndex, notIn, problem.barrierIndex, last - problem.barrierIndex + 1);
+            }
+        } else if (problem.barrierIndex >= 0) {
+            // Maturity is the last observation
+            observe(problem, grid, main, notIn);
+        }
+        double[] priced = problem.upAndIn ? notIn : main;
+        workspace.thetaValue = priced[problem.spotIndex];
+
+        double[] events = problem.events;
+        double tau = 0;
+        boolean damp = true;
+        for (double event : events) {
+            double length = event - tau;
+            int steps = Math.max(1, (int) Math.ceil(timeSteps * length / problem.maturity - 1e-9));
+            double dt = length / steps;
+            for (int n = 0; n < steps; n++) {
+                if (damp) {
+                    // Rannacher start: two implicit half steps
+                    advance(problem, workspace, mainFrom, notInTo, tau, 0.5 * dt, 1.0);
+                    advance(problem, workspace, mainFrom, notInTo, tau + 0.5 * dt, 0.5 * dt, 1.0);
+                    damp = false;
+                } else {
+                    advance(problem, workspace, mainFrom, notInTo, tau, dt, 0.5);
+                }
+                tau = n + 1 == steps ? event : tau + dt;
+            }
+            // Exercise before the knock-out check, so a knocked-out node stays out
+            if (problem.isExerciseDate(event)) {
+                for (int i = exerciseFrom; i <= last; i++) {
+                    main[i] = Math.max(main[i], workspace.exercise[i]);
+                }
+                if (!problem.call && problem.strikeIndex >= Math.max(exerciseFrom, 2)) {
+                    // The digital jumps at the strike on the exercise date: cell average there
+                    int k = problem.strikeIndex;
+                    main[k] = 0.5 * (extrapolate(main, grid, k, -1) + workspace.exercise[k]);
+                }
+                damp = true;
+            }
+            if (problem.isObservation(event)) {
+                observe(problem, grid, main, notIn);
+                damp = true;
+            }
+            if (event == problem.thetaTau) {
+                workspace.thetaValue = priced[problem.spotIndex];
+            }
+        }
+        return priced[problem.spotIndex];
+    }
+
+    /**
+     * One theta-scheme step of dt from tau; the not-yet-touched layer follows the main layer
+     * so that its barrier boundary sees the main value at the new time.
+     */
+    private void advance(Problem problem, Workspace workspace, int mainFrom, int notInTo,
+                         double tau, double dt, double theta) {
+        double next = tau + dt;
+        double[] grid = problem.grid;
+        int last = grid.length - 1;
+        step(workspace.main, mainFrom, last, dt, theta, 0, problem.upperBoundary(grid[last], next),
+             problem.american ? workspace.exercise : null, workspace);
+        if (problem.upAndIn) {
+            step(workspace.notIn, 0, notInTo, dt, theta, 0, workspace.main[notInTo], null, workspace);
+        }
+    }
+
+    /**
+     * (I - theta dt L) v' = (I + (1 - theta) dt L) v on nodes (from, to), with Dirichlet
+     * values at from and to; with an exercise payoff, v' is kept above it.
+     */
+    private void step(double[] values, int from, int to, double dt, double theta,
+                      double lowerValue, double upperValue, double[] exercise, Workspace workspace) {
+        double[] a = workspace.a;
+        double[] b = workspace.b;
+        double[] c = workspace.c;
+        double implicit = theta * dt;
+        double explicit = (1 - theta) * dt;
+        for (int i = from + 1; i < to; i++) {
+            workspace.rhs[i] = values[i] + explicit * (a[i] * values[i - 1] + b[i] * values[i] + c[i] * values[i + 1]);
+            workspace.lower[i] = -implicit * a[i];
+            workspace.diag[i] = 1 - implicit * b[i];
+            workspace.upper[i] = -implicit * c[i];
+        }
+        workspace.rhs[from + 1] -= workspace.lower[from + 1] * lowerValue;
+        workspace.rhs[to - 1] -= workspace.upper[to - 1] * upperValue;
+        workspace.solver.solve(workspace.lower, workspace.diag, workspace.upper, workspace.rhs, values,
+                               from + 1, to - 1, exercise);
+        values[from] = lowerValue;
+        values[to] = upperValue;
+    }
+
+    /**
+     * L v = a v[i-1] + b v[i] + c v[i+1] for 0.5 vol^2 S^2 v'' + r S v' - r v on the
+     * non-uniform grid; the drift falls back to a forward difference where the central one
+     * would make a negative.
+     */
+    private static void buildOperator(double[] grid, double vol, double rate, Workspace workspace) {
+        for (int i = 1; i < grid.length - 1; i++) {
+            double down = grid[i] - grid[i - 1];
+            double up = grid[i + 1] - grid[i];
+            double diffusion = 0.5 * vol * vol * grid[i] * grid[i];
+            double drift = rate * grid[i];
+            double a = 2 * diffusion / (down * (down + up));
+            double c = 2 * diffusion / (up * (down + up));
+            double b = -a - c - rate;
+            if (a - drift * up / (down * (down + up)) >= 0) {
+                b += drift * (up - down) / (down * up);
+                a -= drift * up / (down * (down + up));
+                c += drift * down / (up * (down + up));
+            } else {
+                b -= drift / up;
+                c += drift / up;
+            }
+            workspace.a[i] = a;
+            workspace.b[i] = b;
+            workspace.c[i] = c;
+        }
+    }
+
+    /**
+     * Discrete barrier observation: the down-and-out is knocked out at and below the barrier,
+     * the up-and-in knocked in at and above it. The barrier node takes the average of the
+     * values either side of the jump.
+     */
+    private static void observe(Problem problem, double[] grid, double[] main, double[] notIn) {
+        int k = problem.barrierIndex;
+        if (problem.downAndOut) {
+            double above = extrapolate(main, grid, k, 1);
+            Arrays.fill(main, 0, k + 1, 0.0);
+            main[k] = 0.5 * above;
+        } else {
+            double below = extrapolate(notIn, grid, k, -1);
+            System.arraycopy(main, k, notIn, k, grid.length - k);
+            notIn[k] = 0.5 * (below + main[k]);
+        }
+    }
+
+    /**
+     * Value at node k extrapolated linearly from the two nodes on one side of it (side +1
+     * above, -1 below).
+     */
+    private static double extrapolate(double[] values, double[] grid, int k, int side) {
+        int near = k + side;
+        int far = k + 2 * side;
+        return values[near] + (values[far] - values[near]) / (grid[far] - grid[near]) * (grid[k] - grid[near]);
+    }
+
+    /**
+     * Observation dates per year of an exerciseFrequency.
+     */
+    private static int exerciseDatesPerYear(String frequency) {
+        if (frequency == null) {
+            return 12;
+        }
+        return switch (frequency.toLowerCase()) {
+            case BarrierMonitoring.DAILY -> 252;
+            case BarrierMonitoring.WEEKLY -> 52;
+            case BarrierMonitoring.MONTHLY -> 12;
+            case "quarterly" -> 4;
+            default -> throw new IllegalArgumentException("Unknown exercise frequency: " + frequency);
+        };
+    }
+
+    /**
+     * Contract terms in grid form: payoff, barrier handling, the grid itself and the times
+     * (as time to maturity) at which the march has to stop.
+     */
+    private static final class Problem {
+        final boolean call;
+        final double strike;
+        final double cash;
+        final double rate;
+        final double maturity;
+        final boolean downAndOut;
+        final boolean upAndIn;
+        final boolean continuous;
+        final boolean knockedOut;
+        final boolean american;
+        final double thetaTau;
+        final double[] grid;
+        final int spotIndex;
+        final int strikeIndex;
+        final int barrierIndex;
+        final double[] events;
+        private final double observationInterval;
+        private final double exerciseInterval;
+
+        Problem(PricingRequest request, double vol, int spaceSteps) {
+            AnalyticPricingModel.Terms terms = new AnalyticPricingModel.Terms(request);
+            double spot = request.getSpotPrice();
+            Double barrier = terms.productType.equals("barrier_option") ? request.getBarrier() : null;
+            call = !terms.productType.equals("digital_option") && !terms.productType.equals("barrier_option");
+            strike = terms.strike;
+            cash = request.getCoupon() != null ? request.getCoupon() * 100 : 0;
+            rate = request.getRiskFreeRate();
+            maturity = request.getTimeToMaturity();
+            downAndOut = barrier != null && barrier <= spot;
+            upAndIn = barrier != null && !downAndOut;
+            continuous = barrier != null && terms.discreteSteps == 0;
+            knockedOut = downAndOut && spot <= barrier;
+
+            String style = request.getExerciseStyle() != null ? request.getExerciseStyle().toLowerCase() : EXERCISE_EUROPEAN;
+            if (!style.equals(EXERCISE_EUROPEAN) && !style.equals(EXERCISE_AMERICAN) && !style.equals(EXERCISE_BERMUDAN)) {
+                throw new IllegalArgumentException("Unknown exercise style: " + request.getExerciseStyle());
+            }
+            american = style.equals(EXERCISE_AMERICAN);
+            int exerciseDates = style.equals(EXERCISE_BERMUDAN)
+                ? Math.max(1, (int) Math.round(maturity * exerciseDatesPerYear(request.getExerciseFrequency()))) : 0;
+            exerciseInterval = exerciseDates > 0 ? maturity / exerciseDates : 0;
+            observationInterval = barrier != null && !continuous ? maturity / terms.discreteSteps : 0;
+            thetaTau = maturity - ONE_DAY;
+
+            double stdDev = vol * Math.sqrt(maturity);
+            double reach = Math.max(spot, strike);
+            double floor = 0;
+            if (barrier != null) {
+                reach = Math.max(reach, barrier);
+                if (continuous && downAndOut) {
+                    floor = barrier;
+                }
+            }
+            double upper = reach * Math.exp(Math.min(STD_DEVS * stdDev + Math.max(rate, 0) * maturity, MAX_LOG_WIDTH));
+            double alpha = Math.max(CONCENTRATION * stdDev, 1e-3) * spot;
+            double[] critical = barrier != null ? new double[] {spot, strike, barrier} : new double[] {spot, strike};
+            grid = PdeGrid.build(floor, upper, critical, alpha, spaceSteps);
+            spotIndex = PdeGrid.indexOf(grid, spot);
+            strikeIndex = PdeGrid.indexOf(grid, strike);
+            barrierIndex = barrier != null ? PdeGrid.indexOf(grid, barrier) : -1;
+            events = events(exerciseDates, barrier != null && !continuous ? terms.discreteSteps : 0);
+        }
+
+        /**
+         * Stopping times, ending at maturity: observation and exercise dates strictly before
+         * maturity (those at maturity are in the payoff) and the one-day theta layer.
+         */
+        private double[] events(int exerciseDates, int observations) {
+            double[] times = new double[exerciseDates + observations + 2];
+            int n = 0;
+            for (int k = 1; k < exerciseDates; k++) {
+                times[n++] = k * exerciseInterval;
+            }
+            for (int k = 1; k < observations; k++) {
+                times[n++] = k * observationInterval;
+            }
+            if (thetaTau > 0) {
+                times[n++] = thetaTau;
+            }
+            times[n++] = maturity;
+            double[] sorted = Arrays.copyOf(times, n);
+            Arrays.sort(sorted);
+            // Drop coincident dates so that no step has zero length
+            int unique = 0;
+            for (double time : sorted) {
+                if (unique == 0 || time - sorted[unique - 1] > 1e-12 * maturity) {
+                    sorted[unique++] = time;
+                } else if (time == maturity || time == thetaTau) {
+                    sorted[unique - 1] = time;
+                }
+            }
+            return Arrays.copyOf(sorted, unique);
+        }
+
+        boolean isObservation(double tau) {
+            return isDate(tau, observationInterval);
+        }
+
+        boolean isExerciseDate(double tau) {
+            return isDate(tau, exerciseInterval);
+        }
+
+        private boolean isDate(double tau, double interval) {
+            if (interval <= 0 || tau >= maturity - 1e-12 * maturity) {
+                return false;
+            }
+            double k = tau / interval;
+            return Math.abs(k - Math.rint(k)) < 1e-9 && Math.rint(k) >= 1;
+        }
+
+        /**
+         * Call or cash-or-nothing payoff at spot s. At maturity a digital pays half at the
+         * strike node, the cell average of its jump; before maturity it pays at the strike,
+         * where a continuous path touching it would be exercised.
+         */
+        double payoff(double s, boolean atMaturity) {
+            if (call) {
+                return Math.max(s - strike, 0);
+            }
+            if (s > strike) {
+                return cash;
+            }
+            if (s == strike) {
+                return atMaturity ? 0.5 * cash : cash;
+            }
+            return 0;
+        }
+
+        double upperBoundary(double s, double tau) {
+            double held = call ? s - strike * Math.exp(-rate * tau) : cash * Math.exp(-rate * tau);
+            return american ? Math.max(held, payoff(s, false)) : held;
+        }
+    }
+
+    private static final class Workspace {
+        final TridiagonalSolver solver = new TridiagonalSolver();
+        double[] a = new double[0];
+        double[] b = new double[0];
+        double[] c = new double[0];
+        double[] lower = new double[0];
+        double[] diag = new double[0];
+        double[] upper = new double[0];
+        double[] rhs = new double[0];
+        double[] main = new double[0];
+        double[] notIn = new double[0];
+        double[] exercise = new double[0];
+        double thetaValue;
+
+        void ensureCapacity(int size) {
+            if (a.length >= size) {
+                return;
+            }
+            a = new double[size];
+            b = new double[size];
+            c = new double[size];
+            lower = new double[size];
+            diag = new double[size];
+            upper = new double[size];
+            rhs = new double[size];
+            main = new double[size];
+            notIn = new double[size];
+            exercise = new double[size];
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package com.quantcrux.pricing;
+
+import com.quantcrux.dto.PricingRequest;
+import com.quantcrux.dto.PricingResult;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Bounded LRU cache of pricing results with a time-to-live. Pricing is deterministic for a
+ * given request and seed, so identical requests can be served from here.
+ *
+ * Requests are keyed on their canonical form with spot bucketed to a relative tolerance and
+ * volatility to an absolute one, so requests differing only by noise share an entry. Entries
+ * tagged with an underlying are dropped when that underlying's market price changes.
+ */
+@Component
+public class PricingCache {
+
+    @Value("${pricing.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${pricing.cache.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${pricing.cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    @Value("${pricing.cache.spot-tolerance:0.0001}")
+    private double spotTolerance;
+
+    @Value("${pricing.cache.vol-tolerance:0.0001}")
+    private double volTolerance;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    // Access-ordered, so iteration starts at the least recently used entry
+    private final LinkedHashMap<List<Object>, Entry> entries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<List<Object>, Entry> eldest) {
+            if (size() > maxEntries) {
+                evictions.incrementAndGet();
+                return true;
+            }
+            return false;
+        }
+    };
+
+    @PostConstruct
+    public void registerMetrics() {
+        if (meterRegistry == null) {
+            return;
+        }
+        FunctionCounter.builder("pricing.cache.hits", hits, AtomicLong::get).register(meterRegistry);
+        FunctionCounter.builder("pricing.cache.misses", misses, AtomicLong::get).register(meterRegistry);
+        FunctionCounter.builder("pricing.cache.evictions", evictions, AtomicLong::get).register(meterRegistry);
+        FunctionCounter.builder("pricing.cache.invalidations", invalidations, AtomicLong::get).register(meterRegistry);
+        Gauge.builder("pricing.cache.size", this, PricingCache::size).register(meterRegistry);
+    }
+
+    /**
+     * Cached result for the request priced by the named model route, computing and storing
+     * it on a miss. Concurrent misses on the same key may both compute; the last one wins.
+     */
+    public PricingResult get(String route, PricingRequest request, Supplier<PricingResult> pricer) {
+        if (!isCacheable(request)) {
+            return pricer.get();
+        }
+        List<Object> key = key(route, request);
+        PricingResult cached = lookup(key);
+        if (cached != null) {
+            return cached;
+        }
+        PricingResult result = pricer.get();
+        put(key, request.getUnderlying(), result);
+        return result;
+    }
+
+    /**
+     * Cached result for the request, or null on a miss. Counts towards the hit/miss metrics.
+     */
+    public PricingResult lookup(String route, PricingRequest request) {
+        return isCacheable(request) ? lookup(key(route, request)) : null;
+    }
+
+    public void put(String route, PricingRequest request, PricingResult result) {
+        if (isCacheable(request)) {
+            put(key(route, request), request.getUnderlying(), result);
+        }
+    }
+
+    /**
+     * Drop every entry priced on the given underlying.
+     */
+    public void invalidateUnderlying(String underlying) {
+        if (underlying == null) {
+            return;
+        }
+        synchronized (entries) {
+            entries.values().removeIf(entry -> {
+                if (underlying.equalsIgnoreCase(entry.underlying)) {
+                    invalidations.incrementAndGet();
+                    return true;
+                }
+                return false;
+            });
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            invalidations.addAndGet(entries.size());
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("size", size());
+        stats.put("maxEntries", maxEntries);
+        stats.put("ttlSeconds", ttlSeconds);
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("evictions", evictions.get());
+        stats.put("invalidations", invalidations.get());
+        stats.put("hitRate", hitCount + missCount > 0 ? (double) hitCount / (hitCount + missCount) : 0.0);
+        return stats;
+    }
+
+    /**
+     * A run capped by maxTimeMillis depends on machine load, so its result is not reused.
+     */
+    private boolean isCacheable(PricingRequest request) {
+        return enabled && request.getMaxTimeMillis() == null;
+    }
+
+    private PricingResult lookup(List<Object> key) {
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.expiresAt - System.nanoTime() > 0) {
+                hits.incrementAndGet();
+                return copy(entry.result);
+            }
+            if (entry != null) {
+                entries.remove(key);
+                evictions.incrementAndGet();
+            }
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    private void put(List<Object> key, String underlying, PricingResult result) {
+        Entry entry = new Entry(copy(result), underlying, System.nanoTime() + ttlSeconds * 1_000_000_000L);
+        synchronized (entries) {
+            entries.put(key, entry);
+        }
+    }
+
+    /**
+     * Canonical form of a request: case-normalised strings, defaults made explicit and spot
+     * and volatility replaced by their bucket numbers. An omitted seed stays null: the default
+     * is hashed from the exact spot and volatility, and must not split their buckets.
+     */
+    private List<Object> key(String route, PricingRequest request) {
+        boolean sobol = MonteCarloPricingModel.SAMPLING_SOBOL.equalsIgnoreCase(request.getSamplingMethod());
+        String monitoring = request.getMonitoringFrequency() != null
+            ? request.getMonitoringFrequency().toLowerCase() : BarrierMonitoring.DAILY;
+        return Arrays.asList(
+            route,
+            request.getProductType().toLowerCase(),
+            request.getUnderlying() != null ? request.getUnderlying().toUpperCase() : null,
+            spotBucket(request.getSpotPrice()),
+            Math.round(request.getVolatility() / volTolerance),
+            request.getStrike(), request.getBarrier(), request.getCoupon(),
+            request.getRiskFreeRate(), request.getTimeToMaturity(),
+            request.getNumSimulations(), request.getSeed(),
+            sobol, sobol ? request.getQmcRandomizations() : null,
+            Boolean.TRUE.equals(request.getAntitheticVariates()), Boolean.TRUE.equals(request.getControlVariate()),
+            Boolean.TRUE.equals(request.getMomentMatching()),
+            request.getTargetConfidenceInterval(), request.getTargetRelativeError(), request.getMaxSimulations(),
+            monitoring, !Boolean.FALSE.equals(request.getBridgeCorrection()),
+            request.getExerciseStyle() != null ? request.getExerciseStyle().toLowerCase() : PdePricingModel.EXERCISE_EUROPEAN,
+            PdePricingModel.isEarlyExercise(request) ? request.getExerciseFrequency() : null);
+    }
+
+    private Object spotBucket(double spot) {
+        return spot > 0 ? Math.round(Math.log(spot) / spotTolerance) : spot;
+    }
+
+    /**
+     * PricingResult and its greeks are mutable, so the cache keeps a copy of its own and
+     * hands each caller another: one caller's changes never reach another's result.
+     */
+    private static PricingResult copy(PricingResult source) {
+        PricingResult result = new PricingResult(source.getPrice(),
+                                                  source.getGreeks() != null ? new LinkedHashMap<>(source.getGreeks()) : null,
+                                                  source.getConfidenceInterval(), source.getNumSimulations());
+        result.setPricingModel(source.getPricingModel());
+        result.setSamplingMethod(source.getSamplingMethod());
+        result.setVarianceReduction(source.getVarianceReduction() != null
+                                    ? new ArrayList<>(source.getVarianceReduction()) : null);
+        result.setVarianceReductionFactor(source.getVarianceReductionFactor());
+        result.setTargetMet(source.getTargetMet());
+        result.setElapsedMillis(source.getElapsedMillis());
+        result.setSeed(source.getSeed());
+        return result;
+    }
+
+    private static final class Entry {
+        final PricingResult result;
+        final String underlying;
+        final long expiresAt;
+
+        Entry(PricingResult result, String underlying, long expiresAt) {
+            this.result = result;
+            this.underlying = underlying;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
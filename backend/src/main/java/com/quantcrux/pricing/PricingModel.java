@@ -0,0 +1,17 @@
+package com.quantcrux.pricing;
+
+import com.quantcrux.dto.PricingRequest;
+import com.quantcrux.dto.PricingResult;
+
+/**
+ * A pricing method for some subset of products. Models are registered as Spring beans and
+ * picked by {@link PricingModelRegistry} in {@link org.springframework.core.annotation.Order} order.
+ */
+public interface PricingModel {
+
+    String getName();
+
+    boolean supports(PricingRequest request);
+
+    PricingResult price(PricingRequest request);
+}
@@ -0,0 +1,32 @@
+package com.quantcrux.pricing;
+
+import com.quantcrux.dto.PricingRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Routes a pricing request to the first registered model that can handle it. The PDE model
+ * comes first for early exercise and configured product types, then closed form, then Monte
+ * Carlo, which accepts every European request.
+ */
+@Component
+public class PricingModelRegistry {
+
+    @Autowired
+    private List<PricingModel> models;
+
+    public PricingModel resolve(PricingRequest request) {
+        for (PricingModel model : models) {
+            if (model.supports(request)) {
+                return model;
+            }
+        }
+        throw new IllegalArgumentException("No pricing model supports product type: " + request.getProductType());
+    }
+
+    public List<PricingModel> getModels() {
+        return models;
+    }
+}
@@ -0,0 +1,19 @@
+package com.quantcrux.pricing;
+
+/**
+ * Observer of a long Monte Carlo run. The run is simulated in slices; after each slice the
+ * running estimates are reported, and the run stops cooperatively once cancelled.
+ */
+public interface PricingProgress {
+
+    /**
+     * Checked between slices and before every chunk of paths.
+     */
+    boolean isCancelled();
+
+    /**
+     * Running present-value prices and 95% confidence interval half-widths of the requests
+     * priced together, after simulatedPaths of at most totalPaths paths.
+     */
+    void onProgress(long simulatedPaths, long totalPaths, double[] prices, double[] confidenceIntervals);
+}
@@ -0,0 +1,57 @@
+package com.quantcrux.pricing;
+
+import java.util.SplittableRandom;
+
+/**
+ * Scalar {@link PathKernel}, and the reference the vector kernel is checked against.
+ */
+final class ScalarPathKernel implements PathKernel {
+
+    static final double TWO_PI = 2 * Math.PI;
+
+    @Override
+    public String getName() {
+        return "scalar";
+    }
+
+    @Override
+    public void gaussians(SplittableRandom rng, double[] out, int count, double[] uniforms) {
+        int pairs = drawUniforms(rng, count, uniforms);
+        boxMuller(uniforms, out, 0, pairs, count);
+    }
+
+    @Override
+    public void terminalPrices(double[] shocks, int count, double spot, double drift, double diffusion, double[] out) {
+        for (int i = 0; i < count; i++) {
+            out[i] = spot * Math.exp(drift + diffusion * shocks[i]);
+        }
+    }
+
+    /**
+     * Draw the uniforms of (count + 1) / 2 Box-Muller pairs: radius draws in (0, 1] at the
+     * front of uniforms, angle draws after them. Returns the number of pairs.
+     */
+    static int drawUniforms(SplittableRandom rng, int count, double[] uniforms) {
+        int pairs = (count + 1) / 2;
+        for (int k = 0; k < pairs; k++) {
+            uniforms[k] = 1 - rng.nextDouble();
+            uniforms[pairs + k] = rng.nextDouble();
+        }
+        return pairs;
+    }
+
+    /**
+     * Box-Muller pairs from onward: the cosine normal of pair k goes to out[k], the sine
+     * normal to out[pairs + k] while that is below count.
+     */
+    static void boxMuller(double[] uniforms, double[] out, int from, int pairs, int count) {
+        for (int k = from; k < pairs; k++) {
+            double radius = Math.sqrt(Math.log(uniforms[k]) * -2);
+            double angle = uniforms[pairs + k] * TWO_PI;
+            out[k] = radius * Math.cos(angle);
+            if (pairs + k < count) {
+                out[pairs + k] = radius * Math.sin(angle);
+            }
+        }
+    }
+}
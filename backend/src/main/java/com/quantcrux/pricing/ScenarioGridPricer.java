@@ -0,0 +1,460 @@
+package com.quantcrux.pricing;
+
+import com.quantcrux.dto.PricingRequest;
+import com.quantcrux.dto.PricingResult;
+import com.quantcrux.dto.ScenarioGridRequest;
+import com.quantcrux.dto.ScenarioGridResult;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Prices a request at every point of a spot x vol x rate x time shift grid.
+ *
+ * For Monte Carlo, single-step payoffs share one stream of shocks: each block is drawn once
+ * and every grid point revalues its payoff on it, in parallel across points. No point draws
+ * its own random numbers or computes Greeks, and the ladder is smooth because every point
+ * sees the same paths. Sobol sampling, antithetic pairs, the vanilla-call control variate and
+ * moment matching (per block) apply to the shared stream as they do in
+ * {@link MonteCarloPricingModel}. Monitored barriers need a full path per point; the points
+ * are priced in parallel by {@link MonteCarloPricingModel#value} on the request's seed,
+ * which gives the same common random numbers without any Greeks.
+ *
+ * A monitored barrier keeps the direction it has at the base spot. A spot shift through the
+ * barrier knocks a down-and-out out (price 0) and an up-and-in in (a digital). Points whose
+ * time shift reaches maturity are worth their payoff at the shifted spot.
+ *
+ * The "pde" model solves each point on its own finite-difference grid, in parallel; it is
+ * the only one that prices early exercise.
+ */
+@Component
+public class ScenarioGridPricer {
+
+    public static final String MODEL_MONTE_CARLO = "monte_carlo";
+    public static final String MODEL_ANALYTIC = "analytic";
+    public static final String MODEL_PDE = "pde";
+
+    private static final double DAYS_PER_YEAR = 365.0;
+    private static final int BLOCK_SIZE = MonteCarloEngine.CHUNK_SIZE;
+    // Blocks of shocks held at once: 64 x 4096 doubles, 2 MB
+    private static final int ROUND_BLOCKS = 64;
+
+    @Autowired
+    private AnalyticPricingModel analyticPricingModel;
+
+    @Autowired
+    private MonteCarloPricingModel monteCarloPricingModel;
+
+    @Autowired
+    private PdePricingModel pdePricingModel;
+
+    @Autowired
+    private MonteCarloEngine monteCarloEngine;
+
+    @Value("${pricing.monte-carlo.simd:false}")
+    private boolean simd;
+
+    @Value("${pricing.scenarios.max-points:10000}")
+    private int maxPoints;
+
+    private PathKernel pathKernel = new ScalarPathKernel();
+
+    // Per-worker terminal prices of one block of shared draws, and scratch for drawing a block
+    private final ThreadLocal<double[]> terminalPrices = ThreadLocal.withInitial(() -> new double[BLOCK_SIZE]);
+    private final ThreadLocal<double[]> uniforms = ThreadLocal.withInitial(() -> new double[BLOCK_SIZE + 1]);
+    private final ThreadLocal<SobolScratch> sobolScratch = ThreadLocal.withInitial(SobolScratch::new);
+
+    @PostConstruct
+    public void selectPathKernel() {
+        pathKernel = PathKernel.select(simd);
+    }
+
+    public ScenarioGridResult price(ScenarioGridRequest grid) {
+        long startTime = System.nanoTime();
+        PricingRequest base = grid.getRequest();
+        String model = grid.getPricingModel() != null ? grid.getPricingModel().toLowerCase() : MODEL_MONTE_CARLO;
+        if (!model.equals(MODEL_MONTE_CARLO) && !model.equals(MODEL_ANALYTIC) && !model.equals(MODEL_PDE)) {
+            throw new IllegalArgumentException("Pricing model must be " + MODEL_MONTE_CARLO + ", " + MODEL_ANALYTIC
+                                               + " or " + MODEL_PDE);
+        }
+        if (PdePricingModel.isEarlyExercise(base) && !model.equals(MODEL_PDE)) {
+            throw new IllegalArgumentException("Early exercise is only priced by the " + MODEL_PDE + " model");
+        }
+
+        List<Double> spotShifts = axis(grid.getSpotShifts());
+        List<Double> volShifts = axis(grid.getVolShifts());
+        List<Double> rateShifts = axis(grid.getRateShifts());
+        List<Double> timeShifts = axis(grid.getTimeShifts());
+        long gridPoints = (long) spotShifts.size() * volShifts.size() * rateShifts.size() * timeShifts.size();
+        if (gridPoints > maxPoints) {
+            throw new IllegalArgumentException("Scenario grid has " + gridPoints + " points; the limit is " + maxPoints);
+        }
+
+        // Points in row-major [spot][vol][rate][time] order; null for a knocked-out point
+        int points = (int) gridPoints;
+        PricingRequest[] requests = new PricingRequest[points];
+        int k = 0;
+        for (double spotShift : spotShifts) {
+            for (double volShift : volShifts) {
+                for (double rateShift : rateShifts) {
+                    for (double timeShift : timeShifts) {
+                        requests[k++] = pointRequest(base, spotShift, volShift, rateShift, timeShift);
+                    }
+                }
+            }
+        }
+
+        double[] prices = new double[points];
+        double[] confidenceIntervals = model.equals(MODEL_MONTE_CARLO) ? new double[points] : null;
+        Integer numSimulations = null;
+        if (model.equals(MODEL_ANALYTIC)) {
+            monteCarloEngine.forEach(points, i -> {
+                Double settled = settledValue(requests[i]);
+                prices[i] = settled != null ? settled : analyticPricingModel.price(requests[i]).getPrice();
+            });
+        } else if (model.equals(MODEL_PDE)) {
+            monteCarloEngine.forEach(points, i -> {
+                Double settled = settledValue(requests[i]);
+                prices[i] = settled != null ? settled : pdePricingModel.value(requests[i], requests[i].getVolatility());
+            });
+        } else if (MonteCarloPricingModel.isBarrierPath(base)) {
+            int[] pathCounts = new int[points];
+            monteCarloEngine.forEach(points, i -> {
+                Double settled = settledValue(requests[i]);
+                if (settled != null) {
+                    prices[i] = settled;
+                    return;
+                }
+                PricingResult result = monteCarloPricingModel.value(requests[i]);
+                prices[i] = result.getPrice();
+                confidenceIntervals[i] = result.getConfidenceInterval();
+                pathCounts[i] = result.getNumSimulations();
+            });
+            for (int count : pathCounts) {
+                if (count > 0) {
+                    numSimulations = numSimulations == null ? count : Math.max(numSimulations, count);
+                }
+            }
+        } else {
+            numSimulations = priceOnSharedDraws(base, requests, prices, confidenceIntervals);
+        }
+
+        ScenarioGridResult result = new ScenarioGridResult();
+        result.setPricingModel(model);
+        result.setSpotShifts(spotShifts);
+        result.setVolShifts(volShifts);
+        result.setRateShifts(rateShifts);
+        result.setTimeShifts(timeShifts);
+        result.setPrices(toGrid(prices, spotShifts.size(), volShifts.size(), rateShifts.size(), timeShifts.size()));
+        if (confidenceIntervals != null) {
+            result.setConfidenceIntervals(toGrid(confidenceIntervals, spotShifts.size(), volShifts.size(),
+                                                 rateShifts.size(), timeShifts.size()));
+        }
+        result.setGridPoints(points);
+        result.setNumSimulations(numSimulations);
+        result.setElapsedMillis((System.nanoTime() - startTime) / 1_000_000L);
+        return result;
+    }
+
+    /**
+     * Revalue every point's payoff on one stream of shocks. The shocks are drawn a round of
+     * blocks at a time, in parallel, and each round is then evaluated against every point in
+     * parallel, so memory stays at one round however many paths are asked for and every
+     * point sees every path in the same order. Returns the number of paths per point.
+     */
+    private int priceOnSharedDraws(PricingRequest base, PricingRequest[] requests, double[] prices,
+                                   double[] confidenceIntervals) {
+        int numPaths = base.getNumSimulations() != null ? base.getNumSimulations() : 0;
+        if (numPaths <= 0) {
+            throw new IllegalArgumentException("Number of simulations must be positive");
+        }
+        if (base.getTargetConfidenceInterval() != null || base.getTargetRelativeError() != null) {
+            throw new IllegalArgumentException("Scenario grids run a fixed number of simulations; "
+                                               + "remove targetConfidenceInterval and targetRelativeError");
+        }
+        long seed = MonteCarloPricingModel.seed(base);
+        boolean antithetic = Boolean.TRUE.equals(base.getAntitheticVariates());
+        boolean momentMatching = Boolean.TRUE.equals(base.getMomentMatching());
+        boolean controlVariate = Boolean.TRUE.equals(base.getControlVariate());
+        boolean sobol = MonteCarloPricingModel.SAMPLING_SOBOL.equalsIgnoreCase(base.getSamplingMethod());
+
+        int replicates = 1;
+        SobolShockGenerator[] generators = null;
+        if (sobol) {
+            Integer randomizations = base.getQmcRandomizations();
+            replicates = Math.max(randomizations != null ? randomizations
+                                  : MonteCarloPricingModel.DEFAULT_QMC_RANDOMIZATIONS, 2);
+            generators = new SobolShockGenerator[replicates];
+            for (int r = 0; r < replicates; r++) {
+                generators[r] = new SobolShockGenerator(1, seed, r);
+            }
+        }
+        int perReplicate = (numPaths + replicates - 1) / replicates;
+        if (antithetic && perReplicate % 2 != 0) {
+            perReplicate++;
+        }
+        int blocksPerReplicate = (perReplicate + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        int totalBlocks = replicates * blocksPerReplicate;
+
+        // Per point and replicate: payoff against the vanilla-call control
+        ControlVariateStatistics[][] samples = new ControlVariateStatistics[requests.length][];
+        PayoffKernel[] kernels = new PayoffKernel[requests.length];
+        for (int i = 0; i < requests.length; i++) {
+            Double settled = settledValue(requests[i]);
+            if (settled != null) {
+                prices[i] = settled;
+                continue;
+            }
+            kernels[i] = PayoffKernel.compile(requests[i]);
+            samples[i] = new ControlVariateStatistics[replicates];
+            for (int r = 0; r < replicates; r++) {
+                samples[i][r] = new ControlVariateStatistics();
+            }
+        }
+
+        double[][] round = new double[Math.min(ROUND_BLOCKS, totalBlocks)][BLOCK_SIZE];
+        int[] counts = new int[round.length];
+        SplittableRandom root = new SplittableRandom(seed);
+        SplittableRandom[] streams = new SplittableRandom[round.length];
+        int finalPerReplicate = perReplicate;
+        SobolShockGenerator[] sobolGenerators = generators;
+        for (int first = 0; first < totalBlocks; first += round.length) {
+            int roundStart = first;
+            int blocks = Math.min(round.length, totalBlocks - first);
+            if (!sobol) {
+                // Split in block order, so the draws do not depend on the thread count
+                for (int b = 0; b < blocks; b++) {
+                    streams[b] = root.split();
+                }
+            }
+            monteCarloEngine.forEach(blocks, b -> {
+                int block = roundStart + b;
+                int firstPath = (block % blocksPerReplicate) * BLOCK_SIZE;
+                int count = Math.min(BLOCK_SIZE, finalPerReplicate - firstPath);
+                counts[b] = count;
+                double[] shocks = round[b];
+                int drawn = antithetic ? count / 2 : count;
+                if (sobol) {
+                    SobolScratch scratch = sobolScratch.get();
+                    sobolGenerators[block / blocksPerReplicate].fill(antithetic ? firstPath / 2 : firstPath, drawn,
+                                                                     shocks, scratch.state, scratch.normals);
+                } else {
+                    pathKernel.gaussians(streams[b], shocks, drawn, uniforms.get());
+                }
+                if (antithetic) {
+                    for (int j = drawn - 1; j >= 0; j--) {
+                        double z = shocks[j];
+                        shocks[2 * j] = z;
+                        shocks[2 * j + 1] = -z;
+                    }
+                }
+                if (momentMatching) {
+                    matchMoments(shocks, count);
+                }
+            });
+
+            monteCarloEngine.forEach(requests.length, i -> {
+                if (kernels[i] == null) {
+                    return;
+                }
+                PricingRequest point = requests[i];
+                PayoffKernel kernel = kernels[i];
+                double strike = point.getStrike();
+                double volatility = point.getVolatility();
+                double timeToMaturity = point.getTimeToMaturity();
+                double drift = (point.getRiskFreeRate() - 0.5 * volatility * volatility) * timeToMaturity;
+                double diffusion = volatility * Math.sqrt(timeToMaturity);
+                double[] terminal = terminalPrices.get();
+                for (int b = 0; b < blocks; b++) {
+                    ControlVariateStatistics replicate = samples[i][(roundStart + b) / blocksPerReplicate];
+                    int count = counts[b];
+                    pathKernel.terminalPrices(round[b], count, point.getSpotPrice(), drift, diffusion, terminal);
+                    if (antithetic) {
+                        for (int p = 0; p < count; p += 2) {
+                            replicate.add(0.5 * (kernel.payoff(terminal[p]) + kernel.payoff(terminal[p + 1])),
+                                          0.5 * (Math.max(terminal[p] - strike, 0) + Math.max(terminal[p + 1] - strike, 0)));
+                        }
+                    } else {
+                        for (int p = 0; p < count; p++) {
+                            replicate.add(kernel.payoff(terminal[p]), Math.max(terminal[p] - strike, 0));
+                        }
+                    }
+                }
+            });
+        }
+
+        for (int i = 0; i < requests.length; i++) {
+            if (kernels[i] == null) {
+                continue;
+            }
+            PricingRequest point = requests[i];
+            double rate = point.getRiskFreeRate();
+            double timeToMaturity = point.getTimeToMaturity();
+            double discount = Math.exp(-rate * timeToMaturity);
+            double controlMean = AnalyticPricingModel.blackScholesCall(point.getSpotPrice(), point.getStrike(), rate,
+                                                                       point.getVolatility(), timeToMaturity) / discount;
+            // Same estimator as MonteCarloPricingModel: per replicate, then across replicates
+            PathStatistics spread = new PathStatistics();
+            double variance = 0;
+            for (ControlVariateStatistics replicate : samples[i]) {
+                double value = replicate.getMeanY();
+                variance = replicate.getVarianceY();
+                if (controlVariate) {
+                    double beta = replicate.getOptimalBeta();
+                    value -= beta * (replicate.getMeanX() - controlMean);
+                    variance += beta * beta * replicate.getVarianceX() - 2 * beta * replicate.getCovariance();
+                }
+                variance = Math.max(variance, 0) / replicate.getCount();
+                spread.add(value);
+            }
+            if (sobol) {
+                variance = spread.getVariance() / (replicates - 1);
+            }
+            prices[i] = spread.getMean() * discount;
+            // 95% confidence interval
+            confidenceIntervals[i] = 1.96 * Math.sqrt(variance) * discount;
+        }
+        return replicates * perReplicate;
+    }
+
+    /**
+     * Rescale the first count shocks to zero sample mean and unit sample variance, block by
+     * block as the Monte Carlo engine does per chunk.
+     */
+    private static void matchMoments(double[] shocks, int count) {
+        if (count < 2) {
+            return;
+        }
+        double mean = 0;
+        for (int p = 0; p < count; p++) {
+            mean += shocks[p];
+        }
+        mean /= count;
+        double sumSquares = 0;
+        for (int p = 0; p < count; p++) {
+            sumSquares += (shocks[p] - mean) * (shocks[p] - mean);
+        }
+        double scale = sumSquares > 0 ? 1 / Math.sqrt(sumSquares / count) : 1;
+        for (int p = 0; p < count; p++) {
+            shocks[p] = (shocks[p] - mean) * scale;
+        }
+    }
+
+    /**
+     * The base request with shifted market data, or null for a monitored barrier the spot
+     * shift has knocked out.
+     */
+    private PricingRequest pointRequest(PricingRequest base, double spotShift, double volShift,
+                                        double rateShift, double timeShift) {
+        double spot = base.getSpotPrice() * (1 + spotShift);
+        double volatility = base.getVolatility() + volShift;
+        if (!(spot > 0)) {
+            throw new IllegalArgumentException("Spot shifts must leave a positive spot price");
+        }
+        if (!(volatility > 0)) {
+            throw new IllegalArgumentException("Volatility shifts must leave a positive volatility");
+        }
+        if (timeShift < 0) {
+            throw new IllegalArgumentException("Time shifts must not be negative");
+        }
+
+        PricingRequest point = copy(base);
+        // The base seed, not one hashed from the shifted inputs, so every point sees the same draws
+        point.setSeed(MonteCarloPricingModel.seed(base));
+        point.setSpotPrice(spot);
+        point.setVolatility(volatility);
+        point.setRiskFreeRate(base.getRiskFreeRate() + rateShift);
+        point.setTimeToMaturity(Math.max(base.getTimeToMaturity() - timeShift / DAYS_PER_YEAR, 0));
+
+        boolean downAndOut = AnalyticPricingModel.isDownAndOut(base);
+        if (MonteCarloPricingModel.isBarrierPath(base) && downAndOut != AnalyticPricingModel.isDownAndOut(point)) {
+            if (downAndOut) {
+                return null;
+            }
+            point.setProductType("digital_option");
+            point.setProductId(null);
+            point.setBarrier(null);
+        }
+        return point;
+    }
+
+    /**
+     * Value of a point that needs no pricing model: 0 once knocked out, the payoff at spot
+     * once matured; else null.
+     */
+    private static Double settledValue(PricingRequest point) {
+        if (point == null) {
+            return 0.0;
+        }
+        if (point.getTimeToMaturity() <= 0) {
+            return PayoffKernel.compile(point).payoff(point.getSpotPrice());
+        }
+        return null;
+    }
+
+    private static List<Double> axis(List<Double> shifts) {
+        if (shifts == null || shifts.isEmpty()) {
+            return List.of(0.0);
+        }
+        for (Double shift : shifts) {
+            if (shift == null) {
+                throw new IllegalArgumentException("Scenario shifts must not contain nulls");
+            }
+        }
+        return shifts;
+    }
+
+    private static double[][][][] toGrid(double[] values, int spots, int vols, int rates, int times) {
+        double[][][][] grid = new double[spots][vols][rates][times];
+        int k = 0;
+        for (int s = 0; s < spots; s++) {
+            for (int v = 0; v < vols; v++) {
+                for (int r = 0; r < rates; r++) {
+                    System.arraycopy(values, k, grid[s][v][r], 0, times);
+                    k += times;
+                }
+            }
+        }
+        return grid;
+    }
+
+    private static PricingRequest copy(PricingRequest request) {
+        PricingRequest copy = new PricingRequest();
+        copy.setProductType(request.getProductType());
+        copy.setProductId(request.getProductId());
+        copy.setUnderlying(request.getUnderlying());
+        copy.setCurrency(request.getCurrency());
+        copy.setSpotPrice(request.getSpotPrice());
+        copy.setStrike(request.getStrike());
+        copy.setBarrier(request.getBarrier());
+        copy.setCoupon(request.getCoupon());
+        copy.setVolatility(request.getVolatility());
+        copy.setRiskFreeRate(request.getRiskFreeRate());
+        copy.setTimeToMaturity(request.getTimeToMaturity());
+        copy.setNumSimulations(request.getNumSimulations());
+        copy.setAntitheticVariates(request.getAntitheticVariates());
+        copy.setControlVariate(request.getControlVariate());
+        copy.setMomentMatching(request.getMomentMatching());
+        copy.setSamplingMethod(request.getSamplingMethod());
+        copy.setQmcRandomizations(request.getQmcRandomizations());
+        copy.setSeed(request.getSeed());
+        copy.setTargetConfidenceInterval(request.getTargetConfidenceInterval());
+        copy.setTargetRelativeError(request.getTargetRelativeError());
+        copy.setMaxSimulations(request.getMaxSimulations());
+        copy.setMaxTimeMillis(request.getMaxTimeMillis());
+        copy.setMonitoringFrequency(request.getMonitoringFrequency());
+        copy.setBridgeCorrection(request.getBridgeCorrection());
+        copy.setExerciseStyle(request.getExerciseStyle());
+        copy.setExerciseFrequency(request.getExerciseFrequency());
+        return copy;
+    }
+
+    private static final class SobolScratch {
+        final int[] state = new int[1];
+        final double[] normals = new double[1];
+    }
+}
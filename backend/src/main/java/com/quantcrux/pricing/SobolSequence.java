@@ -0,0 +1,186 @@
+package com.quantcrux.pricing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Sobol low-discrepancy sequence in up to {@link #MAX_DIMENSIONS} dimensions, generated in
+ * Gray-code order with 32-bit direction numbers.
+ *
+ * Primitive polynomials are enumerated by degree and coefficient, which reproduces the
+ * Joe-Kuo ordering. The first dimensions use the Joe-Kuo (new-joe-kuo-6.21201) initial
+ * direction numbers; later dimensions use fixed pseudo-random odd initial numbers, which
+ * still give a valid Sobol sequence.
+ */
+public final class SobolSequence {
+
+    public static final int MAX_DIMENSIONS = 1024;
+    private static final int BITS = 32;
+
+    // Joe-Kuo initial direction numbers m_1..m_s for dimensions 2..21
+    private static final int[][] JOE_KUO_M = {
+        {1}, {1, 3}, {1, 3, 1}, {1, 1, 1}, {1, 1, 3, 3}, {1, 3, 5, 13},
+        {1, 1, 5, 5, 17}, {1, 1, 5, 5, 5}, {1, 1, 7, 11, 19}, {1, 1, 5, 1, 1},
+        {1, 1, 1, 3, 11}, {1, 3, 5, 5, 31}, {1, 3, 3, 9, 7, 49}, {1, 1, 1, 15, 21, 21},
+        {1, 3, 1, 13, 27, 49}, {1, 1, 1, 15, 7, 5}, {1, 3, 1, 15, 13, 25}, {1, 1, 5, 5, 19, 61},
+        {1, 3, 7, 11, 23, 15, 103}, {1, 3, 7, 13, 13, 15, 69}
+    };
+
+    private static final int[][] DIRECTIONS = buildDirections(MAX_DIMENSIONS);
+
+    private final int dimensions;
+
+    public SobolSequence(int dimensions) {
+        if (dimensions < 1 || dimensions > MAX_DIMENSIONS) {
+            throw new IllegalArgumentException("Sobol dimension must be between 1 and " + MAX_DIMENSIONS);
+        }
+        this.dimensions = dimensions;
+    }
+
+    public int getDimensions() {
+        return dimensions;
+    }
+
+    /**
+     * Set state to the integer coordinates of point index.
+     */
+    public void seek(long index, int[] state) {
+        long gray = index ^ (index >>> 1);
+        for (int d = 0; d < dimensions; d++) {
+            int x = 0;
+            int[] v = DIRECTIONS[d];
+            for (int bit = 0; bit < BITS && (gray >>> bit) != 0; bit++) {
+                if (((gray >>> bit) & 1) != 0) {
+                    x ^= v[bit];
+                }
+            }
+            state[d] = x;
+        }
+    }
+
+    /**
+     * Move state from point index to point index + 1.
+     */
+    public void advance(long index, int[] state) {
+        int bit = Long.numberOfTrailingZeros(index + 1);
+        for (int d = 0; d < dimensions; d++) {
+            state[d] ^= DIRECTIONS[d][bit];
+        }
+    }
+
+    /**
+     * Map an integer coordinate, XOR-ed with a digital shift, to the open interval (0, 1).
+     */
+    public static double toUniform(int coordinate, int shift) {
+        return ((coordinate ^ shift) & 0xFFFFFFFFL) * 0x1.0p-32 + 0x1.0p-33;
+    }
+
+    private static int[][] buildDirections(int dimensions) {
+        int[][] directions = new int[dimensions][BITS];
+
+        // First dimension: van der Corput
+        for (int i = 0; i < BITS; i++) {
+            directions[0][i] = 1 << (BITS - 1 - i);
+        }
+
+        List<int[]> polynomials = primitivePolynomials(dimensions - 1);
+        SplittableRandom initialNumbers = new SplittableRandom(0x5EED_50B0L);
+        for (int d = 1; d < dimensions; d++) {
+            int degree = polynomials.get(d - 1)[0];
+            int a = polynomials.get(d - 1)[1];
+
+            long[] m = new long[BITS + 1];
+            for (int i = 1; i <= degree && i <= BITS; i++) {
+                if (d - 1 < JOE_KUO_M.length) {
+                    m[i] = JOE_KUO_M[d - 1][i - 1];
+                } else {
+                    m[i] = (initialNumbers.nextLong(1L << (i - 1)) << 1) | 1; // odd, below 2^i
+                }
+            }
+            for (int i = degree + 1; i <= BITS; i++) {
+                long value = m[i - degree] ^ (m[i - degree] << degree);
+                for (int k = 1; k < degree; k++) {
+                    if (((a >>> (degree - 1 - k)) & 1) != 0) {
+                        value ^= m[i - k] << k;
+                    }
+                }
+                m[i] = value;
+            }
+            for (int i = 1; i <= BITS; i++) {
+                directions[d][i - 1] = (int) (m[i] << (BITS - i));
+            }
+        }
+        return directions;
+    }
+
+    /**
+     * The first count primitive polynomials over GF(2) of degree >= 1, as {degree, a} where a
+     * holds the interior coefficients, ordered by degree then by a.
+     */
+    private static List<int[]> primitivePolynomials(int count) {
+        List<int[]> result = new ArrayList<>(count);
+        for (int degree = 1; result.size() < count; degree++) {
+            for (int a = 0; a < (1 << (degree - 1)) && result.size() < count; a++) {
+                long polynomial = (1L << degree) | ((long) a << 1) | 1;
+                if (isPrimitive(polynomial, degree)) {
+                    result.add(new int[] {degree, a});
+                }
+            }
+        }
+        return result;
+    }
+
+    private static boolean isPrimitive(long polynomial, int degree) {
+        if (degree == 1) {
+            return true; // x + 1
+        }
+        long order = (1L << degree) - 1;
+        if (powerOfX(order, polynomial, degree) != 1) {
+            return false;
+        }
+        long remaining = order;
+        for (long p = 2; p * p <= remaining; p++) {
+            if (remaining % p == 0) {
+                if (powerOfX(order / p, polynomial, degree) == 1) {
+                    return false;
+                }
+                while (remaining % p == 0) {
+                    remaining /= p;
+                }
+            }
+        }
+        return remaining <= 1 || powerOfX(order / remaining, polynomial, degree) != 1;
+    }
+
+    /**
+     * x^exponent modulo the polynomial, polynomials encoded as bit masks.
+     */
+    private static long powerOfX(long exponent, long polynomial, int degree) {
+        long result = 1;
+        long base = 2; // x
+        while (exponent > 0) {
+            if ((exponent & 1) != 0) {
+                result = multiplyMod(result, base, polynomial, degree);
+            }
+            base = multiplyMod(base, base, polynomial, degree);
+            exponent >>>= 1;
+        }
+        return result;
+    }
+
+    private static long multiplyMod(long a, long b, long polynomial, int degree) {
+        long product = 0;
+        while (b != 0) {
+            if ((b & 1) != 0) {
+                product ^= a;
+            }
+            b >>>= 1;
+            a <<= 1;
+            if (((a >>> degree) & 1) != 0) {
+                a ^= polynomial;
+            }
+        }
+        return product;
+    }
+}
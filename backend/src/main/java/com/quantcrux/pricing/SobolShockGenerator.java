@@ -0,0 +1,49 @@
+package com.quantcrux.pricing;
+
+import java.util.SplittableRandom;
+
+/**
+ * Randomised quasi-Monte Carlo shocks: digitally shifted Sobol points mapped through the
+ * inverse normal and, for multi-step paths, a Brownian bridge. Each randomisation uses an
+ * independent shift so that replicate estimates give an unbiased error estimate.
+ */
+public final class SobolShockGenerator {
+
+    private final SobolSequence sobol;
+    private final BrownianBridge bridge;
+    private final int[] shifts;
+
+    public SobolShockGenerator(int steps, long seed, int randomization) {
+        this.sobol = new SobolSequence(steps);
+        this.bridge = new BrownianBridge(steps);
+        this.shifts = new int[steps];
+        SplittableRandom shiftSource = new SplittableRandom(seed);
+        for (int r = 0; r < randomization; r++) {
+            shiftSource.split();
+        }
+        SplittableRandom stream = shiftSource.split();
+        for (int d = 0; d < steps; d++) {
+            shifts[d] = stream.nextInt();
+        }
+    }
+
+    public int getSteps() {
+        return bridge.getSteps();
+    }
+
+    /**
+     * Write pathCount paths of standardised increments, path-major, starting at Sobol point
+     * firstPoint. Scratch arrays must hold at least getSteps() entries.
+     */
+    public void fill(long firstPoint, int pathCount, double[] out, int[] state, double[] normals) {
+        int steps = bridge.getSteps();
+        sobol.seek(firstPoint, state);
+        for (int p = 0; p < pathCount; p++) {
+            for (int d = 0; d < steps; d++) {
+                normals[d] = NormalMath.inverseCdf(SobolSequence.toUniform(state[d], shifts[d]));
+            }
+            bridge.transform(normals, 0, out, p * steps);
+            sobol.advance(firstPoint + p, state);
+        }
+    }
+}
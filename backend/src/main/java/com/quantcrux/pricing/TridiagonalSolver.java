@@ -0,0 +1,53 @@
+package com.quantcrux.pricing;
+
+/**
+ * Thomas algorithm for tridiagonal systems, with its forward-sweep buffers kept between
+ * solves so that a time-stepping loop allocates nothing. Not thread-safe; keep one per
+ * worker.
+ */
+final class TridiagonalSolver {
+
+    private double[] upperPrime = new double[0];
+    private double[] rhsPrime = new double[0];
+
+    /**
+     * Solve rows [from, to] of lower[i] x[i-1] + diag[i] x[i] + upper[i] x[i+1] = rhs[i],
+     * writing x into out; lower[from] and upper[to] are ignored. The matrix must be
+     * diagonally dominant, as the PDE operators built here are.
+     */
+    void solve(double[] lower, double[] diag, double[] upper, double[] rhs, double[] out, int from, int to) {
+        solve(lower, diag, upper, rhs, out, from, to, null);
+    }
+
+    /**
+     * As above, but with x[i] >= obstacle[i] (Brennan-Schwartz): the back substitution takes
+     * the larger of the two at every row. This solves the linear complementarity problem of
+     * early exercise exactly when the exercise region lies at the top of the range, as it
+     * does for calls and digital calls.
+     */
+    void solve(double[] lower, double[] diag, double[] upper, double[] rhs, double[] out, int from, int to,
+               double[] obstacle) {
+        if (upperPrime.length <= to) {
+            upperPrime = new double[to + 1];
+            rhsPrime = new double[to + 1];
+        }
+        double pivot = diag[from];
+        upperPrime[from] = upper[from] / pivot;
+        rhsPrime[from] = rhs[from] / pivot;
+        for (int i = from + 1; i <= to; i++) {
+            pivot = diag[i] - lower[i] * upperPrime[i - 1];
+            upperPrime[i] = upper[i] / pivot;
+            rhsPrime[i] = (rhs[i] - lower[i] * rhsPrime[i - 1]) / pivot;
+        }
+        out[to] = rhsPrime[to];
+        if (obstacle != null) {
+            out[to] = Math.max(out[to], obstacle[to]);
+        }
+        for (int i = to - 1; i >= from; i--) {
+            out[i] = rhsPrime[i] - upperPrime[i] * out[i + 1];
+            if (obstacle != null) {
+                out[i] = Math.max(out[i], obstacle[i]);
+            }
+        }
+    }
+}
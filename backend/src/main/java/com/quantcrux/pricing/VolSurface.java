@@ -0,0 +1,177 @@
+package com.quantcrux.pricing;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Implied volatility surface of one underlying on a tenor x log-moneyness (ln(K/S)) grid.
+ *
+ * Each tenor's smile is a cubic spline of total variance in log-moneyness; between tenors
+ * total variance is interpolated linearly in time. Outside the grid the volatility is held
+ * flat. Instances are immutable and safe to share between threads.
+ */
+public final class VolSurface {
+
+    // Scattered points are pooled on this grid before fitting: a day of maturity, 1% of log-moneyness
+    private static final double TENOR_STEP = 1.0 / 365.0;
+    private static final double MONEYNESS_STEP = 0.01;
+
+    private final String underlying;
+    private final double[] tenors;
+    private final double[] logMoneyness;
+    private final double[][] volatilities;
+    private final CubicSpline[] totalVariance;
+
+    public VolSurface(String underlying, double[] tenors, double[] logMoneyness, double[][] volatilities) {
+        if (tenors.length == 0 || logMoneyness.length == 0 || volatilities.length != tenors.length) {
+            throw new IllegalArgumentException("Volatility grid must have one row per tenor");
+        }
+        for (int i = 0; i < tenors.length; i++) {
+            if (!(tenors[i] > 0) || (i > 0 && !(tenors[i] > tenors[i - 1]))) {
+                throw new IllegalArgumentException("Tenors must be positive and strictly increasing");
+            }
+            if (volatilities[i].length != logMoneyness.length) {
+                throw new IllegalArgumentException("Volatility grid must have one column per log-moneyness point");
+            }
+        }
+        this.underlying = underlying;
+        this.tenors = tenors.clone();
+        this.logMoneyness = logMoneyness.clone();
+        this.volatilities = new double[tenors.length][];
+        this.totalVariance = new CubicSpline[tenors.length];
+        for (int i = 0; i < tenors.length; i++) {
+            this.volatilities[i] = volatilities[i].clone();
+            double[] variance = new double[logMoneyness.length];
+            for (int j = 0; j < logMoneyness.length; j++) {
+                double vol = volatilities[i][j];
+                if (!(vol > 0)) {
+                    throw new IllegalArgumentException("Volatilities must be positive");
+                }
+                variance[j] = vol * vol * tenors[i];
+            }
+            totalVariance[i] = new CubicSpline(logMoneyness, variance);
+        }
+    }
+
+    /**
+     * Surface with the same volatility at every strike and tenor.
+     */
+    public static VolSurface flat(String underlying, double volatility) {
+        return new VolSurface(underlying, new double[] {1.0}, new double[] {0.0}, new double[][] {{volatility}});
+    }
+
+    /**
+     * Surface through scattered (tenor, ln(K/S), volatility) points, such as solved quotes.
+     * Points are pooled to the nearest day and 1% of log-moneyness and averaged; each tenor's
+     * row is then filled at every pooled log-moneyness by linear interpolation between its own
+     * points, flat beyond them.
+     */
+    public static VolSurface fit(String underlying, double[] tenors, double[] logMoneyness, double[] volatilities) {
+        TreeMap<Long, TreeMap<Long, double[]>> pooled = new TreeMap<>();
+        TreeSet<Long> columns = new TreeSet<>();
+        for (int p = 0; p < tenors.length; p++) {
+            if (!(tenors[p] > 0) || !(volatilities[p] > 0) || !Double.isFinite(logMoneyness[p])) {
+                continue;
+            }
+            long row = Math.max(Math.round(tenors[p] / TENOR_STEP), 1);
+            long column = Math.round(logMoneyness[p] / MONEYNESS_STEP);
+            // Sum and count of the volatilities in the cell
+            double[] cell = pooled.computeIfAbsent(row, r -> new TreeMap<>()).computeIfAbsent(column, c -> new double[2]);
+            cell[0] += volatilities[p];
+            cell[1]++;
+            columns.add(column);
+        }
+        if (pooled.isEmpty()) {
+            throw new IllegalArgumentException("No volatility points to fit a surface to");
+        }
+
+        double[] gridTenors = new double[pooled.size()];
+        double[] gridMoneyness = columns.stream().mapToDouble(column -> column * MONEYNESS_STEP).toArray();
+        double[][] grid = new double[pooled.size()][gridMoneyness.length];
+        int i = 0;
+        for (Map.Entry<Long, TreeMap<Long, double[]>> row : pooled.entrySet()) {
+            gridTenors[i] = row.getKey() * TENOR_STEP;
+            int points = row.getValue().size();
+            double[] ks = new double[points];
+            double[] vols = new double[points];
+            int n = 0;
+            for (Map.Entry<Long, double[]> cell : row.getValue().entrySet()) {
+                ks[n] = cell.getKey() * MONEYNESS_STEP;
+                vols[n] = cell.getValue()[0] / cell.getValue()[1];
+                n++;
+            }
+            for (int j = 0; j < gridMoneyness.length; j++) {
+                int at = Arrays.binarySearch(ks, gridMoneyness[j]);
+                if (at >= 0) {
+                    grid[i][j] = vols[at];
+                } else {
+                    int above = -at - 1;
+                    if (above == 0) {
+                        grid[i][j] = vols[0];
+                    } else if (above == points) {
+                        grid[i][j] = vols[points - 1];
+                    } else {
+                        double weight = (gridMoneyness[j] - ks[above - 1]) / (ks[above] - ks[above - 1]);
+                        grid[i][j] = vols[above - 1] + weight * (vols[above] - vols[above - 1]);
+                    }
+                }
+            }
+            i++;
+        }
+        return new VolSurface(underlying, gridTenors, gridMoneyness, grid);
+    }
+
+    public String getUnderlying() {
+        return underlying;
+    }
+
+    public double volatility(double strike, double spot, double timeToMaturity) {
+        return volatilityAt(Math.log(strike / spot), timeToMaturity);
+    }
+
+    public double atmVolatility(double timeToMaturity) {
+        return volatilityAt(0, timeToMaturity);
+    }
+
+    private double volatilityAt(double k, double t) {
+        int last = tenors.length - 1;
+        if (t <= tenors[0]) {
+            return impliedVol(totalVariance[0].value(k), tenors[0]);
+        }
+        if (t >= tenors[last]) {
+            return impliedVol(totalVariance[last].value(k), tenors[last]);
+        }
+        int i = Arrays.binarySearch(tenors, t);
+        if (i >= 0) {
+            return impliedVol(totalVariance[i].value(k), t);
+        }
+        i = -i - 2;
+        double w0 = totalVariance[i].value(k);
+        double w1 = totalVariance[i + 1].value(k);
+        double weight = (t - tenors[i]) / (tenors[i + 1] - tenors[i]);
+        return impliedVol(w0 + weight * (w1 - w0), t);
+    }
+
+    private static double impliedVol(double totalVariance, double t) {
+        // The spline can dip below zero between sparse knots; floor it
+        return Math.sqrt(Math.max(totalVariance, 0) / t);
+    }
+
+    public double[] getTenors() {
+        return tenors.clone();
+    }
+
+    public double[] getLogMoneyness() {
+        return logMoneyness.clone();
+    }
+
+    public double[][] getVolatilities() {
+        double[][] copy = new double[volatilities.length][];
+        for (int i = 0; i < volatilities.length; i++) {
+            copy[i] = volatilities[i].clone();
+        }
+        return copy;
+    }
+}
@@ -3,6 +3,7 @@ package com.quantcrux.repository;
 import com.quantcrux.dto.TradeDTO;
 import com.quantcrux.model.Trade;
 import com.quantcrux.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -77,4 +78,13 @@ public interface TradeRepository extends JpaRepository<Trade, Long> {
            "ORDER BY t.tradeDate DESC " +
            "LIMIT :limit")
     List<Trade> findRecentTradesByUser(@Param("user") User user, @Param("limit") int limit);
-}
\ No newline at end of file
+
+    /**
+     * Keyset page of (trade id, product id) pairs in the given statuses, for revaluation
+     */
+    @Query("SELECT t.id, t.product.id FROM Trade t " +
+           "WHERE t.status IN :statuses AND t.id > :afterId " +
+           "ORDER BY t.id")
+    List<Object[]> findRevaluationPage(@Param("statuses") List<Trade.TradeStatus> statuses,
+                                       @Param("afterId") Long afterId, Pageable pageable);
+}
@@ -1,116 +1,185 @@
 package com.quantcrux.service;
 
+import com.quantcrux.backtest.BacktestOptimizer;
+import com.quantcrux.backtest.BacktestRun;
+import com.quantcrux.backtest.CompiledStrategy;
+import com.quantcrux.backtest.CompiledStrategyCache;
+import com.quantcrux.backtest.EquityCurve;
+import com.quantcrux.backtest.IndicatorColumns;
+import com.quantcrux.backtest.OhlcvSeries;
+import com.quantcrux.backtest.PortfolioRun;
+import com.quantcrux.backtest.PricePanel;
+import com.quantcrux.dto.BacktestOptimizationRequest;
+import com.quantcrux.dto.BacktestOptimizationResult;
 import com.quantcrux.dto.BacktestRequest;
 import com.quantcrux.dto.BacktestResult;
-import com.quantcrux.dto.MarketDataPoint;
+import com.quantcrux.dto.PortfolioBacktestRequest;
+import com.quantcrux.dto.PortfolioBacktestResult;
+import com.quantcrux.model.StrategyV2;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
-import java.util.*;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+/**
+ * Backtests of StrategyV2 code. The codeJson is compiled once per strategy version into a
+ * rule graph (see {@link com.quantcrux.backtest.StrategyCompiler}) and run bar by bar over a
+ * columnar series, with every indicator the rules share computed once.
+ */
 @Service
 public class BacktestService {
 
     @Autowired
     private MarketDataService marketDataService;
 
-    public BacktestResult runBacktest(BacktestRequest request) {
-        // Get market data for the specified period
-        LocalDate startDate = LocalDate.parse(request.getStartDate());
-        LocalDate endDate = LocalDate.parse(request.getEndDate());
-        long daysBetween = java.time.temporal.ChronoUnit.DAYS.between(startDate, endDate);
-        
-        List<MarketDataPoint> marketData = marketDataService.getMarketData(request.getSymbol(), (int) daysBetween);
-        
-        // Simple momentum strategy simulation
-        double capital = request.getInitialCapital();
-        double position = 0;
-        double entryPrice = 0;
-        List<Double> returns = new ArrayList<>();
-        List<Map<String, Object>> equityCurve = new ArrayList<>();
-        
-        int totalTrades = 0;
-        int profitableTrades = 0;
-        double maxDrawdown = 0;
-        double peakValue = capital;
-        
-        for (int i = 1; i < marketData.size(); i++) {
-            MarketDataPoint current = marketData.get(i);
-            MarketDataPoint previous = marketData.get(i - 1);
-            
-            double currentPrice = current.getClose();
-            double previousPrice = previous.getClose();
-            double dailyReturn = (currentPrice - previousPrice) / previousPrice;
-            
-            // Simple momentum strategy: buy if price is above 20-day average
-            if (i >= 20) {
-                double sma20 = marketData.subList(i - 20, i).stream()
-                    .mapToDouble(MarketDataPoint::getClose)
-                    .average()
-                    .orElse(0);
-                
-                // Entry signal
-                if (position == 0 && currentPrice > sma20 * 1.02) {
-                    position = capital / currentPrice;
-                    entryPrice = currentPrice;
-                    totalTrades++;
-                }
-                // Exit signal
-                else if (position > 0 && currentPrice < sma20 * 0.98) {
-                    double exitValue = position * currentPrice;
-                    if (exitValue > capital) {
-                        profitableTrades++;
-                    }
-                    capital = exitValue;
-                    position = 0;
-                }
-            }
-            
-            // Calculate current portfolio value
-            double currentValue = position > 0 ? position * currentPrice : capital;
-            
-            // Track drawdown
-            if (currentValue > peakValue) {
-                peakValue = currentValue;
-            } else {
-                double drawdown = (peakValue - currentValue) / peakValue;
-                maxDrawdown = Math.max(maxDrawdown, drawdown);
-            }
-            
-            // Add to equity curve
-            Map<String, Object> point = new HashMap<>();
-            point.put("date", current.getDate().toString());
-            point.put("value", currentValue);
-            equityCurve.add(point);
-            
-            returns.add(dailyReturn);
+    @Autowired
+    private CompiledStrategyCache compiledStrategies;
+
+    @Autowired
+    private BacktestOptimizer optimizer;
+
+    @Value("${backtest.portfolio.max-symbols:500}")
+    private int maxSymbols;
+
+    public BacktestResult runBacktest(BacktestRequest request, StrategyV2 strategy) {
+        CompiledStrategy compiled = compiledStrategies.get(strategy);
+        OhlcvSeries series = loadSeries(request);
+        if (request.getInitialCapital() == null || request.getInitialCapital() <= 0) {
+            throw new IllegalArgumentException("Initial capital must be positive");
         }
-        
-        // Final portfolio value
-        double finalValue = position > 0 ? position * marketData.get(marketData.size() - 1).getClose() : capital;
-        
-        // Calculate metrics
-        double totalReturn = (finalValue - request.getInitialCapital()) / request.getInitialCapital();
-        double winRate = totalTrades > 0 ? (double) profitableTrades / totalTrades : 0;
-        
-        // Calculate Sharpe ratio (simplified)
-        double avgReturn = returns.stream().mapToDouble(Double::doubleValue).average().orElse(0);
-        double stdDev = Math.sqrt(returns.stream()
-            .mapToDouble(r -> Math.pow(r - avgReturn, 2))
-            .average().orElse(0));
-        double sharpeRatio = stdDev > 0 ? (avgReturn * 252) / (stdDev * Math.sqrt(252)) : 0;
-        
+
+        BacktestRun run = compiled.run(new IndicatorColumns(series), request.getInitialCapital(), true);
+
         Map<String, Object> results = new HashMap<>();
-        results.put("total_return", totalReturn);
-        results.put("final_value", finalValue);
-        results.put("total_trades", totalTrades);
-        results.put("profitable_trades", profitableTrades);
-        results.put("win_rate", winRate);
-        results.put("max_drawdown", maxDrawdown);
-        results.put("sharpe_ratio", Math.round(sharpeRatio * 100.0) / 100.0);
-        
-        return new BacktestResult(results, equityCurve);
+        results.put("strategy_id", strategy.getId());
+        results.put("total_return", run.getTotalReturn());
+        results.put("final_value", run.getFinalValue());
+        results.put("total_trades", run.getTotalTrades());
+        results.put("profitable_trades", run.getProfitableTrades());
+        results.put("win_rate", run.getWinRate());
+        results.put("max_drawdown", run.getMaxDrawdown());
+        results.put("sharpe_ratio", Math.round(run.getSharpeRatio() * 100.0) / 100.0);
+        results.put("halted", run.isHalted());
+
+        return new BacktestResult(results, new EquityCurve(series.epochDays(), 0, run.getEquity(), series.size()));
+    }
+
+    /**
+     * Backtest every combination of the request's parameter values over one load of the
+     * series and rank the runs; see {@link BacktestOptimizer}.
+     */
+    public BacktestOptimizationResult optimize(BacktestOptimizationRequest request, StrategyV2 strategy) {
+        BacktestRequest backtest = request.getBacktest();
+        OhlcvSeries series = loadSeries(backtest);
+        if (backtest.getInitialCapital() == null || backtest.getInitialCapital() <= 0) {
+            throw new IllegalArgumentException("Initial capital must be positive");
+        }
+
+        BacktestOptimizationResult result = optimizer.optimize(series, strategy.getCodeJson(),
+                                                               backtest.getInitialCapital(), request);
+        result.setStrategyId(strategy.getId());
+        return result;
+    }
+
+    /**
+     * Backtest the strategy over a universe of symbols from one account. The symbols are
+     * aligned on the union of their dates, their signals are evaluated in parallel on the
+     * backtest pool, and the portfolio is then stepped through the dates once.
+     */
+    public PortfolioBacktestResult runPortfolioBacktest(PortfolioBacktestRequest request, StrategyV2 strategy) {
+        CompiledStrategy compiled = compiledStrategies.get(strategy);
+        if (request.getInitialCapital() == null || request.getInitialCapital() <= 0) {
+            throw new IllegalArgumentException("Initial capital must be positive");
+        }
+        int rebalanceBars = request.getRebalanceBars() != null ? request.getRebalanceBars() : 0;
+        if (rebalanceBars < 0) {
+            throw new IllegalArgumentException("rebalanceBars must not be negative");
+        }
+        PricePanel panel = loadPanel(request);
+
+        byte[][] signals = new byte[panel.width()][];
+        optimizer.forEach(panel.width(), s -> signals[s] = compiled.signals(panel, s));
+        PortfolioRun run = compiled.runPortfolio(panel, signals, request.getInitialCapital(), rebalanceBars, true);
+
+        PortfolioBacktestResult result = new PortfolioBacktestResult();
+        result.setStrategyId(strategy.getId());
+        result.setBars(panel.size());
+        result.setTotalReturn(run.getTotalReturn());
+        result.setFinalValue(run.getFinalValue());
+        result.setTotalTrades(run.getTotalTrades());
+        result.setProfitableTrades(run.getProfitableTrades());
+        result.setWinRate(run.getWinRate());
+        result.setMaxDrawdown(run.getMaxDrawdown());
+        result.setSharpeRatio(Math.round(run.getSharpeRatio() * 100.0) / 100.0);
+        result.setHalted(run.isHalted());
+        result.setEquityCurve(new EquityCurve(panel.epochDays(), 0, run.getEquity(), panel.size()));
+        List<PortfolioBacktestResult.SymbolResult> symbols = new ArrayList<>(panel.width());
+        for (int s = 0; s < panel.width(); s++) {
+            PortfolioBacktestResult.SymbolResult symbol = new PortfolioBacktestResult.SymbolResult();
+            symbol.setSymbol(panel.symbol(s));
+            symbol.setBars(panel.series(s).size());
+            symbol.setMissingBars(panel.missingBars(s));
+            symbol.setTrades(run.getTrades(s));
+            symbol.setProfitableTrades(run.getProfitableTrades(s));
+            symbol.setProfit(run.getProfit(s));
+            symbol.setOpenValue(run.getOpenValue(s));
+            symbols.add(symbol);
+        }
+        result.setSymbols(symbols);
+        return result;
+    }
+
+    /**
+     * Daily bars of the request's symbol over its start and end dates.
+     */
+    public OhlcvSeries loadSeries(BacktestRequest request) {
+        return marketDataService.getSeries(request.getSymbol(), days(request.getStartDate(), request.getEndDate()));
+    }
+
+    /**
+     * Daily bars of each distinct symbol of the request, aligned on one time axis.
+     */
+    public PricePanel loadPanel(PortfolioBacktestRequest request) {
+        int days = days(request.getStartDate(), request.getEndDate());
+        Set<String> distinct = new LinkedHashSet<>();
+        for (String symbol : request.getSymbols()) {
+            if (symbol == null || symbol.isBlank()) {
+                throw new IllegalArgumentException("Symbols must not be blank");
+            }
+            distinct.add(symbol.trim().toUpperCase());
+        }
+        if (distinct.size() > maxSymbols) {
+            throw new IllegalArgumentException("At most " + maxSymbols + " symbols per portfolio backtest");
+        }
+        String[] symbols = distinct.toArray(new String[0]);
+        OhlcvSeries[] series = new OhlcvSeries[symbols.length];
+        optimizer.forEach(symbols.length, s -> series[s] = marketDataService.getSeries(symbols[s], days));
+        return PricePanel.align(Arrays.asList(series));
+    }
+
+    private static int days(String start, String end) {
+        LocalDate startDate;
+        LocalDate endDate;
+        try {
+            startDate = LocalDate.parse(start);
+            endDate = LocalDate.parse(end);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Start and end dates must be yyyy-MM-dd");
+        }
+        long daysBetween = ChronoUnit.DAYS.between(startDate, endDate);
+        if (daysBetween <= 0) {
+            throw new IllegalArgumentException("End date must be after start date");
+        }
+        return (int) daysBetween;
     }
-}
\ No newline at end of file
+}
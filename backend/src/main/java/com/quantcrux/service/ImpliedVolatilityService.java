@@ -0,0 +1,324 @@
+package com.quantcrux.service;
+
+import com.quantcrux.dto.ImpliedVolatilityRequest;
+import com.quantcrux.dto.ImpliedVolatilityResult;
+import com.quantcrux.dto.PricingRequest;
+import com.quantcrux.model.MarketData;
+import com.quantcrux.model.Product;
+import com.quantcrux.model.Trade;
+import com.quantcrux.pricing.AnalyticPricingModel;
+import com.quantcrux.pricing.BarrierMonitoring;
+import com.quantcrux.pricing.DiscountCurve;
+import com.quantcrux.pricing.ImpliedVolatilitySolver;
+import com.quantcrux.pricing.MarketEnvironment;
+import com.quantcrux.pricing.MonteCarloEngine;
+import com.quantcrux.pricing.PdePricingModel;
+import com.quantcrux.pricing.VolSurface;
+import com.quantcrux.repository.MarketDataRepository;
+import com.quantcrux.repository.TradeRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Implied volatilities of quoted and booked prices, solved on {@link AnalyticPricingModel}.
+ *
+ * Vanilla calls are solved by safeguarded Newton on the Black-Scholes vega, digitals and
+ * barriers by Brent's method; quotes with early exercise are repriced on
+ * {@link PdePricingModel}, also by Brent. Batches are solved in parallel on the Monte Carlo
+ * engine's pool. Solutions are kept in an LRU cache keyed on the product terms and the quote.
+ * The cached vanilla European points of each underlying are fitted into a volatility surface
+ * by {@link #fitSurfaces()}, which the market environment rebuild uses in place of its
+ * 52-week range estimate.
+ */
+@Service
+public class ImpliedVolatilityService {
+
+    private static final double MIN_TIME_TO_MATURITY = 1.0 / 365.0;
+
+    @Autowired
+    private AnalyticPricingModel analyticPricingModel;
+
+    @Autowired
+    private PdePricingModel pdePricingModel;
+
+    @Autowired
+    private MonteCarloEngine monteCarloEngine;
+
+    @Autowired
+    private MarketEnvironment marketEnvironment;
+
+    @Autowired
+    private TradeRepository tradeRepository;
+
+    @Autowired
+    private MarketDataRepository marketDataRepository;
+
+    @Value("${pricing.implied-vol.cache-max-entries:50000}")
+    private int maxEntries;
+
+    // Access-ordered, so iteration starts at the least recently used entry
+    private final LinkedHashMap<List<Object>, ImpliedVolatilityResult> solutions =
+        new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<List<Object>, ImpliedVolatilityResult> eldest) {
+                return size() > maxEntries;
+            }
+        };
+
+    /**
+     * Volatility at which the model price of request equals price.
+     */
+    public ImpliedVolatilityResult solve(PricingRequest request, double price) {
+        validate(request, price);
+        applyRate(request);
+        List<Object> key = key(request, price);
+        ImpliedVolatilityResult cached;
+        synchronized (solutions) {
+            cached = solutions.get(key);
+        }
+        if (cached != null) {
+            ImpliedVolatilityResult result = copy(cached);
+            result.setCached(true);
+            return result;
+        }
+
+        DoubleUnaryOperator pricer = PdePricingModel.isEarlyExercise(request)
+            ? vol -> pdePricingModel.value(request, vol)
+            : vol -> analyticPricingModel.value(request, vol);
+        ImpliedVolatilitySolver.Solution solution = ImpliedVolatilitySolver.solve(
+            pricer, vega(request), price, initialGuess(request, price));
+
+        ImpliedVolatilityResult result = new ImpliedVolatilityResult();
+        result.setProductId(request.getProductId());
+        result.setProductType(request.getProductType().toLowerCase());
+        result.setUnderlying(request.getUnderlying());
+        result.setSpotPrice(request.getSpotPrice());
+        result.setStrike(request.getStrike());
+        result.setTimeToMaturity(request.getTimeToMaturity());
+        result.setRiskFreeRate(request.getRiskFreeRate());
+        result.setExerciseStyle(PdePricingModel.isEarlyExercise(request) ? request.getExerciseStyle().toLowerCase() : null);
+        result.setPrice(price);
+        result.setImpliedVolatility(solution.getVolatility());
+        result.setEvaluations(solution.getEvaluations());
+        result.setMethod(solution.getMethod());
+        synchronized (solutions) {
+            solutions.put(key, result);
+        }
+        ImpliedVolatilityResult returned = copy(result);
+        returned.setCached(false);
+        return returned;
+    }
+
+    /**
+     * Solve a list of quotes in parallel, in request order. A quote that cannot be solved is
+     * reported as an error without stopping the rest of the batch.
+     */
+    public List<ImpliedVolatilityResult> solveBatch(List<ImpliedVolatilityRequest> quotes) {
+        ImpliedVolatilityResult[] results = new ImpliedVolatilityResult[quotes.size()];
+        monteCarloEngine.forEach(quotes.size(), i -> {
+            ImpliedVolatilityRequest quote = quotes.get(i);
+            try {
+                if (quote == null || quote.getRequest() == null || quote.getPrice() == null) {
+                    throw new IllegalArgumentException("Quote needs a request and a price");
+                }
+                results[i] = solve(quote.getRequest(), quote.getPrice());
+                results[i].setIndex(i);
+            } catch (RuntimeException e) {
+                results[i] = ImpliedVolatilityResult.failed(i, e.getMessage());
+            }
+        });
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Implied volatility of a trade's entry price. The spot at booking is not stored, so the
+     * underlying's current price is used together with the maturity left on the trade date.
+     */
+    public ImpliedVolatilityResult solveForTrade(Long tradeId) {
+        Trade trade = tradeRepository.findById(tradeId)
+            .orElseThrow(() -> new IllegalArgumentException("Trade not found: " + tradeId));
+        Product product = trade.getProduct();
+        if (product == null || product.getStrike() == null) {
+            throw new IllegalArgumentException("Trade " + tradeId + " has no product strike to solve on");
+        }
+        if (trade.getEntryPrice() == null) {
+            throw new IllegalArgumentException("Trade " + tradeId + " has no entry price");
+        }
+        MarketData marketData = marketDataRepository.findBySymbol(product.getUnderlyingAsset())
+            .orElseThrow(() -> new IllegalArgumentException("No market price for " + product.getUnderlyingAsset()));
+
+        PricingRequest request = new PricingRequest();
+        request.setProductType(product.getType());
+        request.setProductId(product.getId());
+        request.setUnderlying(product.getUnderlyingAsset());
+        request.setCurrency(product.getCurrency());
+        request.setSpotPrice(marketData.getPrice().doubleValue());
+        request.setStrike(product.getStrike());
+        request.setBarrier(product.getBarrier());
+        request.setCoupon(product.getCoupon() != null ? product.getCoupon() : 0.0);
+        request.setTimeToMaturity(maturityAtTrade(product, trade));
+
+        ImpliedVolatilityResult result = solve(request, trade.getEntryPrice());
+        result.setTradeId(tradeId);
+        return result;
+    }
+
+    /**
+     * Cached solutions on an underlying, ordered by maturity then strike.
+     */
+    public List<ImpliedVolatilityResult> getQuotes(String underlying) {
+        List<ImpliedVolatilityResult> quotes = new ArrayList<>();
+        synchronized (solutions) {
+            for (ImpliedVolatilityResult result : solutions.values()) {
+                if (underlying == null || underlying.equalsIgnoreCase(result.getUnderlying())) {
+                    quotes.add(copy(result));
+                }
+            }
+        }
+        quotes.sort(Comparator.comparing(ImpliedVolatilityResult::getTimeToMaturity)
+            .thenComparing(ImpliedVolatilityResult::getStrike));
+        return quotes;
+    }
+
+    /**
+     * A surface per underlying (upper case) through its cached vanilla European solutions,
+     * at ln(strike / spot) of each quote. Digitals, barriers and early exercise are left out:
+     * their implied volatility is not a point of the vanilla smile. Underlyings without such a
+     * solution are absent.
+     */
+    public Map<String, VolSurface> fitSurfaces() {
+        Map<String, List<ImpliedVolatilityResult>> points = new HashMap<>();
+        synchronized (solutions) {
+            for (ImpliedVolatilityResult result : solutions.values()) {
+                String productType = result.getProductType();
+                if (result.getUnderlying() != null && result.getExerciseStyle() == null
+                    && !productType.equals("digital_option") && !productType.equals("barrier_option")) {
+                    points.computeIfAbsent(result.getUnderlying().toUpperCase(), u -> new ArrayList<>()).add(result);
+                }
+            }
+        }
+        Map<String, VolSurface> surfaces = new HashMap<>();
+        points.forEach((underlying, quotes) -> {
+            double[] tenors = new double[quotes.size()];
+            double[] logMoneyness = new double[quotes.size()];
+            double[] volatilities = new double[quotes.size()];
+            for (int i = 0; i < tenors.length; i++) {
+                ImpliedVolatilityResult quote = quotes.get(i);
+                tenors[i] = quote.getTimeToMaturity();
+                logMoneyness[i] = Math.log(quote.getStrike() / quote.getSpotPrice());
+                volatilities[i] = quote.getImpliedVolatility();
+            }
+            surfaces.put(underlying, VolSurface.fit(underlying, tenors, logMoneyness, volatilities));
+        });
+        return surfaces;
+    }
+
+    public void clearCache() {
+        synchronized (solutions) {
+            solutions.clear();
+        }
+    }
+
+    private void validate(PricingRequest request, double price) {
+        if (request.getSpotPrice() == null || request.getSpotPrice() <= 0
+            || request.getStrike() == null || request.getStrike() <= 0) {
+            throw new IllegalArgumentException("Spot and strike must be positive");
+        }
+        if (request.getTimeToMaturity() == null || request.getTimeToMaturity() <= 0) {
+            throw new IllegalArgumentException("Time to maturity must be positive");
+        }
+        if (!(price > 0)) {
+            throw new IllegalArgumentException("Price must be positive");
+        }
+    }
+
+    private void applyRate(PricingRequest request) {
+        if (request.getRiskFreeRate() == null) {
+            DiscountCurve curve = marketEnvironment.getDiscountCurve(request.getCurrency());
+            if (curve == null) {
+                throw new IllegalArgumentException("No risk-free rate given and no curve for currency: " + request.getCurrency());
+            }
+            request.setRiskFreeRate(curve.zeroRate(request.getTimeToMaturity()));
+        }
+    }
+
+    private static boolean isVanilla(PricingRequest request) {
+        String productType = request.getProductType().toLowerCase();
+        return !productType.equals("digital_option") && !productType.equals("barrier_option")
+            && !PdePricingModel.isEarlyExercise(request);
+    }
+
+    private static DoubleUnaryOperator vega(PricingRequest request) {
+        if (!isVanilla(request)) {
+            return null;
+        }
+        double spot = request.getSpotPrice();
+        double strike = request.getStrike();
+        double rate = request.getRiskFreeRate();
+        double t = request.getTimeToMaturity();
+        return vol -> AnalyticPricingModel.blackScholesVega(spot, strike, rate, vol, t);
+    }
+
+    /**
+     * Brenner-Subrahmanyam at-the-money approximation for calls; Newton only, so digitals
+     * and barriers ignore it.
+     */
+    private static double initialGuess(PricingRequest request, double price) {
+        return Math.sqrt(2 * Math.PI / request.getTimeToMaturity()) * price / request.getSpotPrice();
+    }
+
+    private static double maturityAtTrade(Product product, Trade trade) {
+        double years = product.getMaturityMonths() != null ? product.getMaturityMonths() / 12.0 : 1.0;
+        if (product.getCreatedAt() != null && trade.getTradeDate() != null) {
+            years -= Duration.between(product.getCreatedAt(), trade.getTradeDate()).toDays() / 365.0;
+        }
+        return Math.max(years, MIN_TIME_TO_MATURITY);
+    }
+
+    /**
+     * Product terms plus the quote. Monitoring only matters for barriers, and the product id
+     * keeps quotes of different products on the same terms apart.
+     */
+    private static List<Object> key(PricingRequest request, double price) {
+        boolean barrier = request.getProductType().equalsIgnoreCase("barrier_option");
+        String monitoring = request.getMonitoringFrequency() != null
+            ? request.getMonitoringFrequency().toLowerCase() : BarrierMonitoring.DAILY;
+        return Arrays.asList(
+            request.getProductType().toLowerCase(), request.getProductId(),
+            request.getUnderlying() != null ? request.getUnderlying().toUpperCase() : null,
+            request.getSpotPrice(), request.getStrike(), request.getBarrier(), request.getCoupon(),
+            request.getRiskFreeRate(), request.getTimeToMaturity(),
+            barrier ? monitoring : null, barrier ? !Boolean.FALSE.equals(request.getBridgeCorrection()) : null,
+            PdePricingModel.isEarlyExercise(request) ? request.getExerciseStyle().toLowerCase() : null,
+            PdePricingModel.isEarlyExercise(request) ? request.getExerciseFrequency() : null,
+            price);
+    }
+
+    private static ImpliedVolatilityResult copy(ImpliedVolatilityResult source) {
+        ImpliedVolatilityResult result = new ImpliedVolatilityResult();
+        result.setProductId(source.getProductId());
+        result.setProductType(source.getProductType());
+        result.setUnderlying(source.getUnderlying());
+        result.setSpotPrice(source.getSpotPrice());
+        result.setStrike(source.getStrike());
+        result.setTimeToMaturity(source.getTimeToMaturity());
+        result.setRiskFreeRate(source.getRiskFreeRate());
+        result.setExerciseStyle(source.getExerciseStyle());
+        result.setPrice(source.getPrice());
+        result.setImpliedVolatility(source.getImpliedVolatility());
+        result.setEvaluations(source.getEvaluations());
+        result.setMethod(source.getMethod());
+        return result;
+    }
+}
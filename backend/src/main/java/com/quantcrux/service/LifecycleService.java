@@ -1,5 +1,6 @@
 package com.quantcrux.service;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
@@ -11,6 +12,9 @@ import java.util.Map;
 @Service
 public class LifecycleService {
 
+    @Autowired
+    private RevaluationService revaluationService;
+
     public List<Map<String, Object>> getTradeEvents(Long tradeId) {
         // Mock trade events
         List<Map<String, Object>> events = new ArrayList<>();
@@ -34,13 +38,13 @@ public class LifecycleService {
         return events;
     }
 
-    public void processFixings() {
-        // Mock fixing processing
-        // In a real implementation, this would:
-        // 1. Fetch current market rates
-        // 2. Update all active trades with current prices
-        // 3. Check for any fixing events
-        // 4. Update trade statuses as needed
+    public Map<String, Object> processFixings() {
+        // Mark all active trades to market at current prices
+        return revaluationService.revalueBook();
+    }
+
+    public Map<String, Object> getRevaluationStatus() {
+        return revaluationService.getLastReport();
     }
 
     public void checkBarriers() {
@@ -1,5 +1,6 @@
 package com.quantcrux.service;
 
+import com.quantcrux.backtest.OhlcvSeries;
 import com.quantcrux.dto.MarketDataPoint;
 import org.springframework.stereotype.Service;
 
@@ -12,14 +13,28 @@ import java.util.Random;
 public class MarketDataService {
 
     public List<MarketDataPoint> getMarketData(String symbol, int days) {
-        List<MarketDataPoint> data = new ArrayList<>();
-        Random random = new Random(42); // Fixed seed for consistent data
+        OhlcvSeries series = getSeries(symbol, days);
+        List<MarketDataPoint> data = new ArrayList<>(series.size());
+        for (int i = 0; i < series.size(); i++) {
+            data.add(new MarketDataPoint(series.date(i), series.open()[i], series.high()[i], series.low()[i],
+                                         series.close()[i], series.volume()[i]));
+        }
+        return data;
+    }
+
+    /**
+     * The same daily bars as {@link #getMarketData(String, int)}, in columnar form.
+     */
+    public OhlcvSeries getSeries(String symbol, int days) {
+        OhlcvSeries series = new OhlcvSeries(symbol, Math.max(days, 0));
+        Random random = new Random(42 + symbol.toUpperCase().hashCode()); // Fixed seed per symbol for consistent data
         
         double basePrice = getBasePrice(symbol);
         double currentPrice = basePrice;
+        long today = LocalDate.now().toEpochDay();
         
         for (int i = 0; i < days; i++) {
-            LocalDate date = LocalDate.now().minusDays(days - i - 1);
+            int epochDay = (int) (today - (days - i - 1));
             
             // Generate realistic price movements
             double dailyReturn = (random.nextGaussian() * 0.02) + 0.0002; // 2% daily volatility, slight upward drift
@@ -34,11 +49,11 @@ public class MarketDataService {
             
             long volume = (long) (1000000 + random.nextInt(5000000));
             
-            data.add(new MarketDataPoint(date, open, high, low, close, volume));
+            series.append(epochDay, open, high, low, close, volume);
             currentPrice = close;
         }
         
-        return data;
+        return series;
     }
     
     private double getBasePrice(String symbol) {
@@ -2,6 +2,7 @@ package com.quantcrux.service;
 
 import com.quantcrux.dto.MarketSnapshotResponse;
 import com.quantcrux.model.MarketData;
+import com.quantcrux.pricing.PricingCache;
 import com.quantcrux.repository.MarketDataRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -22,6 +23,9 @@ public class MarketDataUpdateService {
     @Autowired
     private MarketDataRepository marketDataRepository;
 
+    @Autowired
+    private PricingCache pricingCache;
+
     private final Random random = new Random();
 
     public List<MarketSnapshotResponse> getMarketSnapshot() {
@@ -96,6 +100,9 @@ public class MarketDataUpdateService {
             marketData.setUpdatedAt(LocalDateTime.now());
             
             marketDataRepository.save(marketData);
+
+            // Prices cached against the old spot are stale now
+            pricingCache.invalidateUnderlying(marketData.getSymbol());
         }
     }
 
@@ -0,0 +1,176 @@
+package com.quantcrux.service;
+
+import com.quantcrux.dto.DiscountCurveData;
+import com.quantcrux.dto.VolSurfaceData;
+import com.quantcrux.model.MarketData;
+import com.quantcrux.pricing.DiscountCurve;
+import com.quantcrux.pricing.MarketEnvironment;
+import com.quantcrux.pricing.VolSurface;
+import com.quantcrux.repository.MarketDataRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Builds and maintains the {@link MarketEnvironment}.
+ *
+ * An underlying with solved implied volatilities gets a surface fitted to them (see
+ * {@link ImpliedVolatilityService#fitSurfaces()}); any other active market_data row gets a
+ * flat surface at its Parkinson volatility estimate from the 52-week high/low range, and each
+ * currency a flat curve at its configured rate. Surfaces and curves uploaded through the API
+ * replace both and are kept across rebuilds.
+ */
+@Service
+public class MarketEnvironmentService {
+
+    // Parkinson range estimator: E[ln(H/L)^2] = 4 ln 2 sigma^2 T
+    private static final double PARKINSON_SCALE = Math.sqrt(4 * Math.log(2));
+
+    @Autowired
+    private MarketDataRepository marketDataRepository;
+
+    @Autowired
+    private MarketEnvironment marketEnvironment;
+
+    @Autowired
+    private ImpliedVolatilityService impliedVolatilityService;
+
+    @Value("${pricing.market.default-volatility:0.2}")
+    private double defaultVolatility;
+
+    @Value("${pricing.market.default-rate:0.05}")
+    private double defaultRate;
+
+    // Flat rate per currency, e.g. USD=0.05,INR=0.065
+    @Value("${pricing.market.rates:}")
+    private String currencyRates;
+
+    private final Set<String> quotedUnderlyings = ConcurrentHashMap.newKeySet();
+    private final Set<String> quotedCurrencies = ConcurrentHashMap.newKeySet();
+
+    public Map<String, Object> rebuildFromMarketData() {
+        Map<String, Double> rates = parseRates(currencyRates);
+        Map<String, VolSurface> surfaces = new HashMap<>();
+        Map<String, DiscountCurve> curves = new HashMap<>();
+
+        for (MarketData marketData : marketDataRepository.findByIsActiveTrueOrderBySymbol()) {
+            String symbol = marketData.getSymbol().toUpperCase();
+            surfaces.put(symbol, VolSurface.flat(symbol, estimateVolatility(marketData)));
+            if (marketData.getCurrency() != null) {
+                String currency = marketData.getCurrency().toUpperCase();
+                curves.put(currency, DiscountCurve.flat(currency, rates.getOrDefault(currency, defaultRate)));
+            }
+        }
+        rates.forEach((currency, rate) -> curves.put(currency, DiscountCurve.flat(currency, rate)));
+        Map<String, VolSurface> implied = impliedVolatilityService.fitSurfaces();
+        surfaces.putAll(implied);
+
+        // Quoted data wins over the defaults, merged in the same swap so that an upload made
+        // meanwhile is not lost
+        marketEnvironment.replaceAll(surfaces, curves, quotedUnderlyings, quotedCurrencies);
+
+        Map<String, Object> summary = new HashMap<>();
+        summary.put("volSurfaces", marketEnvironment.getVolSurfaces().size());
+        // Uploaded surfaces win over fitted ones
+        summary.put("impliedVolSurfaces", implied.keySet().stream().filter(u -> !quotedUnderlyings.contains(u)).count());
+        summary.put("discountCurves", marketEnvironment.getDiscountCurves().size());
+        return summary;
+    }
+
+    public VolSurfaceData getVolSurface(String underlying) {
+        VolSurface surface = marketEnvironment.getVolSurface(underlying);
+        if (surface == null) {
+            return null;
+        }
+        VolSurfaceData data = new VolSurfaceData();
+        data.setUnderlying(surface.getUnderlying());
+        data.setTenors(toList(surface.getTenors()));
+        data.setLogMoneyness(toList(surface.getLogMoneyness()));
+        List<List<Double>> volatilities = new ArrayList<>();
+        for (double[] row : surface.getVolatilities()) {
+            volatilities.add(toList(row));
+        }
+        data.setVolatilities(volatilities);
+        return data;
+    }
+
+    public VolSurfaceData putVolSurface(String underlying, VolSurfaceData data) {
+        double[][] volatilities = new double[data.getVolatilities().size()][];
+        for (int i = 0; i < volatilities.length; i++) {
+            volatilities[i] = toArray(data.getVolatilities().get(i));
+        }
+        String key = underlying.toUpperCase();
+        VolSurface surface = new VolSurface(key, toArray(data.getTenors()), toArray(data.getLogMoneyness()),
+                                            volatilities);
+        // Registered before the put, so a rebuild running meanwhile keeps the new surface
+        quotedUnderlyings.add(key);
+        marketEnvironment.putVolSurface(surface);
+        return getVolSurface(key);
+    }
+
+    public DiscountCurveData getDiscountCurve(String currency) {
+        DiscountCurve curve = marketEnvironment.getDiscountCurve(currency);
+        if (curve == null) {
+            return null;
+        }
+        DiscountCurveData data = new DiscountCurveData();
+        data.setCurrency(curve.getCurrency());
+        data.setTenors(toList(curve.getTenors()));
+        data.setZeroRates(toList(curve.getZeroRates()));
+        return data;
+    }
+
+    public DiscountCurveData putDiscountCurve(String currency, DiscountCurveData data) {
+        String key = currency.toUpperCase();
+        DiscountCurve curve = new DiscountCurve(key, toArray(data.getTenors()), toArray(data.getZeroRates()));
+        quotedCurrencies.add(key);
+        marketEnvironment.putDiscountCurve(curve);
+        return getDiscountCurve(key);
+    }
+
+    private double estimateVolatility(MarketData marketData) {
+        if (marketData.getHigh52w() == null || marketData.getLow52w() == null
+                || marketData.getLow52w().signum() <= 0 || marketData.getHigh52w().compareTo(marketData.getLow52w()) <= 0) {
+            return defaultVolatility;
+        }
+        double range = Math.log(marketData.getHigh52w().doubleValue() / marketData.getLow52w().doubleValue());
+        return Math.min(Math.max(range / PARKINSON_SCALE, 0.01), 3.0);
+    }
+
+    private Map<String, Double> parseRates(String value) {
+        Map<String, Double> rates = new HashMap<>();
+        if (value == null || value.isBlank()) {
+            return rates;
+        }
+        for (String entry : value.split(",")) {
+            String[] parts = entry.trim().split("=");
+            if (parts.length == 2) {
+                rates.put(parts[0].trim().toUpperCase(), Double.parseDouble(parts[1].trim()));
+            }
+        }
+        return rates;
+    }
+
+    private static double[] toArray(List<Double> values) {
+        double[] array = new double[values.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = values.get(i);
+        }
+        return array;
+    }
+
+    private static List<Double> toList(double[] values) {
+        List<Double> list = new ArrayList<>(values.length);
+        for (double value : values) {
+            list.add(value);
+        }
+        return list;
+    }
+}
@@ -0,0 +1,332 @@
+package com.quantcrux.service;
+
+import com.quantcrux.dto.PricingJobStatus;
+import com.quantcrux.dto.PricingRequest;
+import com.quantcrux.dto.PricingResult;
+import com.quantcrux.pricing.MonteCarloPricingModel;
+import com.quantcrux.pricing.PdePricingModel;
+import com.quantcrux.pricing.PricingProgress;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Asynchronous Monte Carlo pricing jobs.
+ *
+ * Jobs go to one of two bounded executors by estimated work (paths x time steps): small
+ * "interactive" quotes never wait behind long "bulk" runs. Within a lane, waiting jobs are
+ * taken by priority, then smallest work first, then submission order. Running estimates are
+ * pushed to SSE subscribers after every slice of paths, and a cancelled job stops at the next
+ * chunk boundary.
+ */
+@Service
+public class PricingJobService {
+
+    public static final String PRIORITY_HIGH = "high";
+    public static final String PRIORITY_NORMAL = "normal";
+    public static final String PRIORITY_LOW = "low";
+
+    private static final List<String> PRIORITIES = List.of(PRIORITY_HIGH, PRIORITY_NORMAL, PRIORITY_LOW);
+
+    @Autowired
+    private PricingService pricingService;
+
+    @Value("${pricing.jobs.interactive-threads:2}")
+    private int interactiveThreads;
+
+    @Value("${pricing.jobs.bulk-threads:2}")
+    private int bulkThreads;
+
+    // Jobs of at most this many paths x time steps run in the interactive lane
+    @Value("${pricing.jobs.interactive-max-path-steps:1000000}")
+    private long interactiveMaxPathSteps;
+
+    @Value("${pricing.jobs.max-queued:100}")
+    private int maxQueued;
+
+    @Value("${pricing.jobs.retention-seconds:600}")
+    private long retentionSeconds;
+
+    @Value("${pricing.jobs.sse-timeout-ms:1800000}")
+    private long sseTimeoutMillis;
+
+    private final Map<String, PricingJob> jobs = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicInteger queued = new AtomicInteger();
+    private ThreadPoolExecutor interactiveExecutor;
+    private ThreadPoolExecutor bulkExecutor;
+
+    @PostConstruct
+    public void startExecutors() {
+        interactiveExecutor = newExecutor(interactiveThreads, "pricing-job-interactive-");
+        bulkExecutor = newExecutor(bulkThreads, "pricing-job-bulk-");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobs.values().forEach(PricingJob::cancel);
+        interactiveExecutor.shutdownNow();
+        bulkExecutor.shutdownNow();
+    }
+
+    public PricingJobStatus submit(PricingRequest request, String priority) {
+        String normalizedPriority = priority != null ? priority.toLowerCase() : PRIORITY_NORMAL;
+        if (!PRIORITIES.contains(normalizedPriority)) {
+            throw new IllegalArgumentException("Priority must be one of " + PRIORITIES);
+        }
+        // Jobs run on Monte Carlo, so reject what it cannot price before taking a queue slot
+        if (PdePricingModel.isEarlyExercise(request)) {
+            throw new IllegalArgumentException("Early exercise is priced by the pde model; use /api/pricing/calculate");
+        }
+        // Also validates the barrier monitoring schedule
+        long work = estimateWork(request);
+        boolean interactive = work <= interactiveMaxPathSteps;
+
+        removeExpiredJobs();
+        if (queued.incrementAndGet() > maxQueued) {
+            queued.decrementAndGet();
+            throw new IllegalStateException("Too many pricing jobs waiting; try again later");
+        }
+        PricingJob job = new PricingJob(UUID.randomUUID().toString(), request, normalizedPriority,
+                                        interactive ? "interactive" : "bulk", work, sequence.incrementAndGet());
+        try {
+            jobs.put(job.id, job);
+            (interactive ? interactiveExecutor : bulkExecutor).execute(job);
+        } catch (RuntimeException e) {
+            // Never queued, so give the slot back
+            jobs.remove(job.id);
+            queued.decrementAndGet();
+            throw e;
+        }
+        return job.snapshot();
+    }
+
+    public PricingJobStatus getStatus(String jobId) {
+        return findJob(jobId).snapshot();
+    }
+
+    /**
+     * Cancel a job: a queued job is dropped, a running one stops at its next chunk boundary.
+     */
+    public PricingJobStatus cancel(String jobId) {
+        PricingJob job = findJob(jobId);
+        job.cancel();
+        if (interactiveExecutor.remove(job) || bulkExecutor.remove(job)) {
+            queued.decrementAndGet();
+            job.finish("CANCELLED", null, "Cancelled before starting");
+        }
+        return job.snapshot();
+    }
+
+    /**
+     * SSE stream of the job: a "status" event now, "progress" events while it runs and a final
+     * event named after its end state, after which the stream completes.
+     */
+    public SseEmitter subscribe(String jobId) {
+        PricingJob job = findJob(jobId);
+        SseEmitter emitter = new SseEmitter(sseTimeoutMillis);
+        emitter.onCompletion(() -> job.emitters.remove(emitter));
+        emitter.onTimeout(() -> job.emitters.remove(emitter));
+        emitter.onError(e -> job.emitters.remove(emitter));
+        job.emitters.add(emitter);
+
+        PricingJobStatus status = job.snapshot();
+        send(job, emitter, "status", status);
+        if (job.isFinished()) {
+            job.emitters.remove(emitter);
+            emitter.complete();
+        }
+        return emitter;
+    }
+
+    private PricingJob findJob(String jobId) {
+        PricingJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new IllegalArgumentException("Pricing job not found: " + jobId);
+        }
+        return job;
+    }
+
+    private long estimateWork(PricingRequest request) {
+        boolean adaptive = request.getTargetConfidenceInterval() != null || request.getTargetRelativeError() != null;
+        Integer paths = adaptive ? request.getMaxSimulations() : request.getNumSimulations();
+        return (long) (paths != null ? paths : 0) * MonteCarloPricingModel.pathSteps(request);
+    }
+
+    private void removeExpiredJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minusSeconds(retentionSeconds);
+        jobs.values().removeIf(job -> job.isFinished() && job.completedAt.isBefore(cutoff));
+    }
+
+    private void send(PricingJob job, SseEmitter emitter, String event, PricingJobStatus status) {
+        try {
+            emitter.send(SseEmitter.event().name(event).data(status));
+        } catch (IOException | IllegalStateException e) {
+            // Client went away
+            job.emitters.remove(emitter);
+        }
+    }
+
+    private static ThreadPoolExecutor newExecutor(int threads, String namePrefix) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new PriorityBlockingQueue<>(),
+            runnable -> {
+                Thread thread = new Thread(runnable, namePrefix + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+    }
+
+    /**
+     * One submitted request. Ordered for the executor queue by priority, work, then sequence.
+     */
+    private final class PricingJob implements Runnable, Comparable<PricingJob>, PricingProgress {
+        final String id;
+        final PricingRequest request;
+        final String priority;
+        final String lane;
+        final long work;
+        final long sequence;
+        final LocalDateTime submittedAt = LocalDateTime.now();
+        final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+
+        volatile boolean cancelled;
+        private String status = "QUEUED";
+        private LocalDateTime startedAt;
+        private LocalDateTime completedAt;
+        private Long simulatedPaths;
+        private Long totalPaths;
+        private Double price;
+        private Double confidenceInterval;
+        private PricingResult result;
+        private String error;
+
+        PricingJob(String id, PricingRequest request, String priority, String lane, long work, long sequence) {
+            this.id = id;
+            this.request = request;
+            this.priority = priority;
+            this.lane = lane;
+            this.work = work;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public void run() {
+            queued.decrementAndGet();
+            synchronized (this) {
+                if (!cancelled) {
+                    status = "RUNNING";
+                    startedAt = LocalDateTime.now();
+                }
+            }
+            if (cancelled) {
+                finish("CANCELLED", null, "Cancelled before starting");
+                return;
+            }
+            try {
+                PricingResult priced = pricingService.monteCarloPrice(request, this);
+                finish("COMPLETED", priced, null);
+            } catch (CancellationException e) {
+                finish("CANCELLED", null, "Cancelled after " + (simulatedPaths != null ? simulatedPaths : 0) + " paths");
+            } catch (RuntimeException e) {
+                finish("FAILED", null, e.getMessage());
+            }
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        @Override
+        public void onProgress(long simulated, long total, double[] prices, double[] confidenceIntervals) {
+            synchronized (this) {
+                simulatedPaths = simulated;
+                totalPaths = total;
+                price = prices[0];
+                confidenceInterval = confidenceIntervals[0];
+            }
+            PricingJobStatus status = snapshot();
+            for (SseEmitter emitter : emitters) {
+                send(this, emitter, "progress", status);
+            }
+        }
+
+        void cancel() {
+            cancelled = true;
+        }
+
+        void finish(String finalStatus, PricingResult priced, String message) {
+            synchronized (this) {
+                if (isFinished()) {
+                    return;
+                }
+                status = finalStatus;
+                result = priced;
+                error = message;
+                completedAt = LocalDateTime.now();
+                if (priced != null) {
+                    price = priced.getPrice();
+                    confidenceInterval = priced.getConfidenceInterval();
+                    simulatedPaths = priced.getNumSimulations().longValue();
+                    totalPaths = simulatedPaths;
+                }
+            }
+            PricingJobStatus status = snapshot();
+            for (SseEmitter emitter : emitters) {
+                send(this, emitter, finalStatus.toLowerCase(), status);
+                emitter.complete();
+            }
+            emitters.clear();
+        }
+
+        synchronized boolean isFinished() {
+            return completedAt != null;
+        }
+
+        synchronized PricingJobStatus snapshot() {
+            PricingJobStatus snapshot = new PricingJobStatus();
+            snapshot.setJobId(id);
+            snapshot.setStatus(status);
+            snapshot.setPriority(priority);
+            snapshot.setLane(lane);
+            snapshot.setSimulatedPaths(simulatedPaths);
+            snapshot.setTotalPaths(totalPaths);
+            snapshot.setPrice(price);
+            snapshot.setConfidenceInterval(confidenceInterval);
+            snapshot.setResult(result);
+            snapshot.setError(error);
+            snapshot.setSubmittedAt(submittedAt);
+            snapshot.setStartedAt(startedAt);
+            snapshot.setCompletedAt(completedAt);
+            return snapshot;
+        }
+
+        @Override
+        public int compareTo(PricingJob other) {
+            int byPriority = Integer.compare(PRIORITIES.indexOf(priority), PRIORITIES.indexOf(other.priority));
+            if (byPriority != 0) {
+                return byPriority;
+            }
+            int byWork = Long.compare(work, other.work);
+            return byWork != 0 ? byWork : Long.compare(sequence, other.sequence);
+        }
+    }
+}
@@ -1,125 +1,245 @@
 package com.quantcrux.service;
 
+import com.quantcrux.dto.BasketPricingRequest;
+import com.quantcrux.dto.BatchPricingResult;
 import com.quantcrux.dto.PricingRequest;
 import com.quantcrux.dto.PricingResult;
-import org.apache.commons.math3.distribution.NormalDistribution;
+import com.quantcrux.dto.ScenarioGridRequest;
+import com.quantcrux.dto.ScenarioGridResult;
+import com.quantcrux.pricing.DiscountCurve;
+import com.quantcrux.pricing.MarketEnvironment;
+import com.quantcrux.pricing.MonteCarloEngine;
+import com.quantcrux.pricing.MonteCarloPricingModel;
+import com.quantcrux.pricing.MultiAssetPricingModel;
+import com.quantcrux.pricing.PricingCache;
+import com.quantcrux.pricing.PricingModel;
+import com.quantcrux.pricing.PricingModelRegistry;
+import com.quantcrux.pricing.PricingProgress;
+import com.quantcrux.pricing.ScenarioGridPricer;
+import com.quantcrux.pricing.VolSurface;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Random;
+import java.util.function.Consumer;
 
 @Service
 public class PricingService {
 
-    private final Random random = new Random(42); // Fixed seed for consistent results
-    private final NormalDistribution normalDist = new NormalDistribution();
+    @Autowired
+    private PricingModelRegistry pricingModelRegistry;
 
+    @Autowired
+    private MonteCarloPricingModel monteCarloPricingModel;
+
+    @Autowired
+    private MultiAssetPricingModel multiAssetPricingModel;
+
+    @Autowired
+    private ScenarioGridPricer scenarioGridPricer;
+
+    @Autowired
+    private PricingCache pricingCache;
+
+    @Autowired
+    private MarketEnvironment marketEnvironment;
+
+    @Autowired
+    private MonteCarloEngine monteCarloEngine;
+
+    private static final String ROUTE_CALCULATE = "calculate";
+    private static final String ROUTE_MONTE_CARLO = "monte_carlo";
+
+    /**
+     * Price with the fastest model that supports the product, closed form where available.
+     */
     public PricingResult calculatePrice(PricingRequest request) {
-        return monteCarloPrice(request);
+        applyMarketEnvironment(request);
+        return pricingCache.get(ROUTE_CALCULATE, request, () -> pricingModelRegistry.resolve(request).price(request));
     }
 
     public PricingResult monteCarloPrice(PricingRequest request) {
-        int numSimulations = request.getNumSimulations();
-        double[] payoffs = new double[numSimulations];
-        
-        for (int i = 0; i < numSimulations; i++) {
-            double finalPrice = simulatePrice(request.getSpotPrice(), request.getVolatility(), 
-                                            request.getRiskFreeRate(), request.getTimeToMaturity());
-            payoffs[i] = calculatePayoff(finalPrice, request);
+        applyMarketEnvironment(request);
+        return pricingCache.get(ROUTE_MONTE_CARLO, request, () -> monteCarloPricingModel.price(request));
+    }
+
+    /**
+     * Monte Carlo price reporting running estimates to progress; equal to
+     * {@link #monteCarloPrice(PricingRequest)} unless cancelled part way.
+     */
+    public PricingResult monteCarloPrice(PricingRequest request, PricingProgress progress) {
+        applyMarketEnvironment(request);
+        PricingResult cached = pricingCache.lookup(ROUTE_MONTE_CARLO, request);
+        if (cached != null) {
+            return cached;
         }
-        
-        // Calculate statistics
-        double meanPayoff = java.util.Arrays.stream(payoffs).average().orElse(0);
-        double variance = java.util.Arrays.stream(payoffs)
-            .map(p -> Math.pow(p - meanPayoff, 2))
-            .average().orElse(0);
-        double stdDev = Math.sqrt(variance);
-        
-        // Discount to present value
-        double price = meanPayoff * Math.exp(-request.getRiskFreeRate() * request.getTimeToMaturity());
-        
-        // Calculate Greeks (simplified finite difference)
-        Map<String, Double> greeks = calculateGreeks(request);
-        
-        // 95% confidence interval
-        double confidenceInterval = 1.96 * stdDev / Math.sqrt(numSimulations);
-        
-        return new PricingResult(price, greeks, confidenceInterval, numSimulations);
+        PricingResult result = monteCarloPricingModel.price(List.of(request), progress).get(0);
+        pricingCache.put(ROUTE_MONTE_CARLO, request, result);
+        return result;
+    }
+
+    /**
+     * Price a basket, worst-of or best-of product on correlated underlyings.
+     */
+    public PricingResult priceBasket(BasketPricingRequest request) {
+        applyMarketEnvironment(request);
+        return multiAssetPricingModel.price(request);
     }
-    
-    private double simulatePrice(double spot, double volatility, double riskFreeRate, double timeToMaturity) {
-        double drift = riskFreeRate - 0.5 * volatility * volatility;
-        double randomShock = normalDist.sample();
-        return spot * Math.exp(drift * timeToMaturity + volatility * Math.sqrt(timeToMaturity) * randomShock);
+
+    /**
+     * Price a request across a grid of spot, volatility, rate and time shifts in one call.
+     */
+    public ScenarioGridResult priceScenarioGrid(ScenarioGridRequest grid) {
+        applyMarketEnvironment(grid.getRequest());
+        return scenarioGridPricer.price(grid);
+    }
+
+    public Map<String, Object> getCacheStats() {
+        return pricingCache.getStats();
     }
-    
-    private double calculatePayoff(double finalPrice, PricingRequest request) {
-        return switch (request.getProductType().toLowerCase()) {
-            case "digital_option" -> finalPrice > request.getStrike() ? request.getCoupon() * 100 : 0;
-            case "barrier_option" -> {
-                if (request.getBarrier() != null) {
-                    yield finalPrice > request.getBarrier() && finalPrice > request.getStrike() ? 
-                        request.getCoupon() * 100 : 0;
+
+    public void clearCache() {
+        pricingCache.clear();
+    }
+
+    /**
+     * Price a book of requests in one call, in request order.
+     */
+    public List<BatchPricingResult> priceBatch(List<PricingRequest> requests) {
+        BatchPricingResult[] results = new BatchPricingResult[requests.size()];
+        priceBatch(requests, item -> results[item.getIndex()] = item);
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Price a book of requests, handing each result to the listener as soon as it is ready.
+     * Cached requests are answered first, then closed-form and PDE requests, priced in
+     * parallel on the Monte Carlo engine's pool; Monte Carlo requests on the same underlying
+     * and simulation settings are then priced together on one shared path set. A request that
+     * fails is reported as an error without stopping the rest of the batch. The listener is
+     * called by one thread at a time.
+     */
+    public void priceBatch(List<PricingRequest> requests, Consumer<BatchPricingResult> listener) {
+        Map<List<Object>, List<Integer>> pathSets = new LinkedHashMap<>();
+        List<Integer> direct = new ArrayList<>();
+        PricingModel[] models = new PricingModel[requests.size()];
+        for (int i = 0; i < requests.size(); i++) {
+            PricingRequest request = requests.get(i);
+            try {
+                applyMarketEnvironment(request);
+                PricingResult cached = pricingCache.lookup(ROUTE_CALCULATE, request);
+                if (cached != null) {
+                    listener.accept(new BatchPricingResult(i, cached));
+                    continue;
+                }
+                PricingModel model = pricingModelRegistry.resolve(request);
+                if (model instanceof MonteCarloPricingModel) {
+                    pathSets.computeIfAbsent(MonteCarloPricingModel.pathSetKey(request), key -> new ArrayList<>()).add(i);
                 } else {
-                    yield finalPrice > request.getStrike() ? request.getCoupon() * 100 : 0;
+                    models[i] = model;
+                    direct.add(i);
                 }
+            } catch (RuntimeException e) {
+                listener.accept(BatchPricingResult.failed(i, e.getMessage()));
             }
-            default -> Math.max(finalPrice - request.getStrike(), 0);
-        };
+        }
+
+        // Each a closed form or a few PDE solves, independent of the others
+        Object listenerLock = new Object();
+        monteCarloEngine.forEach(direct.size(), k -> {
+            int index = direct.get(k);
+            PricingRequest request = requests.get(index);
+            BatchPricingResult item;
+            try {
+                PricingResult result = models[index].price(request);
+                pricingCache.put(ROUTE_CALCULATE, request, result);
+                item = new BatchPricingResult(index, result);
+            } catch (RuntimeException e) {
+                item = BatchPricingResult.failed(index, e.getMessage());
+            }
+            synchronized (listenerLock) {
+                listener.accept(item);
+            }
+        });
+
+        for (List<Integer> indices : pathSets.values()) {
+            List<PricingRequest> group = new ArrayList<>(indices.size());
+            for (int index : indices) {
+                group.add(requests.get(index));
+            }
+            List<PricingResult> results;
+            try {
+                results = monteCarloPricingModel.price(group);
+            } catch (RuntimeException e) {
+                for (int index : indices) {
+                    listener.accept(BatchPricingResult.failed(index, e.getMessage()));
+                }
+                continue;
+            }
+            for (int k = 0; k < indices.size(); k++) {
+                pricingCache.put(ROUTE_CALCULATE, group.get(k), results.get(k));
+                listener.accept(new BatchPricingResult(indices.get(k), results.get(k)));
+            }
+        }
     }
-    
-    private Map<String, Double> calculateGreeks(PricingRequest request) {
-        Map<String, Double> greeks = new HashMap<>();
-        
-        // Simplified Greeks calculation using finite differences
-        double epsilon = 0.01;
-        
-        // Delta: sensitivity to underlying price
-        PricingRequest upRequest = copyRequest(request);
-        upRequest.setSpotPrice(request.getSpotPrice() * (1 + epsilon));
-        double priceUp = monteCarloPrice(upRequest).getPrice();
-        
-        PricingRequest downRequest = copyRequest(request);
-        downRequest.setSpotPrice(request.getSpotPrice() * (1 - epsilon));
-        double priceDown = monteCarloPrice(downRequest).getPrice();
-        
-        double delta = (priceUp - priceDown) / (2 * request.getSpotPrice() * epsilon);
-        greeks.put("delta", Math.round(delta * 10000.0) / 10000.0);
-        
-        // Gamma: second derivative with respect to spot
-        double basePrice = calculatePrice(request).getPrice();
-        double gamma = (priceUp - 2 * basePrice + priceDown) / Math.pow(request.getSpotPrice() * epsilon, 2);
-        greeks.put("gamma", Math.round(gamma * 10000.0) / 10000.0);
-        
-        // Vega: sensitivity to volatility
-        PricingRequest vegaRequest = copyRequest(request);
-        vegaRequest.setVolatility(request.getVolatility() + 0.01);
-        double vegaPrice = calculatePrice(vegaRequest).getPrice();
-        double vega = vegaPrice - basePrice;
-        greeks.put("vega", Math.round(vega * 10000.0) / 10000.0);
-        
-        // Theta: time decay
-        PricingRequest thetaRequest = copyRequest(request);
-        thetaRequest.setTimeToMaturity(request.getTimeToMaturity() - 1.0/365.0);
-        double thetaPrice = calculatePrice(thetaRequest).getPrice();
-        double theta = thetaPrice - basePrice;
-        greeks.put("theta", Math.round(theta * 10000.0) / 10000.0);
-        
-        return greeks;
+
+    /**
+     * Fill in a volatility or rate the caller left out from the underlying's surface and the
+     * currency's curve.
+     */
+    private void applyMarketEnvironment(PricingRequest request) {
+        if (request.getVolatility() == null) {
+            VolSurface surface = marketEnvironment.getVolSurface(request.getUnderlying());
+            if (surface == null) {
+                throw new IllegalArgumentException("No volatility given and no surface for underlying: " + request.getUnderlying());
+            }
+            request.setVolatility(surface.volatility(request.getStrike(), request.getSpotPrice(), request.getTimeToMaturity()));
+        }
+        if (request.getRiskFreeRate() == null) {
+            DiscountCurve curve = marketEnvironment.getDiscountCurve(request.getCurrency());
+            if (curve == null) {
+                throw new IllegalArgumentException("No risk-free rate given and no curve for currency: " + request.getCurrency());
+            }
+            request.setRiskFreeRate(curve.zeroRate(request.getTimeToMaturity()));
+        }
     }
-    
-    private PricingRequest copyRequest(PricingRequest original) {
-        PricingRequest copy = new PricingRequest();
-        copy.setProductType(original.getProductType());
-        copy.setSpotPrice(original.getSpotPrice());
-        copy.setStrike(original.getStrike());
-        copy.setBarrier(original.getBarrier());
-        copy.setCoupon(original.getCoupon());
-        copy.setVolatility(original.getVolatility());
-        copy.setRiskFreeRate(original.getRiskFreeRate());
-        copy.setTimeToMaturity(original.getTimeToMaturity());
-        copy.setNumSimulations(10000); // Use fewer simulations for Greeks calculation
-        return copy;
+
+    /**
+     * Fill in the volatilities or rate of a multi-asset request from each underlying's
+     * surface, read at the strike level, and the currency's curve.
+     */
+    private void applyMarketEnvironment(BasketPricingRequest request) {
+        if (request.getVolatilities() == null && request.getSpotPrices() != null) {
+            List<String> underlyings = request.getUnderlyings();
+            List<Double> spots = request.getSpotPrices();
+            if (underlyings == null || underlyings.size() != spots.size()) {
+                throw new IllegalArgumentException("No volatilities given and no symbol for every underlying");
+            }
+            List<Double> volatilities = new ArrayList<>(spots.size());
+            for (int i = 0; i < spots.size(); i++) {
+                Double spot = spots.get(i);
+                // Checked here too, since the surface lookup runs before the model's validation
+                if (spot == null || !(spot > 0)) {
+                    throw new IllegalArgumentException("Spot prices must be positive");
+                }
+                VolSurface surface = marketEnvironment.getVolSurface(underlyings.get(i));
+                if (surface == null) {
+                    throw new IllegalArgumentException("No volatility given and no surface for underlying: " + underlyings.get(i));
+                }
+                volatilities.add(surface.volatility(request.getStrike() * spot, spot, request.getTimeToMaturity()));
+            }
+            request.setVolatilities(volatilities);
+        }
+        if (request.getRiskFreeRate() == null) {
+            DiscountCurve curve = marketEnvironment.getDiscountCurve(request.getCurrency());
+            if (curve == null) {
+                throw new IllegalArgumentException("No risk-free rate given and no curve for currency: " + request.getCurrency());
+            }
+            request.setRiskFreeRate(curve.zeroRate(request.getTimeToMaturity()));
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,232 @@
+package com.quantcrux.service;
+
+import com.quantcrux.dto.BatchPricingResult;
+import com.quantcrux.dto.PricingRequest;
+import com.quantcrux.model.MarketData;
+import com.quantcrux.model.Product;
+import com.quantcrux.model.Trade;
+import com.quantcrux.repository.MarketDataRepository;
+import com.quantcrux.repository.ProductRepository;
+import com.quantcrux.repository.TradeRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Mark-to-market of the live book: writes the current model price of every CONFIRMED or
+ * SETTLED trade's product into trades.current_price.
+ *
+ * Trades are read in keyset pages of (trade id, product id). Each distinct product is priced
+ * once per run through {@link PricingService#priceBatch}: closed-form and PDE products in
+ * parallel on the engine pool, Monte Carlo products on the same underlying on one shared path
+ * set. Prices are written back with JDBC batch updates. A run
+ * stops when its wall-clock window is used up; the next run resumes after the last trade
+ * written, so a book too large for one window is still fully revalued over several runs.
+ */
+@Service
+public class RevaluationService {
+
+    private static final List<Trade.TradeStatus> LIVE_STATUSES =
+        List.of(Trade.TradeStatus.CONFIRMED, Trade.TradeStatus.SETTLED);
+    private static final double MIN_TIME_TO_MATURITY = 1.0 / 365.0;
+    private static final String UPDATE_SQL = "UPDATE trades SET current_price = ? WHERE id = ?";
+
+    @Autowired
+    private TradeRepository tradeRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private MarketDataRepository marketDataRepository;
+
+    @Autowired
+    private PricingService pricingService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${pricing.revaluation.page-size:5000}")
+    private int pageSize;
+
+    @Value("${pricing.revaluation.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${pricing.revaluation.window-seconds:300}")
+    private long windowSeconds;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile long resumeAfterId = 0;
+    private volatile Map<String, Object> lastReport = Map.of("status", "NOT_RUN");
+
+    /**
+     * Revalue the book, starting after the last trade written by the previous run.
+     */
+    public Map<String, Object> revalueBook() {
+        if (!running.compareAndSet(false, true)) {
+            Map<String, Object> report = new HashMap<>(lastReport);
+            report.put("status", "ALREADY_RUNNING");
+            return report;
+        }
+        try {
+            Map<String, Object> report = revalue();
+            lastReport = report;
+            return report;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    public Map<String, Object> getLastReport() {
+        return lastReport;
+    }
+
+    private Map<String, Object> revalue() {
+        long startTime = System.nanoTime();
+        long deadline = startTime + windowSeconds * 1_000_000_000L;
+        long startAfterId = resumeAfterId;
+        long afterId = startAfterId;
+        boolean wrapped = startAfterId == 0;
+        boolean complete = false;
+
+        Map<Long, Double> productPrices = new HashMap<>();
+        Set<Long> failedProducts = new HashSet<>();
+        long tradesRevalued = 0;
+        long tradesSkipped = 0;
+
+        while (System.nanoTime() < deadline) {
+            List<Object[]> page = tradeRepository.findRevaluationPage(LIVE_STATUSES, afterId, PageRequest.of(0, pageSize));
+            if (page.isEmpty()) {
+                if (wrapped) {
+                    complete = true;
+                    afterId = 0;
+                    break;
+                }
+                // Reached the end of the book; go round once for the trades before the resume point
+                wrapped = true;
+                afterId = 0;
+                continue;
+            }
+            if (wrapped && startAfterId > 0 && (Long) page.get(0)[0] > startAfterId) {
+                complete = true;
+                afterId = 0;
+                break;
+            }
+
+            Set<Long> newProducts = new HashSet<>();
+            for (Object[] row : page) {
+                Long productId = (Long) row[1];
+                if (productId != null && !productPrices.containsKey(productId) && !failedProducts.contains(productId)) {
+                    newProducts.add(productId);
+                }
+            }
+            priceProducts(newProducts, productPrices, failedProducts);
+
+            List<Object[]> updates = new ArrayList<>(page.size());
+            for (Object[] row : page) {
+                Long tradeId = (Long) row[0];
+                if (wrapped && startAfterId > 0 && tradeId > startAfterId) {
+                    break;
+                }
+                Double price = productPrices.get((Long) row[1]);
+                if (price != null) {
+                    updates.add(new Object[] {price, tradeId});
+                } else {
+                    tradesSkipped++;
+                }
+                afterId = tradeId;
+            }
+            jdbcTemplate.batchUpdate(UPDATE_SQL, updates, batchSize,
+                (statement, update) -> {
+                    statement.setDouble(1, (Double) update[0]);
+                    statement.setLong(2, (Long) update[1]);
+                });
+            tradesRevalued += updates.size();
+        }
+        resumeAfterId = afterId;
+
+        double seconds = (System.nanoTime() - startTime) / 1e9;
+        Map<String, Object> report = new HashMap<>();
+        report.put("status", complete ? "COMPLETE" : "WINDOW_EXCEEDED");
+        report.put("tradesRevalued", tradesRevalued);
+        report.put("tradesSkipped", tradesSkipped);
+        report.put("productsPriced", productPrices.size());
+        report.put("productsFailed", failedProducts.size());
+        report.put("elapsedMillis", Math.round(seconds * 1000));
+        report.put("tradesPerSecond", seconds > 0 ? Math.round(tradesRevalued / seconds) : tradesRevalued);
+        report.put("resumeAfterTradeId", afterId);
+        report.put("completedAt", LocalDateTime.now());
+        return report;
+    }
+
+    private void priceProducts(Set<Long> productIds, Map<Long, Double> productPrices, Set<Long> failedProducts) {
+        if (productIds.isEmpty()) {
+            return;
+        }
+        List<Product> products = productRepository.findAllById(productIds);
+        // Anything not priced below (deleted product, no spot, no strike) is failed for this run
+        failedProducts.addAll(productIds);
+        Set<String> underlyings = new HashSet<>();
+        for (Product product : products) {
+            if (product.getUnderlyingAsset() != null) {
+                underlyings.add(product.getUnderlyingAsset());
+            }
+        }
+        Map<String, Double> spots = new HashMap<>();
+        for (MarketData marketData : marketDataRepository.findBySymbolsAndIsActiveTrue(new ArrayList<>(underlyings))) {
+            spots.put(marketData.getSymbol(), marketData.getPrice().doubleValue());
+        }
+
+        List<Long> requestProducts = new ArrayList<>();
+        List<PricingRequest> requests = new ArrayList<>();
+        for (Product product : products) {
+            Double spot = spots.get(product.getUnderlyingAsset());
+            if (spot != null && product.getStrike() != null) {
+                requestProducts.add(product.getId());
+                requests.add(toPricingRequest(product, spot));
+            }
+        }
+
+        for (BatchPricingResult item : pricingService.priceBatch(requests)) {
+            if (item.getResult() != null) {
+                Long productId = requestProducts.get(item.getIndex());
+                productPrices.put(productId, item.getResult().getPrice());
+                failedProducts.remove(productId);
+            }
+        }
+    }
+
+    private PricingRequest toPricingRequest(Product product, double spot) {
+        PricingRequest request = new PricingRequest();
+        request.setProductType(product.getType());
+        request.setProductId(product.getId());
+        request.setUnderlying(product.getUnderlyingAsset());
+        request.setCurrency(product.getCurrency());
+        request.setSpotPrice(spot);
+        request.setStrike(product.getStrike());
+        request.setBarrier(product.getBarrier());
+        request.setCoupon(product.getCoupon() != null ? product.getCoupon() : 0.0);
+        request.setTimeToMaturity(remainingMaturity(product));
+        return request;
+    }
+
+    private double remainingMaturity(Product product) {
+        double years = product.getMaturityMonths() != null ? product.getMaturityMonths() / 12.0 : 1.0;
+        if (product.getCreatedAt() != null) {
+            years -= Duration.between(product.getCreatedAt(), LocalDateTime.now()).toDays() / 365.0;
+        }
+        return Math.max(years, MIN_TIME_TO_MATURITY);
+    }
+}
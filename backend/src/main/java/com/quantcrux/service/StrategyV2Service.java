@@ -1,5 +1,6 @@
 package com.quantcrux.service;
 
+import com.quantcrux.backtest.CompiledStrategyCache;
 import com.quantcrux.dto.StrategyV2CreateRequest;
 import com.quantcrux.dto.StrategyV2DTO;
 import com.quantcrux.dto.StrategyV2UpdateRequest;
@@ -29,6 +30,9 @@ public class StrategyV2Service {
     @Autowired
     private UserActivityService userActivityService;
 
+    @Autowired
+    private CompiledStrategyCache compiledStrategies;
+
     /**
      * Get strategies based on user role and permissions
      */
@@ -75,6 +79,22 @@ public class StrategyV2Service {
         return StrategyV2DTO.fromStrategyWithPermissions(strategy, user);
     }
 
+    /**
+     * Get a strategy the user may view, as the entity a backtest compiles its code from
+     */
+    @Transactional(readOnly = true)
+    public StrategyV2 getStrategyForBacktest(String username, Long strategyId) {
+        User user = getUserByUsername(username);
+        StrategyV2 strategy = strategyRepository.findByIdWithOwner(strategyId)
+                .orElseThrow(() -> new RuntimeException("Strategy not found"));
+
+        if (!strategy.canBeViewedBy(user)) {
+            throw new RuntimeException("Access denied: You don't have permission to view this strategy");
+        }
+
+        return strategy;
+    }
+
     /**
      * Create a new strategy
      */
@@ -165,6 +185,7 @@ public class StrategyV2Service {
 
         String strategyName = strategy.getName();
         strategyRepository.delete(strategy);
+        compiledStrategies.evict(strategyId);
 
         // Log activity
         userActivityService.logActivity(
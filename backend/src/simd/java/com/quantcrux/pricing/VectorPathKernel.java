@@ -0,0 +1,51 @@
+package com.quantcrux.pricing;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.util.SplittableRandom;
+
+/**
+ * {@link PathKernel} on the JDK Vector API, using the widest double species of the CPU
+ * (4 lanes with AVX2, 8 with AVX-512). Only loaded through {@link PathKernel#select}, so
+ * the rest of the engine runs without the incubator module.
+ */
+final class VectorPathKernel implements PathKernel {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    @Override
+    public String getName() {
+        return "vector_" + SPECIES.length() + "x64";
+    }
+
+    @Override
+    public void gaussians(SplittableRandom rng, double[] out, int count, double[] uniforms) {
+        int pairs = ScalarPathKernel.drawUniforms(rng, count, uniforms);
+        // Full lanes while both the cosine and the sine outputs fit, the rest in scalar
+        int bound = SPECIES.loopBound(count / 2);
+        int k = 0;
+        for (; k < bound; k += SPECIES.length()) {
+            DoubleVector radius = DoubleVector.fromArray(SPECIES, uniforms, k)
+                .lanewise(VectorOperators.LOG).mul(-2).lanewise(VectorOperators.SQRT);
+            DoubleVector angle = DoubleVector.fromArray(SPECIES, uniforms, pairs + k).mul(ScalarPathKernel.TWO_PI);
+            radius.mul(angle.lanewise(VectorOperators.COS)).intoArray(out, k);
+            radius.mul(angle.lanewise(VectorOperators.SIN)).intoArray(out, pairs + k);
+        }
+        ScalarPathKernel.boxMuller(uniforms, out, k, pairs, count);
+    }
+
+    @Override
+    public void terminalPrices(double[] shocks, int count, double spot, double drift, double diffusion, double[] out) {
+        int bound = SPECIES.loopBound(count);
+        int i = 0;
+        for (; i < bound; i += SPECIES.length()) {
+            DoubleVector.fromArray(SPECIES, shocks, i).mul(diffusion).add(drift)
+                .lanewise(VectorOperators.EXP).mul(spot).intoArray(out, i);
+        }
+        for (; i < count; i++) {
+            out[i] = spot * Math.exp(drift + diffusion * shocks[i]);
+        }
+    }
+}
@@ -2,7 +2,8 @@ import React, { useState, useEffect } from 'react';
 import { motion } from 'framer-motion';
 import { LineChart, Line, XAxis, YAxis, CartesianGrid, Tooltip, ResponsiveContainer, BarChart, Bar } from 'recharts';
 import { Play, Download, Calendar, TrendingUp, Target, AlertTriangle } from 'lucide-react';
-import { strategyAPI, backtestAPI } from '../../services/api';
+import { backtestAPI } from '../../services/api';
+import strategyV2API from '../../services/strategyV2API';
 import toast from 'react-hot-toast';
 
 const Backtesting: React.FC = () => {
@@ -23,7 +24,7 @@ const Backtesting: React.FC = () => {
 
   const fetchStrategies = async () => {
     try {
-      const response = await strategyAPI.getStrategies();
+      const response = await strategyV2API.getStrategies();
       setStrategies(response.data);
     } catch (error) {
       console.error('Failed to fetch strategies:', error);
@@ -44,8 +45,8 @@ const Backtesting: React.FC = () => {
       });
       setBacktestResult(response.data);
       toast.success('Backtest completed successfully!');
-    } catch (error) {
-      toast.error('Failed to run backtest');
+    } catch (error: any) {
+      toast.error(error.response?.data?.message || 'Failed to run backtest');
       console.error('Backtest error:', error);
     } finally {
       setRunning(false);